@@ -0,0 +1,69 @@
+package com.alibaba.fastjson.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+
+/**
+ * ASM generated codecs against the JavaBeanSerializer / JavaBeanDeserializer fallback, with lambda bound or
+ * reflective accessors. Each run uses its own configs so they never share cached codecs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BeanCodecBenchmark {
+
+    @Param({ "EISHAY", "TWITTER", "NUMERIC", "NESTED" })
+    public Corpus           corpus;
+
+    @Param({ "asm", "lambda", "reflect" })
+    public String           accessor;
+
+    private Object          object;
+    private String          text;
+    private SerializeConfig serializeConfig;
+    private ParserConfig    parserConfig;
+
+    @Setup
+    public void setup() {
+        object = corpus.createObject();
+        text = corpus.createText();
+
+        boolean asm = "asm".equals(accessor);
+        boolean lambda = "lambda".equals(accessor);
+
+        serializeConfig = new SerializeConfig();
+        serializeConfig.setAsmEnable(asm);
+        serializeConfig.setLambdaAccessor(lambda);
+        parserConfig = new ParserConfig();
+        parserConfig.setAsmEnable(asm);
+        parserConfig.setLambdaAccessor(lambda);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return JSON.toJSONString(object, serializeConfig);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return JSON.parseObject(text, corpus.type, parserConfig);
+    }
+}
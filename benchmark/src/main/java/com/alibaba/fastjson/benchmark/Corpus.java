@@ -0,0 +1,184 @@
+package com.alibaba.fastjson.benchmark;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.alibaba.fastjson.benchmark.model.Image;
+import com.alibaba.fastjson.benchmark.model.Media;
+import com.alibaba.fastjson.benchmark.model.MediaContent;
+import com.alibaba.fastjson.benchmark.model.Node;
+import com.alibaba.fastjson.benchmark.model.Numbers;
+import com.alibaba.fastjson.benchmark.model.Status;
+import com.alibaba.fastjson.benchmark.model.User;
+
+/**
+ * Benchmark payloads. Every corpus is built from a fixed seed, so runs against different fastjson versions parse and
+ * write exactly the same input.
+ */
+public enum Corpus {
+
+    EISHAY(MediaContent.class) {
+
+        Object create(Random random) {
+            Media media = new Media();
+            media.setUri("http://javaone.com/keynote.mpg");
+            media.setTitle("Javaone Keynote");
+            media.setWidth(640);
+            media.setHeight(480);
+            media.setFormat("video/mpg4");
+            media.setDuration(18000000);
+            media.setSize(58982400);
+            media.setBitrate(262144);
+            media.setPersons(Arrays.asList("Bill Gates", "Steve Jobs"));
+            media.setPlayer(Media.Player.JAVA);
+
+            List<Image> images = new ArrayList<Image>();
+            images.add(image("http://javaone.com/keynote_large.jpg", 1024, 768, Image.Size.LARGE));
+            images.add(image("http://javaone.com/keynote_small.jpg", 320, 240, Image.Size.SMALL));
+
+            MediaContent content = new MediaContent();
+            content.setMedia(media);
+            content.setImages(images);
+            return content;
+        }
+    },
+
+    TWITTER(new TypeReference<List<Status>>() {}.getType()) {
+
+        Object create(Random random) {
+            String[] words = { "fastjson", "json", "java", "parser", "release", "性能", "测试", "发布", "😀", "🚀", "#jvm",
+                               "@wenshao", "http://t.co/abc", "\"quoted\"", "tab\there", "new\nline" };
+            String[] langs = { "en", "zh", "ja", "es" };
+
+            List<Status> statuses = new ArrayList<Status>();
+            for (int i = 0; i < 50; ++i) {
+                Status status = new Status();
+                status.setId(900000000000000000L + random.nextInt(Integer.MAX_VALUE));
+                status.setText(sentence(random, words, 5 + random.nextInt(20)));
+                status.setCreatedAt(new Date(1500000000000L + random.nextInt(Integer.MAX_VALUE)));
+                status.setSource("<a href=\"http://twitter.com\" rel=\"nofollow\">Twitter Web Client</a>");
+                status.setTruncated(random.nextInt(10) == 0);
+                if (random.nextBoolean()) {
+                    status.setInReplyToStatusId(900000000000000000L + random.nextInt(Integer.MAX_VALUE));
+                }
+                status.setUser(user(random, words, random.nextInt(10))); // not shared, no $ref in the output
+                status.setRetweetCount(random.nextInt(10000));
+                status.setFavoriteCount(random.nextInt(10000));
+                status.setFavorited(random.nextBoolean());
+                status.setLang(langs[random.nextInt(langs.length)]);
+                status.setHashtags(Arrays.asList("fastjson", "tag" + random.nextInt(100)));
+                status.setUrls(Arrays.asList("https://github.com/alibaba/fastjson/issues/" + random.nextInt(2000)));
+                if (random.nextBoolean()) {
+                    status.setCoordinates(new double[] { random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180 });
+                }
+                statuses.add(status);
+            }
+            return statuses;
+        }
+    },
+
+    NUMERIC(Numbers.class) {
+
+        Object create(Random random) {
+            final int size = 500;
+            long[] ids = new long[size];
+            double[] prices = new double[size];
+            float[] ratios = new float[size];
+            List<Integer> counts = new ArrayList<Integer>(size);
+            BigDecimal[] amounts = new BigDecimal[size];
+            for (int i = 0; i < size; ++i) {
+                ids[i] = random.nextLong();
+                prices[i] = random.nextDouble() * 10000;
+                ratios[i] = random.nextFloat();
+                counts.add(random.nextInt(100000) - 50000);
+                amounts[i] = BigDecimal.valueOf(random.nextInt(100000000), 2);
+            }
+
+            Numbers numbers = new Numbers();
+            numbers.setIds(ids);
+            numbers.setPrices(prices);
+            numbers.setRatios(ratios);
+            numbers.setCounts(counts);
+            numbers.setAmounts(amounts);
+            return numbers;
+        }
+    },
+
+    NESTED(Node.class) {
+
+        Object create(Random random) {
+            Node root = null;
+            for (int depth = 64; depth > 0; --depth) {
+                Node leaf = new Node();
+                leaf.setId(random.nextInt(1000));
+                leaf.setName("leaf_" + depth);
+                leaf.setLeaf(true);
+
+                Node node = new Node();
+                node.setId(depth);
+                node.setName("level_" + depth);
+                node.setChildren(root == null ? Arrays.asList(leaf) : Arrays.asList(leaf, root));
+                root = node;
+            }
+            return root;
+        }
+    };
+
+    public final Type type;
+
+    Corpus(Type type){
+        this.type = type;
+    }
+
+    abstract Object create(Random random);
+
+    public Object createObject() {
+        return create(new Random(ordinal() + 20171201L));
+    }
+
+    public String createText() {
+        return JSON.toJSONString(createObject());
+    }
+
+    private static Image image(String uri, int width, int height, Image.Size size) {
+        Image image = new Image();
+        image.setUri(uri);
+        image.setTitle("Javaone Keynote");
+        image.setWidth(width);
+        image.setHeight(height);
+        image.setSize(size);
+        return image;
+    }
+
+    private static User user(Random random, String[] words, int i) {
+        User user = new User();
+        user.setId(100000L + i);
+        user.setName(i % 2 == 0 ? "user " + i : "用户" + i);
+        user.setScreenName("user_" + i);
+        user.setLocation(i % 3 == 0 ? "杭州" : "San Francisco, CA");
+        user.setDescription(sentence(random, words, 12));
+        user.setFollowersCount(random.nextInt(1000000));
+        user.setFriendsCount(random.nextInt(5000));
+        user.setVerified(i % 4 == 0);
+        user.setProfileImageUrl("https://pbs.twimg.com/profile_images/" + (1000 + i) + "/photo_normal.jpg");
+        return user;
+    }
+
+    private static String sentence(Random random, String[] words, int count) {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < count; ++i) {
+            if (i != 0) {
+                buf.append(' ');
+            }
+            buf.append(words[random.nextInt(words.length)]);
+        }
+        return buf.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package com.alibaba.fastjson.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.NameFilter;
+import com.alibaba.fastjson.serializer.PropertyFilter;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
+import com.alibaba.fastjson.serializer.ValueFilter;
+
+/**
+ * Serialization of the twitter timeline with the common filter kinds, alone and combined.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+
+    static final PropertyFilter          PROPERTY_FILTER   = new PropertyFilter() {
+
+        public boolean apply(Object object, String name, Object value) {
+            return value != null && !"source".equals(name);
+        }
+    };
+
+    static final ValueFilter             VALUE_FILTER      = new ValueFilter() {
+
+        public Object process(Object object, String name, Object value) {
+            if (value instanceof String && ((String) value).length() > 32) {
+                return ((String) value).substring(0, 32);
+            }
+            return value;
+        }
+    };
+
+    static final NameFilter              NAME_FILTER       = new NameFilter() {
+
+        public String process(Object object, String name, Object value) {
+            return name.toUpperCase();
+        }
+    };
+
+    static final SimplePropertyPreFilter PROPERTY_PRE_FILTER = new SimplePropertyPreFilter("id", "text", "user",
+                                                                                           "screen_name", "created_at");
+
+    @Param({ "none", "property", "value", "name", "propertyPre", "all" })
+    public String                        filter;
+
+    private Object                       object;
+    private SerializeFilter[]            filters;
+
+    @Setup
+    public void setup() {
+        object = Corpus.TWITTER.createObject();
+
+        if ("none".equals(filter)) {
+            filters = new SerializeFilter[0];
+        } else if ("property".equals(filter)) {
+            filters = new SerializeFilter[] { PROPERTY_FILTER };
+        } else if ("value".equals(filter)) {
+            filters = new SerializeFilter[] { VALUE_FILTER };
+        } else if ("name".equals(filter)) {
+            filters = new SerializeFilter[] { NAME_FILTER };
+        } else if ("propertyPre".equals(filter)) {
+            filters = new SerializeFilter[] { PROPERTY_PRE_FILTER };
+        } else {
+            filters = new SerializeFilter[] { PROPERTY_PRE_FILTER, PROPERTY_FILTER, VALUE_FILTER, NAME_FILTER };
+        }
+    }
+
+    @Benchmark
+    public String toJSONString() {
+        return JSON.toJSONString(object, filters);
+    }
+}
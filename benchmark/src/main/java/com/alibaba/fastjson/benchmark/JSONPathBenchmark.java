@@ -0,0 +1,71 @@
+package com.alibaba.fastjson.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONPath;
+
+/**
+ * JSONPath over the twitter timeline, on the parsed tree, on the bean graph and on raw text.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JSONPathBenchmark {
+
+    @Param({ "$[0].id", //
+             "$[25].user.screen_name", //
+             "$.size()", //
+             "$[*].id", //
+             "$[?(@.retweet_count > 5000)].id", //
+             "$..screen_name" })
+    public String    path;
+
+    private String   text;
+    private Object   tree;
+    private Object   beans;
+    private JSONPath compiled;
+
+    @Setup
+    public void setup() {
+        text = Corpus.TWITTER.createText();
+        tree = JSON.parse(text);
+        beans = Corpus.TWITTER.createObject();
+        compiled = JSONPath.compile(path);
+    }
+
+    @Benchmark
+    public Object eval_tree() {
+        return compiled.eval(tree);
+    }
+
+    @Benchmark
+    public Object eval_beans() {
+        return compiled.eval(beans);
+    }
+
+    @Benchmark
+    public Object eval_uncompiled() {
+        return JSONPath.eval(tree, path);
+    }
+
+    @Benchmark
+    public Object read_text() {
+        return JSONPath.read(text, path);
+    }
+}
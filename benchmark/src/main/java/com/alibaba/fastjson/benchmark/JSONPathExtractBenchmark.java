@@ -0,0 +1,81 @@
+package com.alibaba.fastjson.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONPath;
+
+/**
+ * Several paths against the same twitter timeline, one eval per path vs a single extract.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JSONPathExtractBenchmark {
+
+    private String     text;
+    private byte[]     utf8;
+    private Object     tree;
+    private JSONPath[] paths;
+
+    @Setup
+    public void setup() throws Exception {
+        text = Corpus.TWITTER.createText();
+        utf8 = text.getBytes("UTF-8");
+        tree = JSON.parse(text);
+        paths = new JSONPath[] { JSONPath.compile("$[0].id"), //
+                                 JSONPath.compile("$[0].user.screen_name"), //
+                                 JSONPath.compile("$[1].id"), //
+                                 JSONPath.compile("$[3].text"), //
+                                 JSONPath.compile("$[5].user.followers_count"), //
+                                 JSONPath.compile("$[5].retweet_count") };
+    }
+
+    @Benchmark
+    public Object[] eval_each_text() {
+        Object root = JSON.parse(text);
+        Object[] results = new Object[paths.length];
+        for (int i = 0; i < paths.length; ++i) {
+            results[i] = paths[i].eval(root);
+        }
+        return results;
+    }
+
+    @Benchmark
+    public Object[] read_each_text() {
+        Object[] results = new Object[paths.length];
+        for (int i = 0; i < paths.length; ++i) {
+            results[i] = JSONPath.read(text, paths[i].getPath());
+        }
+        return results;
+    }
+
+    @Benchmark
+    public Object[] extract_text() {
+        return JSONPath.extract(text, paths);
+    }
+
+    @Benchmark
+    public Object[] extract_utf8() {
+        return JSONPath.extract(utf8, paths);
+    }
+
+    @Benchmark
+    public Object[] extract_tree() {
+        return JSONPath.extract(tree, paths);
+    }
+}
@@ -0,0 +1,74 @@
+package com.alibaba.fastjson.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.util.IOUtils;
+
+/**
+ * JSON.parse / JSON.parseObject over String, byte[] and InputStream input, typed and untyped.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    @Param({ "EISHAY", "TWITTER", "NUMERIC", "NESTED" })
+    public Corpus corpus;
+
+    private String text;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        text = corpus.createText();
+        bytes = text.getBytes(IOUtils.UTF8);
+    }
+
+    @Benchmark
+    public Object string_untyped() {
+        return JSON.parse(text);
+    }
+
+    @Benchmark
+    public Object string_typed() {
+        return JSON.parseObject(text, corpus.type);
+    }
+
+    @Benchmark
+    public Object bytes_untyped() {
+        return JSON.parse(bytes);
+    }
+
+    @Benchmark
+    public Object bytes_typed() {
+        return JSON.parseObject(bytes, corpus.type);
+    }
+
+    @Benchmark
+    public Object inputStream_untyped() throws IOException {
+        return JSON.parseObject(new ByteArrayInputStream(bytes), Object.class);
+    }
+
+    @Benchmark
+    public Object inputStream_typed() throws IOException {
+        return JSON.parseObject(new ByteArrayInputStream(bytes), corpus.type);
+    }
+}
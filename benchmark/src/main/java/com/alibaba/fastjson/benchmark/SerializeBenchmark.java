@@ -0,0 +1,66 @@
+package com.alibaba.fastjson.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.fastjson.JSON;
+
+/**
+ * JSON.toJSONString, JSON.toJSONBytes and JSON.writeJSONString to an OutputStream.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SerializeBenchmark {
+
+    @Param({ "EISHAY", "TWITTER", "NUMERIC", "NESTED" })
+    public Corpus                 corpus;
+
+    private Object                object;
+    private Object                tree;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setup() {
+        object = corpus.createObject();
+        tree = JSON.parse(corpus.createText());
+        out = new ByteArrayOutputStream(1024 * 64);
+    }
+
+    @Benchmark
+    public String toJSONString() {
+        return JSON.toJSONString(object);
+    }
+
+    @Benchmark
+    public byte[] toJSONBytes() {
+        return JSON.toJSONBytes(object);
+    }
+
+    @Benchmark
+    public int writeJSONString_outputStream() throws IOException {
+        out.reset();
+        return JSON.writeJSONString(out, object);
+    }
+
+    @Benchmark
+    public String toJSONString_tree() {
+        return JSON.toJSONString(tree);
+    }
+}
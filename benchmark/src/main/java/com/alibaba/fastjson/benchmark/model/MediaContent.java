@@ -0,0 +1,25 @@
+package com.alibaba.fastjson.benchmark.model;
+
+import java.util.List;
+
+public class MediaContent {
+
+    private Media       media;
+    private List<Image> images;
+
+    public Media getMedia() {
+        return media;
+    }
+
+    public void setMedia(Media media) {
+        this.media = media;
+    }
+
+    public List<Image> getImages() {
+        return images;
+    }
+
+    public void setImages(List<Image> images) {
+        this.images = images;
+    }
+}
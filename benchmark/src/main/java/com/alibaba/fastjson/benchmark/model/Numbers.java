@@ -0,0 +1,53 @@
+package com.alibaba.fastjson.benchmark.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class Numbers {
+
+    private long[]        ids;
+    private double[]      prices;
+    private float[]       ratios;
+    private List<Integer> counts;
+    private BigDecimal[]  amounts;
+
+    public long[] getIds() {
+        return ids;
+    }
+
+    public void setIds(long[] ids) {
+        this.ids = ids;
+    }
+
+    public double[] getPrices() {
+        return prices;
+    }
+
+    public void setPrices(double[] prices) {
+        this.prices = prices;
+    }
+
+    public float[] getRatios() {
+        return ratios;
+    }
+
+    public void setRatios(float[] ratios) {
+        this.ratios = ratios;
+    }
+
+    public List<Integer> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(List<Integer> counts) {
+        this.counts = counts;
+    }
+
+    public BigDecimal[] getAmounts() {
+        return amounts;
+    }
+
+    public void setAmounts(BigDecimal[] amounts) {
+        this.amounts = amounts;
+    }
+}
@@ -0,0 +1,147 @@
+package com.alibaba.fastjson.benchmark.model;
+
+import java.util.Date;
+import java.util.List;
+
+import com.alibaba.fastjson.annotation.JSONField;
+
+/**
+ * a subset of a twitter timeline status
+ */
+public class Status {
+
+    private long         id;
+    private String       text;
+    private Date         createdAt;
+    private String       source;
+    private boolean      truncated;
+    private Long         inReplyToStatusId;
+    private User         user;
+    private int          retweetCount;
+    private int          favoriteCount;
+    private boolean      favorited;
+    private String       lang;
+    private List<String> hashtags;
+    private List<String> urls;
+    private double[]     coordinates;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    @JSONField(name = "created_at")
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    @JSONField(name = "created_at")
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    @JSONField(name = "in_reply_to_status_id")
+    public Long getInReplyToStatusId() {
+        return inReplyToStatusId;
+    }
+
+    @JSONField(name = "in_reply_to_status_id")
+    public void setInReplyToStatusId(Long inReplyToStatusId) {
+        this.inReplyToStatusId = inReplyToStatusId;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    @JSONField(name = "retweet_count")
+    public int getRetweetCount() {
+        return retweetCount;
+    }
+
+    @JSONField(name = "retweet_count")
+    public void setRetweetCount(int retweetCount) {
+        this.retweetCount = retweetCount;
+    }
+
+    @JSONField(name = "favorite_count")
+    public int getFavoriteCount() {
+        return favoriteCount;
+    }
+
+    @JSONField(name = "favorite_count")
+    public void setFavoriteCount(int favoriteCount) {
+        this.favoriteCount = favoriteCount;
+    }
+
+    public boolean isFavorited() {
+        return favorited;
+    }
+
+    public void setFavorited(boolean favorited) {
+        this.favorited = favorited;
+    }
+
+    public String getLang() {
+        return lang;
+    }
+
+    public void setLang(String lang) {
+        this.lang = lang;
+    }
+
+    public List<String> getHashtags() {
+        return hashtags;
+    }
+
+    public void setHashtags(List<String> hashtags) {
+        this.hashtags = hashtags;
+    }
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(List<String> urls) {
+        this.urls = urls;
+    }
+
+    public double[] getCoordinates() {
+        return coordinates;
+    }
+
+    public void setCoordinates(double[] coordinates) {
+        this.coordinates = coordinates;
+    }
+}
@@ -0,0 +1,96 @@
+package com.alibaba.fastjson.benchmark.model;
+
+import com.alibaba.fastjson.annotation.JSONField;
+
+public class User {
+
+    private long    id;
+    private String  name;
+    private String  screenName;
+    private String  location;
+    private String  description;
+    private int     followersCount;
+    private int     friendsCount;
+    private boolean verified;
+    private String  profileImageUrl;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @JSONField(name = "screen_name")
+    public String getScreenName() {
+        return screenName;
+    }
+
+    @JSONField(name = "screen_name")
+    public void setScreenName(String screenName) {
+        this.screenName = screenName;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    @JSONField(name = "followers_count")
+    public int getFollowersCount() {
+        return followersCount;
+    }
+
+    @JSONField(name = "followers_count")
+    public void setFollowersCount(int followersCount) {
+        this.followersCount = followersCount;
+    }
+
+    @JSONField(name = "friends_count")
+    public int getFriendsCount() {
+        return friendsCount;
+    }
+
+    @JSONField(name = "friends_count")
+    public void setFriendsCount(int friendsCount) {
+        this.friendsCount = friendsCount;
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    public void setVerified(boolean verified) {
+        this.verified = verified;
+    }
+
+    @JSONField(name = "profile_image_url")
+    public String getProfileImageUrl() {
+        return profileImageUrl;
+    }
+
+    @JSONField(name = "profile_image_url")
+    public void setProfileImageUrl(String profileImageUrl) {
+        this.profileImageUrl = profileImageUrl;
+    }
+}
@@ -17,7 +17,10 @@ package com.alibaba.fastjson;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.Reader;
 import java.io.Writer;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
@@ -32,6 +35,7 @@ import java.util.*;
 import com.alibaba.fastjson.parser.DefaultJSONParser;
 import com.alibaba.fastjson.parser.Feature;
 import com.alibaba.fastjson.parser.JSONLexer;
+import com.alibaba.fastjson.parser.JSONReaderScanner;
 import com.alibaba.fastjson.parser.JSONToken;
 import com.alibaba.fastjson.parser.ParserConfig;
 import com.alibaba.fastjson.parser.deserializer.ExtraProcessor;
@@ -163,12 +167,19 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
     }
 
     public static Object parse(byte[] input, Feature... features) {
-        char[] chars = allocateChars(input.length);
-        int len = IOUtils.decodeUTF8(input, 0, input.length, chars);
-        if (len < 0) {
-            return null;
+        int featureValues = DEFAULT_PARSER_FEATURE;
+        for (Feature feature : features) {
+            featureValues = Feature.config(featureValues, feature, true);
         }
-        return parse(new String(chars, 0, len), features);
+
+        DefaultJSONParser parser = new DefaultJSONParser(input, 0, input.length, ParserConfig.getGlobalInstance(), featureValues);
+        Object value = parser.parse();
+
+        parser.handleResovleTask(value);
+
+        parser.close();
+
+        return value;
     }
 
     public static Object parse(byte[] input, int off, int len, CharsetDecoder charsetDecoder, Feature... features) {
@@ -189,21 +200,24 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
         int scaleLength = (int) (len * (double) charsetDecoder.maxCharsPerByte());
         char[] chars = allocateChars(scaleLength);
+        try {
+            ByteBuffer byteBuf = ByteBuffer.wrap(input, off, len);
+            CharBuffer charBuf = CharBuffer.wrap(chars);
+            IOUtils.decode(charsetDecoder, byteBuf, charBuf);
 
-        ByteBuffer byteBuf = ByteBuffer.wrap(input, off, len);
-        CharBuffer charBuf = CharBuffer.wrap(chars);
-        IOUtils.decode(charsetDecoder, byteBuf, charBuf);
-
-        int position = charBuf.position();
+            int position = charBuf.position();
 
-        DefaultJSONParser parser = new DefaultJSONParser(chars, position, ParserConfig.getGlobalInstance(), features);
-        Object value = parser.parse();
+            DefaultJSONParser parser = new DefaultJSONParser(chars, position, ParserConfig.getGlobalInstance(), features);
+            Object value = parser.parse();
 
-        parser.handleResovleTask(value);
+            parser.handleResovleTask(value);
 
-        parser.close();
+            parser.close();
 
-        return value;
+            return value;
+        } finally {
+            releaseChars(chars);
+        }
     }
 
     public static Object parse(String text, Feature... features) {
@@ -232,6 +246,39 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         }
     }
 
+    /**
+     * 延迟解析的JSONObject，只扫描第一层并记录每个值在text中的位置，get的时候才解析对应的值，嵌套的对象同样延迟解析。
+     * 适合只读取少量key的场景。没有读取的值不做完整的语法检查，也不处理$ref，所有的值解析完之前会引用text。
+     * 不是标准格式（比如单引号或者没有引号的key）时和parseObject一样完整解析。
+     * 返回的对象只读的时候可以在多个线程中共享，修改和parseObject返回的对象一样不是线程安全的。
+     *
+     * @since 1.2.45
+     */
+    public static JSONObject parseLazyObject(String text, Feature... features) {
+        if (text == null) {
+            return null;
+        }
+
+        int featureValues = DEFAULT_PARSER_FEATURE;
+        for (Feature feature : features) {
+            featureValues = Feature.config(featureValues, feature, true);
+        }
+
+        int start = 0;
+        while (start < text.length() && text.charAt(start) <= ' ') {
+            start++;
+        }
+
+        if (start < text.length() && text.charAt(start) == '{') {
+            JSONObject object = LazyJSONMap.parse(text, start, featureValues);
+            if (object != null) {
+                return object;
+            }
+        }
+
+        return (JSONObject) parse(text, featureValues);
+    }
+
     /**
      * <pre>
      * String jsonStr = "[{\"id\":1001,\"name\":\"Jobs\"}]";
@@ -393,23 +440,40 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             charset = IOUtils.UTF8;
         }
         
-        String strVal;
         if (charset == IOUtils.UTF8) {
-            char[] chars = allocateChars(bytes.length);
-            int chars_len = IOUtils.decodeUTF8(bytes, offset, len, chars);
-            if (chars_len < 0) {
-                return null;
-            }
-            strVal = new String(chars, 0, chars_len);
-        } else {
-            if (len < 0) {
-                return null;
-            }
-            strVal = new String(bytes, offset, len, charset);
+            return (T) parseObject(bytes, offset, len, clazz, ParserConfig.getGlobalInstance(), features);
         }
+
+        if (len < 0) {
+            return null;
+        }
+        String strVal = new String(bytes, offset, len, charset);
         return (T) parseObject(strVal, clazz, features);
     }
 
+    /**
+     * utf-8 input is scanned in place, string values are decoded on demand
+     *
+     * @since 1.2.45
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T parseObject(byte[] bytes, int offset, int len, Type clazz, ParserConfig config,
+                                    Feature... features) {
+        int featureValues = DEFAULT_PARSER_FEATURE;
+        for (Feature feature : features) {
+            featureValues |= feature.mask;
+        }
+
+        DefaultJSONParser parser = new DefaultJSONParser(bytes, offset, len, config, featureValues);
+        T value = (T) parser.parseObject(clazz, null);
+
+        parser.handleResovleTask(value);
+
+        parser.close();
+
+        return value;
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> T parseObject(byte[] input, //
                                     int off, //
@@ -421,14 +485,17 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
         int scaleLength = (int) (len * (double) charsetDecoder.maxCharsPerByte());
         char[] chars = allocateChars(scaleLength);
+        try {
+            ByteBuffer byteBuf = ByteBuffer.wrap(input, off, len);
+            CharBuffer charByte = CharBuffer.wrap(chars);
+            IOUtils.decode(charsetDecoder, byteBuf, charByte);
 
-        ByteBuffer byteBuf = ByteBuffer.wrap(input, off, len);
-        CharBuffer charByte = CharBuffer.wrap(chars);
-        IOUtils.decode(charsetDecoder, byteBuf, charByte);
-
-        int position = charByte.position();
+            int position = charByte.position();
 
-        return (T) parseObject(chars, position, clazz, features);
+            return (T) parseObject(chars, position, clazz, features);
+        } finally {
+            releaseChars(chars);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -475,21 +542,47 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         }
         
         byte[] bytes = allocateBytes(1024 * 64);
-        int offset = 0;
-        for (;;) {
-            int readCount = is.read(bytes, offset, bytes.length - offset);
-            if (readCount == -1) {
-                break;
+        PushbackInputStream in;
+        try {
+            int offset = 0;
+            for (;;) {
+                int readCount = is.read(bytes, offset, bytes.length - offset);
+                if (readCount == -1) {
+                    return (T) parseObject(bytes, 0, offset, charset, type, features);
+                }
+                offset += readCount;
+                if (offset == bytes.length) {
+                    break;
+                }
             }
-            offset += readCount;
-            if (offset == bytes.length) {
-                byte[] newBytes = new byte[bytes.length * 3 / 2];
-                System.arraycopy(bytes, 0, newBytes, 0, bytes.length);
-                bytes = newBytes;
+
+            /** 超过缓冲区大小的输入不再扩容读入整个流，而是基于JSONReaderScanner边读边解析 */
+            in = new PushbackInputStream(is, offset);
+            in.unread(bytes, 0, offset);
+        } finally {
+            releaseBytes(bytes);
+        }
+
+        Reader reader = new InputStreamReader(in, charset) {
+            public void close() {
+                // the stream is owned by the caller
             }
+        };
+
+        int featureValues = DEFAULT_PARSER_FEATURE;
+        for (Feature feature : features) {
+            featureValues |= feature.mask;
         }
-        
-        return (T) parseObject(bytes, 0, offset, charset, type, features);
+
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        DefaultJSONParser parser = new DefaultJSONParser(new JSONReaderScanner(reader, featureValues, config.getBufferPool()), config);
+        T value = (T) parser.parseObject(type, null);
+
+        parser.handleResovleTask(value);
+
+        parser.close();
+
+        return value;
     }
 
     public static <T> T parseObject(String text, Class<T> clazz) {
@@ -673,7 +766,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
                                       int defaultFeatures,             /** 默认序列化特性 */
                                       SerializerFeature... features) { /** 自定义序列化特性 */
         /** 初始化序列化writer，用features覆盖defaultFeatures配置 */
-        SerializeWriter out = new SerializeWriter(null, defaultFeatures, features);
+        SerializeWriter out = new SerializeWriter(null, config.getBufferPool(), defaultFeatures, features);
 
         try {
 
@@ -741,7 +834,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
      * @since 1.2.42
      */
     public static byte[] toJSONBytes(Object object, SerializeConfig config, SerializeFilter[] filters, int defaultFeatures, SerializerFeature... features) {
-        SerializeWriter out = new SerializeWriter(null, defaultFeatures, features);
+        SerializeWriter out = new SerializeWriter(null, config.getBufferPool(), defaultFeatures, features);
 
         try {
             JSONSerializer serializer = new JSONSerializer(out, config);
@@ -853,7 +946,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
                                              String dateFormat, //
                                              int defaultFeatures, //
                                              SerializerFeature... features) throws IOException {
-        SerializeWriter writer = new SerializeWriter(null, defaultFeatures, features);
+        SerializeWriter writer = new SerializeWriter(null, config.getBufferPool(), defaultFeatures, features);
 
         try {
             JSONSerializer serializer = new JSONSerializer(writer, config);
@@ -1048,6 +1141,10 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
     
     private final static ThreadLocal<byte[]> bytesLocal = new ThreadLocal<byte[]>();
     private static byte[] allocateBytes(int length) {
+        if (IOUtils.isPooledBuffer()) {
+            return ParserConfig.global.getBufferPool().allocateBytes(length);
+        }
+
         byte[] chars = bytesLocal.get();
 
         if (chars == null) {
@@ -1064,8 +1161,18 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         return chars;
     }
     
+    private static void releaseBytes(byte[] bytes) {
+        if (IOUtils.isPooledBuffer()) {
+            ParserConfig.global.getBufferPool().releaseBytes(bytes);
+        }
+    }
+
     private final static ThreadLocal<char[]> charsLocal = new ThreadLocal<char[]>();
     private static char[] allocateChars(int length) {
+        if (IOUtils.isPooledBuffer()) {
+            return ParserConfig.global.getBufferPool().allocateChars(length);
+        }
+
         char[] chars = charsLocal.get();
 
         if (chars == null) {
@@ -1082,6 +1189,12 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         return chars;
     }
 
+    private static void releaseChars(char[] chars) {
+        if (IOUtils.isPooledBuffer()) {
+            ParserConfig.global.getBufferPool().releaseChars(chars);
+        }
+    }
+
     public static <T> void handleResovleTask(DefaultJSONParser parser, T value) {
         parser.handleResovleTask(value);
     }
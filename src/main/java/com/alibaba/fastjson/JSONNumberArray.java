@@ -0,0 +1,465 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 元素都是数字的JSONArray，数据保存在int[]、long[]或者double[]中，不需要为每个元素创建Integer、Long或者BigDecimal对象。
+ * 开启Feature.PrimitiveNumberArray时，parser遇到以数字开头的数组会创建JSONNumberArray。
+ * <p>
+ * 整数超出int范围时整个数组升级为long[]，出现小数时升级为double[]，之后get返回的都是Long或者Double。
+ * 加入其他类型的元素时退化成普通的ArrayList，List的语义保持不变。
+ *
+ * @since 1.2.45
+ */
+public class JSONNumberArray extends JSONArray {
+
+    private static final long serialVersionUID = 1L;
+    private final Values      values;
+
+    public JSONNumberArray(){
+        this(new Values());
+    }
+
+    private JSONNumberArray(Values values){
+        super(values);
+        this.values = values;
+    }
+
+    public void addInt(int value) {
+        values.addInt(value);
+    }
+
+    /**
+     * 放得下int的值按照int保存
+     */
+    public void addLong(long value) {
+        values.addLong(value);
+    }
+
+    public void addDouble(double value) {
+        values.addDouble(value);
+    }
+
+    /**
+     * 返回内部的int[]、long[]或者double[]，有效的元素个数是size()，调用方不能修改。已经退化成普通List时返回null
+     */
+    public Object getPrimitiveArray() {
+        Values values = this.values;
+        if (values.list != null) {
+            return null;
+        }
+
+        switch (values.kind) {
+            case Values.INT:
+                return values.ints != null ? values.ints : new int[0];
+            case Values.LONG:
+                return values.longs;
+            default:
+                return values.doubles;
+        }
+    }
+
+    public int getIntValue(int index) {
+        Values values = this.values;
+        if (values.list != null) {
+            return super.getIntValue(index);
+        }
+        return values.kind == Values.DOUBLE ? (int) values.doubleAt(index) : (int) values.longAt(index);
+    }
+
+    public long getLongValue(int index) {
+        Values values = this.values;
+        if (values.list != null) {
+            return super.getLongValue(index);
+        }
+        return values.longAt(index);
+    }
+
+    public float getFloatValue(int index) {
+        Values values = this.values;
+        if (values.list != null) {
+            return super.getFloatValue(index);
+        }
+        return (float) values.doubleAt(index);
+    }
+
+    public double getDoubleValue(int index) {
+        Values values = this.values;
+        if (values.list != null) {
+            return super.getDoubleValue(index);
+        }
+        return values.doubleAt(index);
+    }
+
+    public int[] toIntArray() {
+        int[] array = new int[size()];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = getIntValue(i);
+        }
+        return array;
+    }
+
+    public long[] toLongArray() {
+        long[] array = new long[size()];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = getLongValue(i);
+        }
+        return array;
+    }
+
+    public double[] toDoubleArray() {
+        double[] array = new double[size()];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = getDoubleValue(i);
+        }
+        return array;
+    }
+
+    static final class Values extends AbstractList<Object> implements RandomAccess, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        static final int          INT              = 0;
+        static final int          LONG             = 1;
+        static final int          DOUBLE           = 2;
+
+        /** double能精确表示的最大整数 */
+        private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+        int                       kind             = INT;
+        int                       size;
+        int[]                     ints;
+        long[]                    longs;
+        double[]                  doubles;
+        /** 退化成普通List之后保存所有的元素 */
+        List<Object>              list;
+
+        public int size() {
+            return list != null ? list.size() : size;
+        }
+
+        public Object get(int index) {
+            if (list != null) {
+                return list.get(index);
+            }
+
+            rangeCheck(index);
+            return element(index);
+        }
+
+        private Object element(int index) {
+            switch (kind) {
+                case INT:
+                    return ints[index];
+                case LONG:
+                    return longs[index];
+                default:
+                    return doubles[index];
+            }
+        }
+
+        long longAt(int index) {
+            rangeCheck(index);
+            switch (kind) {
+                case INT:
+                    return ints[index];
+                case LONG:
+                    return longs[index];
+                default:
+                    return (long) doubles[index];
+            }
+        }
+
+        double doubleAt(int index) {
+            rangeCheck(index);
+            switch (kind) {
+                case INT:
+                    return ints[index];
+                case LONG:
+                    return longs[index];
+                default:
+                    return doubles[index];
+            }
+        }
+
+        public Object set(int index, Object element) {
+            if (list == null) {
+                rangeCheck(index);
+                if (kindOf(element) == kind) {
+                    Object old = element(index);
+                    store(index, element);
+                    return old;
+                }
+                inflate();
+            }
+            return list.set(index, element);
+        }
+
+        public void add(int index, Object element) {
+            modCount++;
+            if (list == null) {
+                if (index < 0 || index > size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+                }
+
+                int elementKind = kindOf(element);
+                if (size == 0 && elementKind != -1 && elementKind != kind) {
+                    ints = null;
+                    longs = null;
+                    doubles = null;
+                    kind = elementKind;
+                }
+
+                if (elementKind == kind) {
+                    ensureCapacity(size + 1);
+                    if (index < size) {
+                        Object array = kind == INT ? ints : kind == LONG ? longs : doubles;
+                        System.arraycopy(array, index, array, index + 1, size - index);
+                    }
+                    store(index, element);
+                    size++;
+                    return;
+                }
+                inflate();
+            }
+            list.add(index, element);
+        }
+
+        public Object remove(int index) {
+            modCount++;
+            if (list != null) {
+                return list.remove(index);
+            }
+
+            rangeCheck(index);
+            Object old = element(index);
+            int moved = size - index - 1;
+            if (moved > 0) {
+                Object array = kind == INT ? ints : kind == LONG ? longs : doubles;
+                System.arraycopy(array, index + 1, array, index, moved);
+            }
+            size--;
+            return old;
+        }
+
+        public void clear() {
+            modCount++;
+            kind = INT;
+            size = 0;
+            ints = null;
+            longs = null;
+            doubles = null;
+            list = null;
+        }
+
+        void addInt(int value) {
+            modCount++;
+            if (list != null) {
+                list.add(value);
+                return;
+            }
+
+            ensureCapacity(size + 1);
+            switch (kind) {
+                case INT:
+                    ints[size++] = value;
+                    break;
+                case LONG:
+                    longs[size++] = value;
+                    break;
+                default:
+                    doubles[size++] = value;
+                    break;
+            }
+        }
+
+        void addLong(long value) {
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                addInt((int) value);
+                return;
+            }
+
+            modCount++;
+            if (list == null) {
+                if (kind == INT) {
+                    long[] longs = new long[Math.max(capacity(), 10)];
+                    for (int i = 0; i < size; ++i) {
+                        longs[i] = ints[i];
+                    }
+                    this.longs = longs;
+                    this.ints = null;
+                    this.kind = LONG;
+                }
+
+                if (kind == LONG) {
+                    ensureCapacity(size + 1);
+                    longs[size++] = value;
+                    return;
+                }
+
+                if (value <= MAX_EXACT_DOUBLE && value >= -MAX_EXACT_DOUBLE) {
+                    ensureCapacity(size + 1);
+                    doubles[size++] = value;
+                    return;
+                }
+                inflate();
+            }
+            list.add(value);
+        }
+
+        void addDouble(double value) {
+            modCount++;
+            if (list == null) {
+                if (kind == DOUBLE || toDoubles()) {
+                    ensureCapacity(size + 1);
+                    doubles[size++] = value;
+                    return;
+                }
+                inflate();
+            }
+            list.add(value);
+        }
+
+        /**
+         * 转换成double[]，有double不能精确表示的long时返回false
+         */
+        private boolean toDoubles() {
+            double[] doubles = new double[Math.max(capacity(), 10)];
+            for (int i = 0; i < size; ++i) {
+                if (kind == INT) {
+                    doubles[i] = ints[i];
+                } else {
+                    long value = longs[i];
+                    if (value > MAX_EXACT_DOUBLE || value < -MAX_EXACT_DOUBLE) {
+                        return false;
+                    }
+                    doubles[i] = value;
+                }
+            }
+            this.doubles = doubles;
+            this.ints = null;
+            this.longs = null;
+            this.kind = DOUBLE;
+            return true;
+        }
+
+        private void inflate() {
+            List<Object> list = new ArrayList<Object>(Math.max(size, 10));
+            for (int i = 0; i < size; ++i) {
+                list.add(element(i));
+            }
+            this.list = list;
+            this.ints = null;
+            this.longs = null;
+            this.doubles = null;
+            this.size = 0;
+        }
+
+        private void store(int index, Object element) {
+            switch (kind) {
+                case INT:
+                    ints[index] = ((Integer) element).intValue();
+                    break;
+                case LONG:
+                    longs[index] = ((Long) element).longValue();
+                    break;
+                default:
+                    doubles[index] = ((Double) element).doubleValue();
+                    break;
+            }
+        }
+
+        private int capacity() {
+            switch (kind) {
+                case INT:
+                    return ints == null ? 0 : ints.length;
+                case LONG:
+                    return longs == null ? 0 : longs.length;
+                default:
+                    return doubles == null ? 0 : doubles.length;
+            }
+        }
+
+        private void ensureCapacity(int minCapacity) {
+            int capacity = capacity();
+            if (minCapacity <= capacity) {
+                return;
+            }
+
+            int newCapacity = Math.max(capacity + (capacity >> 1), 10);
+            if (newCapacity < minCapacity) {
+                newCapacity = minCapacity;
+            }
+
+            switch (kind) {
+                case INT: {
+                    int[] array = new int[newCapacity];
+                    if (ints != null) {
+                        System.arraycopy(ints, 0, array, 0, size);
+                    }
+                    ints = array;
+                    break;
+                }
+                case LONG: {
+                    long[] array = new long[newCapacity];
+                    if (longs != null) {
+                        System.arraycopy(longs, 0, array, 0, size);
+                    }
+                    longs = array;
+                    break;
+                }
+                default: {
+                    double[] array = new double[newCapacity];
+                    if (doubles != null) {
+                        System.arraycopy(doubles, 0, array, 0, size);
+                    }
+                    doubles = array;
+                    break;
+                }
+            }
+        }
+
+        private void rangeCheck(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+        }
+
+        private static int kindOf(Object element) {
+            if (element == null) {
+                return -1;
+            }
+
+            Class<?> clazz = element.getClass();
+            if (clazz == Integer.class) {
+                return INT;
+            }
+            if (clazz == Long.class) {
+                return LONG;
+            }
+            if (clazz == Double.class) {
+                return DOUBLE;
+            }
+            return -1;
+        }
+    }
+}
@@ -10,6 +10,9 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.JSONLexer;
+import com.alibaba.fastjson.parser.JSONToken;
 import com.alibaba.fastjson.parser.ParserConfig;
 import com.alibaba.fastjson.parser.deserializer.FieldDeserializer;
 import com.alibaba.fastjson.parser.deserializer.JavaBeanDeserializer;
@@ -417,6 +420,276 @@ public class JSONPath implements JSONAware {
         JSONPath jsonpath = compile(path);
         return jsonpath.eval(object);
     }
+
+    /**
+     * 不构建完整的对象树，直接在json文本上求值。path前部的属性、下标、范围和过滤段在词法层面匹配，
+     * 不匹配的子树按token跳过，确定的结果读到后即停止扫描，余下的段在选中的子树上求值。
+     * 和read不同，结果之后的文本不做语法检查，对象中有重复的key时取第一个，而JSON.parse取最后一个。
+     *
+     * @since 1.2.45
+     */
+    public static Object extract(String json, String path) {
+        if (json == null || json.length() == 0) {
+            return null;
+        }
+
+        JSONPath jsonpath = compile(path);
+        DefaultJSONParser parser = new DefaultJSONParser(json, jsonpath.parserConfig);
+        try {
+            return jsonpath.extract(parser);
+        } finally {
+            parser.lexer.close();
+        }
+    }
+
+    /**
+     * @param parser positioned at the value to evaluate against, left wherever the result was determined
+     * @since 1.2.45
+     */
+    public Object extract(DefaultJSONParser parser) {
+        if (parser == null) {
+            return null;
+        }
+
+        init();
+
+        final JSONLexer lexer = parser.lexer;
+        for (int i = 0; i < segments.length; ++i) {
+            Segement segment = segments[i];
+            int token = lexer.token();
+
+            if (segment instanceof PropertySegement && !((PropertySegement) segment).deep && token == JSONToken.LBRACE) {
+                if (!seekToProperty(lexer, ((PropertySegement) segment).propertyName)) {
+                    return eval(null, i + 1);
+                }
+                continue;
+            }
+
+            if (segment instanceof ArrayAccessSegement && ((ArrayAccessSegement) segment).index >= 0
+                && token == JSONToken.LBRACKET) {
+                if (!seekToItem(lexer, ((ArrayAccessSegement) segment).index)) {
+                    return eval(null, i + 1);
+                }
+                continue;
+            }
+
+            if (segment instanceof RangeSegement && token == JSONToken.LBRACKET) {
+                RangeSegement range = (RangeSegement) segment;
+                if (range.start >= 0 && range.end >= 0 && range.step > 0) {
+                    return eval(extractRange(parser, range), i + 1);
+                }
+            }
+
+            if (segment instanceof FilterSegement && token == JSONToken.LBRACKET) {
+                return eval(extractFilter(parser, ((FilterSegement) segment).filter), i + 1);
+            }
+
+            /** 其余的段依赖完整的值，解析当前子树后按对象树求值 */
+            return eval(parseValue(parser), i);
+        }
+
+        return parseValue(parser);
+    }
+
+    /**
+     * 一次遍历求多个path的值。各path前部的属性和下标段合并成一棵前缀树，公共前缀只求值一次；input是json文本(String或
+     * UTF-8 byte[])时只扫描一遍，不在树上的子树按token跳过，所有path都有结果后停止扫描。树以外的段在选中的子树上求值。
+     * 解析json文本使用第一个path的ParserConfig。
+     *
+     * @return the value of each path, in the order of paths
+     * @since 1.2.45
+     */
+    public static Object[] extract(Object input, JSONPath... paths) {
+        Object[] results = new Object[paths.length];
+        if (input == null || paths.length == 0) {
+            return results;
+        }
+
+        ExtractNode root = new ExtractNode(0, null);
+        for (int i = 0; i < paths.length; ++i) {
+            root.add(paths, i);
+        }
+
+        DefaultJSONParser parser;
+        if (input instanceof String) {
+            String json = (String) input;
+            if (json.length() == 0) {
+                return results;
+            }
+            parser = new DefaultJSONParser(json, paths[0].parserConfig);
+        } else if (input instanceof byte[]) {
+            byte[] bytes = (byte[]) input;
+            if (bytes.length == 0) {
+                return results;
+            }
+            parser = new DefaultJSONParser(bytes, 0, bytes.length, paths[0].parserConfig, JSON.DEFAULT_PARSER_FEATURE);
+        } else {
+            root.eval(input, paths, results);
+            return results;
+        }
+
+        try {
+            root.extract(parser, paths, results, new int[] { paths.length });
+        } finally {
+            parser.lexer.close();
+        }
+        return results;
+    }
+
+    private Object eval(Object currentObject, int segmentIndex) {
+        for (int i = segmentIndex; i < segments.length; ++i) {
+            currentObject = segments[i].eval(this, null, currentObject);
+        }
+        return currentObject;
+    }
+
+    private List<Object> extractRange(DefaultJSONParser parser, RangeSegement range) {
+        if ((range.end - range.start) / range.step + 1 == -1) {
+            return null;
+        }
+
+        final JSONLexer lexer = parser.lexer;
+        List<Object> items = new ArrayList<Object>();
+        lexer.nextToken();
+        for (int i = 0; lexer.token() != JSONToken.RBRACKET; ++i) {
+            if (i > range.end) {
+                break; // 后面的元素不会被选中
+            }
+
+            if (i >= range.start && (i - range.start) % range.step == 0) {
+                items.add(parseValue(parser));
+            } else {
+                skipValue(lexer);
+            }
+
+            if (!nextItem(lexer)) {
+                break;
+            }
+        }
+        return items;
+    }
+
+    private List<Object> extractFilter(DefaultJSONParser parser, Filter filter) {
+        final JSONLexer lexer = parser.lexer;
+        List<Object> items = new JSONArray();
+        lexer.nextToken();
+        while (lexer.token() != JSONToken.RBRACKET) {
+            Object item = parseValue(parser);
+            if (filter.apply(this, null, null, item)) {
+                items.add(item);
+            }
+
+            if (!nextItem(lexer)) {
+                break;
+            }
+        }
+        return items;
+    }
+
+    private static Object parseValue(DefaultJSONParser parser) {
+        Object value = parser.parse();
+        parser.handleResovleTask(value);
+        return value;
+    }
+
+    /**
+     * @return true if the lexer is positioned at the value of the property
+     */
+    private static boolean seekToProperty(JSONLexer lexer, String propertyName) {
+        lexer.nextToken();
+        for (;;) {
+            int token = lexer.token();
+            if (token == JSONToken.RBRACE) {
+                return false;
+            }
+
+            boolean match = (token == JSONToken.LITERAL_STRING || token == JSONToken.IDENTIFIER)
+                            && propertyName.equals(lexer.stringVal());
+            lexer.nextTokenWithColon();
+            if (match) {
+                return true;
+            }
+
+            skipValue(lexer);
+
+            token = lexer.token();
+            if (token == JSONToken.COMMA) {
+                lexer.nextToken();
+            } else if (token == JSONToken.RBRACE) {
+                return false;
+            } else {
+                throw new JSONException("illegal json, " + lexer.info());
+            }
+        }
+    }
+
+    /**
+     * @return true if the lexer is positioned at the item
+     */
+    private static boolean seekToItem(JSONLexer lexer, int index) {
+        lexer.nextToken();
+        for (int i = 0; lexer.token() != JSONToken.RBRACKET; ++i) {
+            if (i == index) {
+                return true;
+            }
+
+            skipValue(lexer);
+            if (!nextItem(lexer)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * moves from the separator after an array item to the next item
+     * 
+     * @return false at the end of the array
+     */
+    private static boolean nextItem(JSONLexer lexer) {
+        int token = lexer.token();
+        if (token == JSONToken.COMMA) {
+            lexer.nextToken();
+            return true;
+        }
+
+        if (token == JSONToken.RBRACKET) {
+            return false;
+        }
+
+        throw new JSONException("illegal json, " + lexer.info());
+    }
+
+    /**
+     * skips the value at the current token without building it, the lexer is left at the token after it
+     */
+    private static void skipValue(JSONLexer lexer) {
+        int token = lexer.token();
+        if (token != JSONToken.LBRACE && token != JSONToken.LBRACKET) {
+            lexer.nextToken();
+            return;
+        }
+
+        int depth = 0;
+        do {
+            switch (token) {
+                case JSONToken.LBRACE:
+                case JSONToken.LBRACKET:
+                    ++depth;
+                    break;
+                case JSONToken.RBRACE:
+                case JSONToken.RBRACKET:
+                    --depth;
+                    break;
+                case JSONToken.EOF:
+                    throw new JSONException("illegal json, " + lexer.info());
+                default:
+                    break;
+            }
+            lexer.nextToken();
+            token = lexer.token();
+        } while (depth > 0);
+    }
     
     public static Map<String, Object> paths(Object javaObject) {
         return paths(javaObject, SerializeConfig.globalInstance);
@@ -1402,6 +1675,155 @@ public class JSONPath implements JSONAware {
         }
     }
 
+    /**
+     * node of the prefix tree merged from the leading property and index segments of several paths
+     */
+    static class ExtractNode {
+
+        private final int                       depth;
+        private final Segement                  segment;
+        private final List<Integer>             terminals = new ArrayList<Integer>(2);
+        private final List<Integer>             paths     = new ArrayList<Integer>(2);
+        private Map<String, ExtractNode>        properties;
+        private Map<Integer, ExtractNode>       indexes;
+        private boolean                         visited;
+
+        ExtractNode(int depth, Segement segment){
+            this.depth = depth;
+            this.segment = segment;
+        }
+
+        void add(JSONPath[] jsonpaths, int pathIndex) {
+            JSONPath jsonpath = jsonpaths[pathIndex];
+            jsonpath.init();
+            paths.add(pathIndex);
+
+            if (depth < jsonpath.segments.length) {
+                Segement next = jsonpath.segments[depth];
+                if (next instanceof PropertySegement && !((PropertySegement) next).deep) {
+                    String propertyName = ((PropertySegement) next).propertyName;
+                    if (properties == null) {
+                        properties = new HashMap<String, ExtractNode>();
+                    }
+                    ExtractNode child = properties.get(propertyName);
+                    if (child == null) {
+                        properties.put(propertyName, child = new ExtractNode(depth + 1, next));
+                    }
+                    child.add(jsonpaths, pathIndex);
+                    return;
+                }
+
+                if (next instanceof ArrayAccessSegement && ((ArrayAccessSegement) next).index >= 0) {
+                    Integer index = ((ArrayAccessSegement) next).index;
+                    if (indexes == null) {
+                        indexes = new HashMap<Integer, ExtractNode>();
+                    }
+                    ExtractNode child = indexes.get(index);
+                    if (child == null) {
+                        indexes.put(index, child = new ExtractNode(depth + 1, next));
+                    }
+                    child.add(jsonpaths, pathIndex);
+                    return;
+                }
+            }
+
+            terminals.add(pathIndex);
+        }
+
+        void eval(Object currentObject, JSONPath[] jsonpaths, Object[] results) {
+            for (int i = 0; i < terminals.size(); ++i) {
+                int pathIndex = terminals.get(i);
+                results[pathIndex] = jsonpaths[pathIndex].eval(currentObject, depth);
+            }
+
+            if (properties != null) {
+                for (ExtractNode child : properties.values()) {
+                    child.eval(child.segment.eval(jsonpaths[child.paths.get(0)], null, currentObject), jsonpaths, results);
+                }
+            }
+
+            if (indexes != null) {
+                for (ExtractNode child : indexes.values()) {
+                    child.eval(child.segment.eval(jsonpaths[child.paths.get(0)], null, currentObject), jsonpaths, results);
+                }
+            }
+        }
+
+        /**
+         * @param remaining number of paths without a result yet
+         * @return true when every path has its result, the scan stops where it is
+         */
+        boolean extract(DefaultJSONParser parser, JSONPath[] jsonpaths, Object[] results, int[] remaining) {
+            final JSONLexer lexer = parser.lexer;
+            final int token = lexer.token();
+
+            boolean scan = terminals.isEmpty() //
+                           && ((token == JSONToken.LBRACE && properties != null && indexes == null) //
+                               || (token == JSONToken.LBRACKET && indexes != null && properties == null));
+            if (!scan) {
+                eval(parseValue(parser), jsonpaths, results);
+                remaining[0] -= paths.size();
+                return remaining[0] == 0;
+            }
+
+            Map<?, ExtractNode> children;
+            lexer.nextToken();
+            if (token == JSONToken.LBRACE) {
+                children = properties;
+                while (lexer.token() != JSONToken.RBRACE) {
+                    int keyToken = lexer.token();
+                    ExtractNode child = keyToken == JSONToken.LITERAL_STRING || keyToken == JSONToken.IDENTIFIER //
+                        ? properties.get(lexer.stringVal()) //
+                        : null;
+                    lexer.nextTokenWithColon();
+
+                    if (child != null && !child.visited) {
+                        child.visited = true;
+                        if (child.extract(parser, jsonpaths, results, remaining)) {
+                            return true;
+                        }
+                    } else {
+                        skipValue(lexer);
+                    }
+
+                    int separator = lexer.token();
+                    if (separator == JSONToken.COMMA) {
+                        lexer.nextToken();
+                    } else if (separator != JSONToken.RBRACE) {
+                        throw new JSONException("illegal json, " + lexer.info());
+                    }
+                }
+            } else {
+                children = indexes;
+                for (int i = 0; lexer.token() != JSONToken.RBRACKET; ++i) {
+                    ExtractNode child = indexes.get(i);
+                    if (child != null) {
+                        child.visited = true;
+                        if (child.extract(parser, jsonpaths, results, remaining)) {
+                            return true;
+                        }
+                    } else {
+                        skipValue(lexer);
+                    }
+
+                    if (!nextItem(lexer)) {
+                        break;
+                    }
+                }
+            }
+            lexer.nextToken();
+
+            /** 不存在的属性或下标，余下的段在null上求值 */
+            for (ExtractNode child : children.values()) {
+                if (!child.visited) {
+                    child.eval(null, jsonpaths, results);
+                    remaining[0] -= child.paths.size();
+                }
+            }
+            return remaining[0] == 0;
+        }
+    }
+
     interface Segement {
 
         Object eval(JSONPath path, Object rootObject, Object currentObject);
@@ -0,0 +1,402 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.fastjson.parser.Feature;
+
+/**
+ * JSON.parseLazyObject返回的JSONObject的innerMap。创建时只扫描一层，记录每个值在原始text中的位置，
+ * get时才解析对应的值，嵌套的对象同样延迟解析，数组、字符串和数字用JSON.parse解析。
+ * 遍历、equals和序列化时会解析所有的值。
+ * <p>
+ * 解析值时加锁，所有的值都解析之后读取不再加锁，所以只读的时候可以在多个线程中共享。修改和HashMap一样不是线程安全的。
+ */
+final class LazyJSONMap implements Map<String, Object>, Serializable {
+
+    private static final long               serialVersionUID = 1L;
+
+    private final LinkedHashMap<String, Object> map          = new LinkedHashMap<String, Object>();
+    private transient String                text;
+    private final int                       features;
+    /** 还没有解析的值的数量，为0时map不再变化，读取不用加锁 */
+    private transient volatile int          lazyCount;
+
+    private LazyJSONMap(String text, int features){
+        this.text = text;
+        this.features = features;
+    }
+
+    /**
+     * @param start 左花括号的位置
+     * @return 不是标准格式的对象（比如单引号或者没有引号的key）时返回null
+     */
+    static JSONObject parse(String text, int start, int features) {
+        LazyJSONMap lazyMap = new LazyJSONMap(text, features);
+        if (!lazyMap.index(start)) {
+            return null;
+        }
+        return new JSONObject(lazyMap);
+    }
+
+    private boolean index(int start) {
+        final String text = this.text;
+        int i = skipWhitespace(text, start + 1);
+        if (charAt(text, i) == '}') {
+            return true;
+        }
+
+        for (;;) {
+            if (charAt(text, i) != '"') {
+                return false;
+            }
+
+            int keyEnd = skipString(text, i);
+            String key = text.substring(i + 1, keyEnd - 1);
+            if (key.indexOf('\\') != -1) {
+                key = (String) JSON.parse(text.substring(i, keyEnd), features);
+            }
+
+            i = skipWhitespace(text, keyEnd);
+            if (charAt(text, i) != ':') {
+                return false;
+            }
+
+            i = skipWhitespace(text, i + 1);
+            int valueEnd = skipValue(text, i);
+            map.put(key, new Segment(i, valueEnd));
+            lazyCount++;
+
+            i = skipWhitespace(text, valueEnd);
+            char ch = charAt(text, i);
+            if (ch == ',') {
+                i = skipWhitespace(text, i + 1);
+                continue;
+            }
+
+            if (ch == '}') {
+                return true;
+            }
+
+            throw new JSONException("syntax error, pos " + i + ", json : " + text);
+        }
+    }
+
+    private synchronized Object value(Object key) {
+        Object value = map.get(key);
+        if (!(value instanceof Segment)) {
+            return value;
+        }
+
+        Object parsed = parse((Segment) value);
+        map.put((String) key, parsed);
+        release();
+        return parsed;
+    }
+
+    /**
+     * 从map中删除的值
+     *
+     * @return 解析后的值
+     */
+    private synchronized Object detach(Segment segment) {
+        Object value = parse(segment);
+        release();
+        return value;
+    }
+
+    private Object parse(Segment segment) {
+        final int start = segment.start, end = segment.end;
+        char ch = text.charAt(start);
+        if (ch == '{') {
+            JSONObject object = parse(text, start, features);
+            if (object != null) {
+                return object;
+            }
+        } else if (ch == '"' && (features & Feature.AllowISO8601DateFormat.mask) == 0) {
+            String str = text.substring(start + 1, end - 1);
+            if (str.indexOf('\\') == -1) {
+                return str;
+            }
+        }
+
+        return JSON.parse(text.substring(start, end), features);
+    }
+
+    /**
+     * 所有的值都解析之后不再引用原始的text，调用时需要持有锁
+     */
+    private void release() {
+        int count = lazyCount - 1;
+        if (count == 0) {
+            text = null;
+        }
+        lazyCount = count;
+    }
+
+    /**
+     * 解析所有还没有解析的值
+     */
+    private void materialize() {
+        if (lazyCount == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            if (lazyCount == 0) {
+                return;
+            }
+
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                Object value = entry.getValue();
+                if (value instanceof Segment) {
+                    entry.setValue(parse((Segment) value));
+                }
+            }
+            text = null;
+            lazyCount = 0;
+        }
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    public boolean containsValue(Object value) {
+        materialize();
+        return map.containsValue(value);
+    }
+
+    public Object get(Object key) {
+        if (lazyCount == 0) {
+            return map.get(key);
+        }
+        return value(key);
+    }
+
+    public Object put(String key, Object value) {
+        Object old = map.put(key, value);
+        if (old instanceof Segment) {
+            old = detach((Segment) old);
+        }
+        return old;
+    }
+
+    public Object remove(Object key) {
+        Object old = map.remove(key);
+        if (old instanceof Segment) {
+            old = detach((Segment) old);
+        }
+        return old;
+    }
+
+    public void putAll(Map<? extends String, ? extends Object> m) {
+        for (Map.Entry<? extends String, ? extends Object> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public synchronized void clear() {
+        map.clear();
+        text = null;
+        lazyCount = 0;
+    }
+
+    public Set<String> keySet() {
+        return new KeySet();
+    }
+
+    public Collection<Object> values() {
+        materialize();
+        return map.values();
+    }
+
+    public Set<Map.Entry<String, Object>> entrySet() {
+        materialize();
+        return map.entrySet();
+    }
+
+    public boolean equals(Object obj) {
+        materialize();
+        return map.equals(obj);
+    }
+
+    public int hashCode() {
+        materialize();
+        return map.hashCode();
+    }
+
+    public String toString() {
+        materialize();
+        return map.toString();
+    }
+
+    private Object writeReplace() {
+        materialize();
+        return new LinkedHashMap<String, Object>(map);
+    }
+
+    private static char charAt(String text, int index) {
+        if (index >= text.length()) {
+            throw new JSONException("unclosed json object, json : " + text);
+        }
+        return text.charAt(index);
+    }
+
+    private static int skipWhitespace(String text, int i) {
+        for (int len = text.length(); i < len; ++i) {
+            char ch = text.charAt(i);
+            if (ch != ' ' && ch != '\n' && ch != '\r' && ch != '\t' && ch != '\f' && ch != '\b') {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * @param i 开始的引号的位置
+     * @return 结束的引号之后的位置
+     */
+    private static int skipString(String text, int i) {
+        final char quote = text.charAt(i);
+        for (++i;; ++i) {
+            char ch = charAt(text, i);
+            if (ch == '\\') {
+                ++i;
+            } else if (ch == quote) {
+                return i + 1;
+            }
+        }
+    }
+
+    private static int skipValue(String text, int i) {
+        char ch = charAt(text, i);
+        if (ch == '"' || ch == '\'') {
+            return skipString(text, i);
+        }
+
+        if (ch == '{' || ch == '[') {
+            int level = 0;
+            for (;; ++i) {
+                ch = charAt(text, i);
+                if (ch == '"' || ch == '\'') {
+                    i = skipString(text, i) - 1;
+                } else if (ch == '{' || ch == '[') {
+                    level++;
+                } else if (ch == '}' || ch == ']') {
+                    if (--level == 0) {
+                        return i + 1;
+                    }
+                }
+            }
+        }
+
+        int start = i;
+        for (int len = text.length(); i < len; ++i) {
+            ch = text.charAt(i);
+            if (ch == ',' || ch == '}' || ch == ']' || ch <= ' ') {
+                break;
+            }
+        }
+
+        if (i == start) {
+            throw new JSONException("syntax error, pos " + i + ", json : " + text);
+        }
+        return i;
+    }
+
+    /**
+     * 删除key时释放对应的值，不用解析所有的值
+     */
+    private final class KeySet extends AbstractSet<String> {
+
+        public int size() {
+            return map.size();
+        }
+
+        public boolean contains(Object key) {
+            return map.containsKey(key);
+        }
+
+        public boolean remove(Object key) {
+            if (!map.containsKey(key)) {
+                return false;
+            }
+            discard(map.remove(key));
+            return true;
+        }
+
+        public void clear() {
+            LazyJSONMap.this.clear();
+        }
+
+        public Iterator<String> iterator() {
+            final Iterator<String> it = map.keySet().iterator();
+            return new Iterator<String>() {
+
+                private String key;
+
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                public String next() {
+                    return key = it.next();
+                }
+
+                public void remove() {
+                    Object value = map.get(key);
+                    it.remove();
+                    discard(value);
+                }
+            };
+        }
+    }
+
+    private void discard(Object value) {
+        if (value instanceof Segment) {
+            synchronized (this) {
+                release();
+            }
+        }
+    }
+
+    private static final class Segment {
+
+        final int start;
+        final int end;
+
+        Segment(int start, int end){
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
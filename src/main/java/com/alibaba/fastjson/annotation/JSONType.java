@@ -64,4 +64,10 @@ public @interface JSONType {
     boolean serializeEnumAsJavaBean() default false;
 
     PropertyNamingStrategy naming() default PropertyNamingStrategy.CamelCase;
+
+    /**
+     * 对象是不可变的，序列化结果可以按对象缓存在SerializeConfig中，见SerializeCache
+     * @since 1.2.45
+     */
+    boolean cacheable() default false;
 }
@@ -75,6 +75,8 @@ public interface Opcodes {
     int    FLOAD               = 23;                     // -
     int    DLOAD               = 24;                     // -
     int    ALOAD               = 25;                     // -
+    int    AALOAD              = 50;                     // visitInsn
+    int    BALOAD              = 51;                     // -
   
     int    ISTORE              = 54;                     // visitVarInsn
     int    LSTORE              = 55;                     // -
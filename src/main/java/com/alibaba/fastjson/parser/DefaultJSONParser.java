@@ -32,6 +32,7 @@ import java.util.*;
 import com.alibaba.fastjson.*;
 import com.alibaba.fastjson.parser.deserializer.*;
 import com.alibaba.fastjson.serializer.*;
+import com.alibaba.fastjson.util.IOUtils;
 import com.alibaba.fastjson.util.TypeUtils;
 
 /**
@@ -54,6 +55,9 @@ public class DefaultJSONParser implements Closeable {
 
     private ParseContext[]             contextArray;
     private int                        contextArrayIndex  = 0;
+    /** path到context的索引，第一次解析引用时创建，之后按contextArray增量添加 */
+    private Map<String, ParseContext>  contextIndex;
+    private int                        contextIndexSize   = 0;
 
     private List<ResolveTask>          resolveTaskList;
 
@@ -137,6 +141,13 @@ public class DefaultJSONParser implements Closeable {
         this(input, new JSONScanner(input, length, features), config);
     }
 
+    /**
+     * @since 1.2.45
+     */
+    public DefaultJSONParser(final byte[] input, int offset, int length, final ParserConfig config, int features){
+        this(input, new JSONUTF8Scanner(input, offset, length, features), config);
+    }
+
     public DefaultJSONParser(final JSONLexer lexer){
         this(lexer, ParserConfig.getGlobalInstance());
     }
@@ -171,6 +182,9 @@ public class DefaultJSONParser implements Closeable {
         if (input instanceof char[]) {
             return new String((char[]) input);
         }
+        if (input instanceof byte[]) {
+            return new String((byte[]) input, IOUtils.UTF8);
+        }
         return input.toString();
     }
 
@@ -486,7 +500,7 @@ public class DefaultJSONParser implements Closeable {
                 } else if (ch == '[') { // 减少嵌套，兼容android
                     lexer.nextToken();
 
-                    JSONArray list = new JSONArray();
+                    JSONArray list = createJSONArray();
 
                     final boolean parentIsArray = fieldName != null && fieldName.getClass() == Integer.class;
 //                    if (!parentIsArray) {
@@ -1068,15 +1082,37 @@ public class DefaultJSONParser implements Closeable {
     }
 
     public Object getObject(String path) {
-        for (int i = 0; i < contextArrayIndex; ++i) {
-            if (path.equals(contextArray[i].toString())) {
-                return contextArray[i].object;
-            }
+        ParseContext context = findContext(path);
+        if (context != null) {
+            return context.object;
         }
 
         return null;
     }
 
+    /**
+     * 按路径查找context，相同路径返回最先加入的，和顺序查找contextArray的结果一样
+     */
+    private ParseContext findContext(String path) {
+        if (contextArray == null) {
+            return null;
+        }
+
+        if (contextIndex == null) {
+            contextIndex = new HashMap<String, ParseContext>();
+        }
+
+        for (; contextIndexSize < contextArrayIndex; ++contextIndexSize) {
+            ParseContext context = contextArray[contextIndexSize];
+            String contextPath = context.toString();
+            if (!contextIndex.containsKey(contextPath)) {
+                contextIndex.put(contextPath, context);
+            }
+        }
+
+        return contextIndex.get(path);
+    }
+
     @SuppressWarnings("rawtypes")
     public void checkListResolve(Collection array) {
         if (resolveStatus == NeedToResolve) {
@@ -1138,6 +1174,8 @@ public class DefaultJSONParser implements Closeable {
 
         lexer.nextToken(JSONToken.LITERAL_STRING);
 
+        final JSONNumberArray numberArray = array instanceof JSONNumberArray ? (JSONNumberArray) array : null;
+
         ParseContext context = this.context;
         this.setContext(array, fieldName);
         try {
@@ -1149,6 +1187,14 @@ public class DefaultJSONParser implements Closeable {
                     }
                 }
 
+                if (numberArray != null && addNumber(numberArray)) {
+                    lexer.nextToken(JSONToken.COMMA);
+                    if (lexer.token() == JSONToken.COMMA) {
+                        lexer.nextToken(JSONToken.LITERAL_STRING);
+                    }
+                    continue;
+                }
+
                 Object value;
                 switch (lexer.token()) {
                     case LITERAL_INT:
@@ -1193,7 +1239,7 @@ public class DefaultJSONParser implements Closeable {
                         value = parseObject(object, i);
                         break;
                     case LBRACKET:
-                        Collection items = new JSONArray();
+                        Collection items = createJSONArray();
                         parseArray(items, i);
                         if (lexer.isEnabled(Feature.UseObjectArray)) {
                             value = items.toArray();
@@ -1232,6 +1278,52 @@ public class DefaultJSONParser implements Closeable {
         }
     }
 
+    /**
+     * 开启Feature.PrimitiveNumberArray并且第一个元素是数字时返回JSONNumberArray，当前token是LBRACKET
+     */
+    private JSONArray createJSONArray() {
+        if (lexer.isEnabled(Feature.PrimitiveNumberArray)) {
+            char ch = lexer.getCurrent();
+            if (ch <= ' ') {
+                lexer.skipWhitespace();
+                ch = lexer.getCurrent();
+            }
+
+            if ((ch >= '0' && ch <= '9') || ch == '-') {
+                return new JSONNumberArray();
+            }
+        }
+        return new JSONArray();
+    }
+
+    /**
+     * 当前token是数字时直接加到array中，不创建Integer、Long或者BigDecimal。超出long范围的整数返回false，按照普通的元素处理
+     */
+    private boolean addNumber(JSONNumberArray array) {
+        int token = lexer.token();
+        if (token == JSONToken.LITERAL_INT) {
+            long value;
+            try {
+                value = lexer.longValue();
+            } catch (NumberFormatException ex) {
+                return false;
+            }
+            array.addLong(value);
+            return true;
+        }
+
+        if (token == JSONToken.LITERAL_FLOAT && lexer instanceof JSONLexerBase) {
+            try {
+                array.addDouble(((JSONLexerBase) lexer).doubleValue());
+            } catch (NumberFormatException ex) {
+                throw new JSONException(ex.getMessage() + ", " + lexer.info());
+            }
+            return true;
+        }
+
+        return false;
+    }
+
     public ParseContext getContext() {
         return context;
     }
@@ -1295,6 +1387,14 @@ public class DefaultJSONParser implements Closeable {
         }
 
         contextArrayIndex--;
+        if (contextIndexSize > contextArrayIndex) {
+            ParseContext popped = contextArray[contextArrayIndex];
+            String path = popped.toString();
+            if (contextIndex.get(path) == popped) {
+                contextIndex.remove(path);
+            }
+            contextIndexSize = contextArrayIndex;
+        }
         contextArray[contextArrayIndex] = null;
     }
 
@@ -1359,7 +1459,7 @@ public class DefaultJSONParser implements Closeable {
                 parseArray(treeSet, fieldName);
                 return treeSet;
             case LBRACKET:
-                JSONArray array = new JSONArray();
+                JSONArray array = createJSONArray();
                 /** 探测到是数组集合类型，解析值 */
                 parseArray(array, fieldName);
                 if (lexer.isEnabled(Feature.UseObjectArray)) {
@@ -1517,16 +1617,7 @@ public class DefaultJSONParser implements Closeable {
     }
 
     public Object resolveReference(String ref) {
-        if(contextArray == null) {
-            return null;
-        }
-        for (int i = 0; i < contextArray.length && i < contextArrayIndex; i++) {
-            ParseContext context = contextArray[i];
-            if (context.toString().equals(ref)) {
-                return context.object;
-            }
-        }
-        return null;
+        return getObject(ref);
     }
 
     public void handleResovleTask(Object value) {
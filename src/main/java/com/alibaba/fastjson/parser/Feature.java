@@ -135,7 +135,14 @@ public enum Feature {
     /**
      * @since 1.2.45
      */
-    CustomMapDeserializer
+    CustomMapDeserializer,
+
+    /**
+     * @since 1.2.45
+     *
+     * parse number arrays into JSONNumberArray backed by int[], long[] or double[]
+     */
+    PrimitiveNumberArray
     ;
 
     Feature(){
@@ -26,6 +26,7 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.annotation.JSONType;
 import com.alibaba.fastjson.serializer.CollectionCodec;
+import com.alibaba.fastjson.util.EiselLemire;
 import com.alibaba.fastjson.util.FieldInfo;
 import com.alibaba.fastjson.util.IOUtils;
 import com.alibaba.fastjson.util.TypeUtils;
@@ -81,6 +82,14 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
 
     protected String                         stringDefaultValue = null;
 
+    /** parseDecimal的结果，数字 = decimalMantissa * 10^decimalExponent，decimalMantissa是无符号的 */
+    private long                             decimalMantissa;
+    private int                              decimalExponent;
+    private int                              decimalDigits;
+    private boolean                          decimalNegative;
+    /** 有效数字超过19位，decimalMantissa只保留了前19位 */
+    private boolean                          decimalTruncated;
+
     public JSONLexerBase(int features){
         this.features = features;
 
@@ -88,10 +97,14 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
             stringDefaultValue = "";
         }
 
-        sbuf = SBUF_LOCAL.get();
+        if (IOUtils.isPooledBuffer()) {
+            sbuf = ParserConfig.global.getBufferPool().allocateChars(512);
+        } else {
+            sbuf = SBUF_LOCAL.get();
 
-        if (sbuf == null) {
-            sbuf = new char[512];
+            if (sbuf == null) {
+                sbuf = new char[512];
+            }
         }
     }
 
@@ -556,21 +569,167 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
     }
 
     public float floatValue() {
-        /** numberString获取到的不包含数字后缀类型，但是包括负数符号(如果有) */
-        String strVal = numberString();
-        float floatValue = Float.parseFloat(strVal);
+        int start = np == -1 ? 0 : np;
+        /** 不包含数字后缀类型，但是包括负数符号(如果有) */
+        float floatValue = floatValue(start, numberLength(start));
         /** 如果是0或者正无穷大，首字母是0-9 代表溢出 */
         if (floatValue == 0 || floatValue == Float.POSITIVE_INFINITY) {
-            char c0 = strVal.charAt(0);
+            char c0 = charAt(start);
             if (c0 > '0' && c0 <= '9') {
-                throw new JSONException("float overflow : " + strVal);
+                throw new JSONException("float overflow : " + numberString());
             }
         }
         return floatValue;
     }
 
     public double doubleValue() {
-        return Double.parseDouble(numberString());
+        int start = np == -1 ? 0 : np;
+        return doubleValue(start, numberLength(start));
+    }
+
+    /**
+     * 当前数字去掉后缀类型之后的长度，和numberString()一致
+     */
+    private int numberLength(int start) {
+        char chLocal = charAt(start + sp - 1);
+        if (chLocal == 'L' || chLocal == 'S' || chLocal == 'B' || chLocal == 'F' || chLocal == 'D') {
+            return sp - 1;
+        }
+        return sp;
+    }
+
+    /**
+     * 直接从buffer中解析[start, start + count)的数字，不创建String，无法快速解析时才使用Double.parseDouble
+     */
+    protected final double doubleValue(int start, int count) {
+        if (parseDecimal(start, count)) {
+            double value = EiselLemire.toDouble(decimalMantissa, decimalExponent, decimalNegative);
+            if (decimalTruncated && value == value
+                && value != EiselLemire.toDouble(decimalMantissa + 1, decimalExponent, decimalNegative)) {
+                value = Double.NaN;
+            }
+
+            if (value == value) {
+                return value;
+            }
+        }
+        return Double.parseDouble(subString(start, count));
+    }
+
+    /**
+     * @see #doubleValue(int, int)
+     */
+    protected final float floatValue(int start, int count) {
+        if (parseDecimal(start, count)) {
+            float value = EiselLemire.toFloat(decimalMantissa, decimalExponent, decimalNegative);
+            if (decimalTruncated && value == value
+                && value != EiselLemire.toFloat(decimalMantissa + 1, decimalExponent, decimalNegative)) {
+                value = Float.NaN;
+            }
+
+            if (value == value) {
+                return value;
+            }
+        }
+        return Float.parseFloat(subString(start, count));
+    }
+
+    /**
+     * 有效数字不超过18位时直接用unscaled value和scale创建BigDecimal，不复制字符，否则返回null
+     */
+    protected final BigDecimal fastDecimalValue(int start, int count) {
+        if (parseDecimal(start, count) && !decimalTruncated && decimalDigits <= 18) {
+            long unscaledValue = decimalNegative ? -decimalMantissa : decimalMantissa;
+            return BigDecimal.valueOf(unscaledValue, -decimalExponent);
+        }
+        return null;
+    }
+
+    /**
+     * 解析[start, start + count)中的十进制数，结果是decimalMantissa * 10^decimalExponent。
+     * 有效数字超过19位时只保留前19位，decimalTruncated为true。不是标准的数字格式时返回false
+     */
+    private boolean parseDecimal(int start, int count) {
+        int i = start, end = start + count;
+        if (count <= 0) {
+            return false;
+        }
+
+        char ch = charAt(i);
+        boolean negative = ch == '-';
+        if (negative) {
+            ch = ++i < end ? charAt(i) : EOI;
+        }
+
+        long mantissa = 0;
+        int exponent = 0, digits = 0;
+        boolean truncated = false, hasDigits = false;
+
+        for (; ch >= '0' && ch <= '9'; ch = ++i < end ? charAt(i) : EOI) {
+            hasDigits = true;
+            if (mantissa == 0 && ch == '0') {
+                continue;
+            }
+            if (digits < 19) {
+                mantissa = mantissa * 10 + (ch - '0');
+                digits++;
+            } else {
+                exponent++;
+                truncated |= ch != '0';
+            }
+        }
+
+        if (ch == '.') {
+            for (ch = ++i < end ? charAt(i) : EOI; ch >= '0' && ch <= '9'; ch = ++i < end ? charAt(i) : EOI) {
+                hasDigits = true;
+                if (mantissa == 0 && ch == '0') {
+                    exponent--;
+                    continue;
+                }
+                if (digits < 19) {
+                    mantissa = mantissa * 10 + (ch - '0');
+                    digits++;
+                    exponent--;
+                } else {
+                    truncated |= ch != '0';
+                }
+            }
+        }
+
+        if (!hasDigits) {
+            return false;
+        }
+
+        if (ch == 'e' || ch == 'E') {
+            ch = ++i < end ? charAt(i) : EOI;
+            boolean negativeExp = ch == '-';
+            if (negativeExp || ch == '+') {
+                ch = ++i < end ? charAt(i) : EOI;
+            }
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+
+            int exp = 0;
+            for (; ch >= '0' && ch <= '9'; ch = ++i < end ? charAt(i) : EOI) {
+                exp = exp * 10 + (ch - '0');
+                if (exp > 99999) {
+                    return false;
+                }
+            }
+            exponent += negativeExp ? -exp : exp;
+        }
+
+        if (i != end) {
+            return false;
+        }
+
+        this.decimalMantissa = mantissa;
+        this.decimalExponent = exponent;
+        this.decimalDigits = digits;
+        this.decimalNegative = negative;
+        this.decimalTruncated = truncated;
+        return true;
     }
 
     public void config(Feature feature, boolean state) {
@@ -699,7 +858,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
 
     protected abstract void arrayCopy(int srcPos, char[] dest, int destPos, int length);
 
-    public final String scanSymbol(final SymbolTable symbolTable, final char quote) {
+    public String scanSymbol(final SymbolTable symbolTable, final char quote) {
         int hash = 0;
 
         /** bp代表字符串或流当前位置，np记录的是token开始的索引位置 */
@@ -897,7 +1056,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         return "";
     }
 
-    public final String scanSymbolUnQuoted(final SymbolTable symbolTable) {
+    public String scanSymbolUnQuoted(final SymbolTable symbolTable) {
         if (token == JSONToken.ERROR && pos == 0 && bp == 1) {
             bp = 0; // adjust
         }
@@ -957,7 +1116,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
 
     protected abstract void copyTo(int offset, int count, char[] dest);
 
-    public final void scanString() {
+    public void scanString() {
         /** 记录当前流中token的开始位置, np指向引号的索引 */
         np = bp;
         hasSpecial = false;
@@ -1209,7 +1368,10 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
     public abstract byte[] bytesValue();
 
     public void close() {
-        if (sbuf.length <= 1024 * 8) {
+        if (IOUtils.isPooledBuffer()) {
+            /** pool自己限制保留的大小，allocateChars(512)也可能得到更大的buffer，都要还回去 */
+            ParserConfig.global.getBufferPool().releaseChars(sbuf);
+        } else if (sbuf.length <= 1024 * 8) {
             SBUF_LOCAL.set(sbuf);
         }
         this.sbuf = null;
@@ -1406,9 +1568,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                  *  chars_len = 16 - (0 + 6 + 1) = 9, == value\\\"
                  */
                 int chars_len = endIndex - (bp + fieldName.length + 1);
-                char[] chars = sub_chars( bp + fieldName.length + 1, chars_len);
-
-                stringVal = readString(chars, chars_len);
+                stringVal = readString(bp + fieldName.length + 1, chars_len);
             }
 
             /** 偏移到json串字段值" 下一个字符 */
@@ -1519,9 +1679,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                     }
 
                     int chars_len = endIndex - startIndex;
-                    char[] chars = sub_chars(bp + 1, chars_len);
-
-                    stringVal = readString(chars, chars_len);
+                    stringVal = readString(bp + 1, chars_len);
                 }
 
                 offset += (endIndex - startIndex + 1);
@@ -1556,6 +1714,33 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         }
     }
 
+    /**
+     * 计算当前位置双引号字段名的hash，和TypeUtils.fnv1a_64(name)一致，不创建字符串，不查符号表，也不移动位置。
+     * 当前字符不是双引号、字段名包含转义字符或者没有结束时返回0
+     *
+     * @since 1.2.45
+     */
+    public long peekFieldNameHash() {
+        if (ch != '"') {
+            return 0;
+        }
+
+        long hash = 0xcbf29ce484222325L;
+        for (int offset = 1;; ++offset) {
+            char chLocal = charAt(bp + offset);
+            if (chLocal == '"') {
+                return hash;
+            }
+
+            if (chLocal == '\\' || chLocal == EOI) {
+                return 0;
+            }
+
+            hash ^= chLocal;
+            hash *= 0x100000001b3L;
+        }
+    }
+
     public long scanFieldSymbol(char[] fieldName) {
         matchStat = UNKNOWN;
 
@@ -1796,9 +1981,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                     }
 
                     int chars_len = endIndex - (bp + offset);
-                    char[] chars = sub_chars(bp + offset, chars_len);
-
-                    stringVal = readString(chars, chars_len);
+                    stringVal = readString(bp + offset, chars_len);
                 }
 
                 offset += (endIndex - (bp + offset) + 1);
@@ -1935,9 +2118,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                     }
 
                     int chars_len = endIndex - startIndex;
-                    char[] chars = sub_chars(bp + offset, chars_len);
-
-                    stringVal = readString(chars, chars_len);
+                    stringVal = readString(bp + offset, chars_len);
                 }
 
                 offset += (endIndex - (bp + offset) + 1);
@@ -2735,14 +2916,14 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                 count = bp + offset - start - 1;
             }
 
-            if (!exp && count < 20) {
-                value = ((float) intVal) / power;
-                if (negative) {
-                    value = -value;
+            if (!exp && count < 10) {
+                /** 最多9位数字，intVal没有溢出，power = 10^n，末尾正好有n个0 */
+                value = EiselLemire.toFloat(intVal, -Integer.numberOfTrailingZeros(power), negative);
+                if (value != value) {
+                    value = floatValue(start, count);
                 }
             } else {
-                String text = this.subString(start, count);
-                value = Float.parseFloat(text);
+                value = floatValue(start, count);
             }
         } else if (chLocal == 'n' && charAt(bp + offset) == 'u' && charAt(bp + offset + 1) == 'l' && charAt(bp + offset + 2) == 'l') {
             matchStat = VALUE_NULL;
@@ -2918,14 +3099,14 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                 count = bp + offset - start - 1;
             }
 
-            if (!exp && count < 20) {
-                value = ((float) intVal) / power;
-                if (negative) {
-                    value = -value;
+            if (!exp && count < 19) {
+                /** 最多18位数字，intVal没有溢出，power = 10^n，末尾正好有n个0 */
+                value = EiselLemire.toFloat(intVal, -Long.numberOfTrailingZeros(power), negative);
+                if (value != value) {
+                    value = floatValue(start, count);
                 }
             } else {
-                String text = this.subString(start, count);
-                value = Float.parseFloat(text);
+                value = floatValue(start, count);
             }
         } else if (chLocal == 'n' && charAt(bp + offset) == 'u' && charAt(bp + offset + 1) == 'l' && charAt(bp + offset + 2) == 'l') {
             matchStat = VALUE_NULL;
@@ -3061,14 +3242,14 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                 count = bp + offset - start - 1;
             }
 
-            if (!exp && count < 20) {
-                value = ((double) intVal) / power;
-                if (negative) {
-                    value = -value;
+            if (!exp && count < 19) {
+                /** 最多18位数字，intVal没有溢出，power = 10^n，末尾正好有n个0 */
+                value = EiselLemire.toDouble(intVal, -Long.numberOfTrailingZeros(power), negative);
+                if (value != value) {
+                    value = doubleValue(start, count);
                 }
             } else {
-                String text = this.subString(start, count);
-                value = Double.parseDouble(text);
+                value = doubleValue(start, count);
             }
         } else if (chLocal == 'n' && charAt(bp + offset) == 'u' && charAt(bp + offset + 1) == 'l' && charAt(bp + offset + 2) == 'l') {
             matchStat = VALUE_NULL;
@@ -3196,9 +3377,12 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                 count = bp + offset - start - 1;
             }
 
-            char[] chars = this.sub_chars(start, count);
-            /** 直接读取字符串，用BigDecimal构造函数初始化 */
-            value = new BigDecimal(chars);
+            value = fastDecimalValue(start, count);
+            if (value == null) {
+                char[] chars = this.sub_chars(start, count);
+                /** 直接读取字符串，用BigDecimal构造函数初始化 */
+                value = new BigDecimal(chars);
+            }
         } else if (chLocal == 'n' && charAt(bp + offset) == 'u' && charAt(bp + offset + 1) == 'l' && charAt(bp + offset + 2) == 'l') {
             matchStat = VALUE_NULL;
             value = null;
@@ -3356,13 +3540,13 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
 
                 float value;
                 if (!exp && count < 10) {
-                    value = ((float) intVal) / power;
-                    if (negative) {
-                        value = -value;
+                    /** 最多9位数字，intVal没有溢出，power = 10^n，末尾正好有n个0 */
+                    value = EiselLemire.toFloat(intVal, -Integer.numberOfTrailingZeros(power), negative);
+                    if (value != value) {
+                        value = floatValue(start, count);
                     }
                 } else {
-                    String text = this.subString(start, count);
-                    value = Float.parseFloat(text);
+                    value = floatValue(start, count);
                 }
 
                 if (arrayIndex >= array.length) {
@@ -3519,13 +3703,13 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                         int count = bp + offset - start - 1;
                         float value;
                         if (!exp && count < 10) {
-                            value = ((float) intVal) / power;
-                            if (negative) {
-                                value = -value;
+                            /** 最多9位数字，intVal没有溢出，power = 10^n，末尾正好有n个0 */
+                            value = EiselLemire.toFloat(intVal, -Integer.numberOfTrailingZeros(power), negative);
+                            if (value != value) {
+                                value = floatValue(start, count);
                             }
                         } else {
-                            String text = this.subString(start, count);
-                            value = Float.parseFloat(text);
+                            value = floatValue(start, count);
                         }
 
                         if (arrayIndex >= array.length) {
@@ -3703,14 +3887,14 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                 count = bp + offset - start - 1;
             }
 
-            if (!exp && count < 20) {
-                value = ((double) intVal) / power;
-                if (negative) {
-                    value = -value;
+            if (!exp && count < 19) {
+                /** 最多18位数字，intVal没有溢出，power = 10^n，末尾正好有n个0 */
+                value = EiselLemire.toDouble(intVal, -Long.numberOfTrailingZeros(power), negative);
+                if (value != value) {
+                    value = doubleValue(start, count);
                 }
             } else {
-                String text = this.subString(start, count);
-                value = Double.parseDouble(text);
+                value = doubleValue(start, count);
             }
         } else if (chLocal == 'n' && charAt(bp + offset) == 'u' && charAt(bp + offset + 1) == 'l' && charAt(bp + offset + 2) == 'l') {
             matchStat = VALUE_NULL;
@@ -3866,8 +4050,11 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                 count = bp + offset - start - 1;
             }
 
-            char[] chars = this.sub_chars(start, count);
-            value = new BigDecimal(chars);
+            value = fastDecimalValue(start, count);
+            if (value == null) {
+                char[] chars = this.sub_chars(start, count);
+                value = new BigDecimal(chars);
+            }
         } else if (chLocal == 'n' && charAt(bp + offset) == 'u' && charAt(bp + offset + 1) == 'l' && charAt(bp + offset + 2) == 'l') {
             matchStat = VALUE_NULL;
             value = null;
@@ -4115,9 +4302,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                 }
 
                 int chars_len = endIndex - (bp + fieldName.length + 1);
-                char[] chars = sub_chars( bp + fieldName.length + 1, chars_len);
-
-                stringVal = readString(chars, chars_len);
+                stringVal = readString(bp + fieldName.length + 1, chars_len);
             }
 
             offset += (endIndex - (bp + fieldName.length + 1) + 1);
@@ -4242,9 +4427,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                 }
 
                 int chars_len = endIndex - (bp + 1);
-                char[] chars = sub_chars( bp + 1, chars_len);
-
-                stringVal = readString(chars, chars_len);
+                stringVal = readString(bp + 1, chars_len);
             }
 
             offset += (endIndex - (bp + 1) + 1);
@@ -4909,8 +5092,21 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
 
     protected abstract char[] sub_chars(int offset, int count);
 
+    /**
+     * Reads the escaped string value in [offset, offset + count), quotes excluded.
+     */
+    protected String readString(int offset, int count) {
+        char[] chars = sub_chars(offset, count);
+        return readString(chars, count);
+    }
+
     public static String readString(char[] chars, int chars_len) {
         char[] sbuf = new char[chars_len];
+        int len = readString(chars, chars_len, sbuf);
+        return new String(sbuf, 0, len);
+    }
+
+    static int readString(char[] chars, int chars_len, char[] sbuf) {
         int len = 0;
         for (int i = 0; i < chars_len; ++i) {
             char ch = chars[i];
@@ -4991,7 +5187,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                     throw new JSONException("unclosed.str.lit");
             }
         }
-        return new String(sbuf, 0, len);
+        return len;
     }
 
     protected abstract boolean charArrayCompare(char[] chars);
@@ -5030,7 +5226,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         }
     }
 
-    private void scanStringSingleQuote() {
+    protected void scanStringSingleQuote() {
         np = bp;
         hasSpecial = false;
         char chLocal;
@@ -5346,11 +5542,11 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         char chLocal = charAt(np + sp - 1);
         try {
             if (chLocal == 'F') {
-                return Float.parseFloat(numberString());
+                return floatValue(np, sp - 1);
             }
 
             if (chLocal == 'D') {
-                return Double.parseDouble(numberString());
+                return doubleValue(np, sp - 1);
             }
 
             if (decimal) {
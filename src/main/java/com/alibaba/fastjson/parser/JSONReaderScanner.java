@@ -23,6 +23,7 @@ import java.math.BigDecimal;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.BufferPool;
 import com.alibaba.fastjson.util.IOUtils;
 
 //这个类，为了性能优化做了很多特别处理，一切都是为了性能！！！
@@ -32,7 +33,7 @@ import com.alibaba.fastjson.util.IOUtils;
  */
 public final class JSONReaderScanner extends JSONLexerBase {
 
-    private final static ThreadLocal<char[]> BUF_LOCAL = new ThreadLocal<char[]>();
+    private final BufferPool                 bufferPool;
 
     private Reader                           reader;
     private char[]                           buf;
@@ -55,17 +56,18 @@ public final class JSONReaderScanner extends JSONLexerBase {
     }
 
     public JSONReaderScanner(Reader reader, int features){
+        this(reader, features, ParserConfig.global.getBufferPool());
+    }
+
+    /**
+     * @since 1.2.45
+     */
+    public JSONReaderScanner(Reader reader, int features, BufferPool bufferPool){
         super(features);
         this.reader = reader;
+        this.bufferPool = bufferPool;
 
-        buf = BUF_LOCAL.get();
-        if (buf != null) {
-            BUF_LOCAL.set(null);
-        }
-
-        if (buf == null) {
-            buf = new char[1024 * 16];
-        }
+        buf = bufferPool.allocateChars(1024 * 16);
 
         try {
             bufLength = reader.read(buf);
@@ -296,6 +298,11 @@ public final class JSONReaderScanner extends JSONLexerBase {
             sp--;
         }
 
+        BigDecimal value = fastDecimalValue(offset, sp);
+        if (value != null) {
+            return value;
+        }
+
         return new BigDecimal(buf, offset, sp);
     }
 
@@ -303,7 +310,7 @@ public final class JSONReaderScanner extends JSONLexerBase {
         super.close();
 
         if (buf.length <= 1024 * 64) {
-            BUF_LOCAL.set(buf);
+            bufferPool.releaseChars(buf);
         }
         this.buf = null;
 
@@ -28,6 +28,7 @@ import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.annotation.JSONType;
 import com.alibaba.fastjson.serializer.SerializeWriter;
 import com.alibaba.fastjson.util.ASMUtils;
+import com.alibaba.fastjson.util.EiselLemire;
 import com.alibaba.fastjson.util.IOUtils;
 import com.alibaba.fastjson.util.TypeUtils;
 
@@ -196,6 +197,11 @@ public final class JSONScanner extends JSONLexerBase {
             sp--;
         }
 
+        BigDecimal value = fastDecimalValue(np, sp);
+        if (value != null) {
+            return value;
+        }
+
         int offset = np, count = sp;
         if (count < sbuf.length) {
             text.getChars(offset, offset + count, sbuf, 0);
@@ -1774,14 +1780,14 @@ public final class JSONScanner extends JSONLexerBase {
                 count = offset - start - 1;
             }
 
-            if (!exp && count < 20) {
-                value = ((double) intVal) / power;
-                if (negative) {
-                    value = -value;
+            if (!exp && count < 19) {
+                /** 最多18位数字，intVal没有溢出，power = 10^n，末尾正好有n个0 */
+                value = EiselLemire.toDouble(intVal, -Long.numberOfTrailingZeros(power), negative);
+                if (value != value) {
+                    value = doubleValue(start, count);
                 }
             } else {
-                String text = this.subString(start, count);
-                value = Double.parseDouble(text);
+                value = doubleValue(start, count);
             }
         } else if (chLocal == 'n'
                 && charAt(offset++) == 'u'
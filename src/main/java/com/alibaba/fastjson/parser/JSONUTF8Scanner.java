@@ -0,0 +1,424 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.parser;
+
+import java.math.BigDecimal;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.IOUtils;
+
+/**
+ * Lexer working directly on UTF-8 encoded bytes, the input is never decoded as a whole. Positions (bp, np, sp) are
+ * byte offsets, structural characters are ASCII and compared as bytes, string tokens are decoded only when their
+ * value is requested.
+ *
+ * @since 1.2.45
+ */
+public final class JSONUTF8Scanner extends JSONLexerBase {
+
+    private final byte[] buf;
+    private final int    offset;
+    private final int    len;
+
+    /** decode buffer for token values */
+    private char[]       chars;
+
+    public JSONUTF8Scanner(byte[] input){
+        this(input, 0, input.length, JSON.DEFAULT_PARSER_FEATURE);
+    }
+
+    public JSONUTF8Scanner(byte[] input, int features){
+        this(input, 0, input.length, features);
+    }
+
+    public JSONUTF8Scanner(byte[] input, int offset, int length, int features){
+        super(features);
+
+        this.buf = input;
+        this.offset = offset;
+        this.len = length;
+        bp = -1;
+
+        next();
+        if (ch == 0xEF && charAt(1) == 0xBB && charAt(2) == 0xBF) { // utf-8 bom
+            bp = 2;
+            next();
+        }
+    }
+
+    public final char charAt(int index) {
+        if (index >= len) {
+            return EOI;
+        }
+
+        return (char) (buf[offset + index] & 0xFF);
+    }
+
+    public final char next() {
+        int index = ++bp;
+        return ch = (index >= len //
+            ? EOI //
+            : (char) (buf[offset + index] & 0xFF));
+    }
+
+    protected final void copyTo(int offset, int count, char[] dest) {
+        arrayCopy(offset, dest, 0, count);
+    }
+
+    protected final void arrayCopy(int srcPos, char[] dest, int destPos, int length) {
+        final byte[] buf = this.buf;
+        for (int i = 0, p = offset + srcPos; i < length; ++i) {
+            dest[destPos + i] = (char) (buf[p + i] & 0xFF);
+        }
+    }
+
+    public final boolean charArrayCompare(char[] chars) {
+        final int charsLen = chars.length;
+        if (bp + charsLen > len) {
+            return false;
+        }
+
+        final byte[] buf = this.buf;
+        for (int i = 0, p = offset + bp; i < charsLen; ++i) {
+            char c = chars[i];
+            // non-ascii names never match byte by byte, leave them to the symbol path
+            if (c >= 0x80 || buf[p + i] != c) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public final int indexOf(char ch, int startIndex) {
+        final byte[] buf = this.buf;
+        for (int i = startIndex; i < len; ++i) {
+            if ((buf[offset + i] & 0xFF) == ch) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public final String addSymbol(int offset, int len, int hash, final SymbolTable symbolTable) {
+        int charsLen = decode(offset, len);
+        if (charsLen != len) { // multi-byte chars, the hash was computed over bytes
+            hash = SymbolTable.hash(chars, 0, charsLen);
+        }
+        return symbolTable.addSymbol(chars, 0, charsLen, hash);
+    }
+
+    public final void scanString() {
+        scanQuotedString('"');
+    }
+
+    protected final void scanStringSingleQuote() {
+        scanQuotedString('\'');
+    }
+
+    private void scanQuotedString(char quote) {
+        np = bp;
+        hasSpecial = false;
+
+        final byte[] buf = this.buf;
+        final int end = offset + len;
+        int i = offset + bp + 1;
+        for (;;) {
+            if (i >= end) {
+                throw new JSONException("unclosed string : " + quote);
+            }
+
+            byte b = buf[i];
+            if (b == quote) {
+                break;
+            }
+
+            if (b == '\\') {
+                hasSpecial = true;
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+
+        int count = i - offset - np - 1;
+        if (hasSpecial) {
+            int charsLen = decode(np + 1, count);
+            if (sbuf.length < charsLen) {
+                sbuf = new char[charsLen];
+            }
+            sp = readString(chars, charsLen, sbuf);
+        } else {
+            sp = count;
+        }
+
+        bp = i - offset;
+        token = JSONToken.LITERAL_STRING;
+        this.ch = next();
+    }
+
+    public final String scanSymbol(final SymbolTable symbolTable, final char quote) {
+        np = bp;
+        sp = 0;
+
+        final byte[] buf = this.buf;
+        final int end = offset + len;
+        boolean hasSpecial = false;
+        int hash = 0;
+        int i = offset + bp + 1;
+        for (;;) {
+            if (i >= end) {
+                throw new JSONException("unclosed.str");
+            }
+
+            byte b = buf[i];
+            if (b == quote) {
+                break;
+            }
+
+            if (b == '\\') {
+                hasSpecial = true;
+                i += 2;
+                continue;
+            }
+
+            hash = 31 * hash + (b & 0xFF);
+            i++;
+        }
+
+        int count = i - offset - np - 1;
+        String value;
+        if (hasSpecial) {
+            int charsLen = decode(np + 1, count);
+            if (sbuf.length < charsLen) {
+                sbuf = new char[charsLen];
+            }
+            int symbolLen = readString(chars, charsLen, sbuf);
+            value = symbolTable.addSymbol(sbuf, 0, symbolLen, SymbolTable.hash(sbuf, 0, symbolLen));
+        } else {
+            value = addSymbol(np + 1, count, hash, symbolTable);
+        }
+
+        bp = i - offset;
+        token = JSONToken.LITERAL_STRING;
+        this.next();
+
+        return value;
+    }
+
+    /**
+     * Same as {@link JSONLexerBase#scanSymbolUnQuoted(SymbolTable)}, but a non-ascii char is a multi-byte sequence here
+     * and is checked as the char it decodes to.
+     */
+    public final String scanSymbolUnQuoted(final SymbolTable symbolTable) {
+        if (token == JSONToken.ERROR && pos == 0 && bp == 1) {
+            bp = 0; // adjust
+        }
+
+        int n = identifierCharLength(bp, IOUtils.firstIdentifierFlags);
+        if (n == 0) {
+            throw new JSONException("illegal identifier : " + ch //
+                                    + info());
+        }
+
+        final boolean[] identifierFlags = IOUtils.identifierFlags;
+        final byte[] buf = this.buf;
+
+        int hash = 0;
+        int i = bp;
+        do {
+            for (int end = i + n; i < end; ++i) {
+                hash = 31 * hash + (buf[offset + i] & 0xFF);
+            }
+            n = identifierCharLength(i, identifierFlags);
+        } while (n != 0);
+
+        np = bp;
+        sp = i - np;
+        bp = i;
+        this.ch = charAt(bp);
+        token = JSONToken.IDENTIFIER;
+
+        if (sp == 4 && charAt(np) == 'n' && charAt(np + 1) == 'u' && charAt(np + 2) == 'l'
+            && charAt(np + 3) == 'l') {
+            return null;
+        }
+
+        if (symbolTable == null) {
+            return subString(np, sp);
+        }
+
+        return this.addSymbol(np, sp, hash, symbolTable);
+    }
+
+    /**
+     * @return the length in bytes of the char at index if flags accept it as an identifier char, 0 otherwise. like in
+     * the char based lexers, chars from U+0100 on are always accepted and U+0080 - U+00FF never are.
+     */
+    private int identifierCharLength(int index, boolean[] flags) {
+        if (index >= len) {
+            return 0;
+        }
+
+        int b = buf[offset + index] & 0xFF;
+        if (b < 0x80) {
+            return flags[b] ? 1 : 0;
+        }
+
+        int n = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC4 ? 2 : 0; // 0xC2, 0xC3 lead U+0080 - U+00FF
+        return index + n <= len ? n : 0;
+    }
+
+    public long scanFieldSymbol(char[] fieldName) {
+        int start = bp + fieldName.length + 1;
+        if (charArrayCompare(fieldName) && charAt(start - 1) == '"') {
+            for (int i = start; i < len; ++i) {
+                byte b = buf[offset + i];
+                if (b == '"') {
+                    break;
+                }
+
+                // the symbol hash is defined over chars, not over utf-8 bytes
+                if (b < 0) {
+                    matchStat = NOT_MATCH;
+                    return 0;
+                }
+            }
+        }
+
+        return super.scanFieldSymbol(fieldName);
+    }
+
+    protected final String readString(int offset, int count) {
+        int charsLen = decode(offset, count);
+        return readString(chars, charsLen);
+    }
+
+    public byte[] bytesValue() {
+        if (token == JSONToken.HEX) {
+            int start = np + 1, len = sp;
+            if (len % 2 != 0) {
+                throw new JSONException("illegal state. " + len);
+            }
+
+            byte[] bytes = new byte[len / 2];
+            for (int i = 0; i < bytes.length; ++i) {
+                char c0 = charAt(start + i * 2);
+                char c1 = charAt(start + i * 2 + 1);
+
+                int b0 = c0 - (c0 <= 57 ? 48 : 55);
+                int b1 = c1 - (c1 <= 57 ? 48 : 55);
+                bytes[i] = (byte) ((b0 << 4) | b1);
+            }
+
+            return bytes;
+        }
+
+        return IOUtils.decodeBase64(sub_chars(np + 1, sp), 0, sp);
+    }
+
+    /**
+     * The value of a literal token, recorded as a string. For integers, leading 0x and 'l' suffixes are suppressed.
+     */
+    public final String stringVal() {
+        if (!hasSpecial) {
+            return this.subString(np + 1, sp);
+        } else {
+            return new String(sbuf, 0, sp);
+        }
+    }
+
+    public final String subString(int offset, int count) {
+        if (count < 0) {
+            throw new StringIndexOutOfBoundsException(count);
+        }
+
+        int charsLen = decode(offset, count);
+        return new String(chars, 0, charsLen);
+    }
+
+    public final char[] sub_chars(int offset, int count) {
+        if (count < 0) {
+            throw new StringIndexOutOfBoundsException(count);
+        }
+
+        char[] chars = new char[count];
+        arrayCopy(offset, chars, 0, count);
+        return chars;
+    }
+
+    public final String numberString() {
+        char chLocal = charAt(np + sp - 1);
+
+        int sp = this.sp;
+        if (chLocal == 'L' || chLocal == 'S' || chLocal == 'B' || chLocal == 'F' || chLocal == 'D') {
+            sp--;
+        }
+
+        return this.subString(np, sp);
+    }
+
+    public final BigDecimal decimalValue() {
+        char chLocal = charAt(np + sp - 1);
+
+        int sp = this.sp;
+        if (chLocal == 'L' || chLocal == 'S' || chLocal == 'B' || chLocal == 'F' || chLocal == 'D') {
+            sp--;
+        }
+
+        BigDecimal value = fastDecimalValue(np, sp);
+        if (value != null) {
+            return value;
+        }
+
+        int count = sp;
+        if (count < sbuf.length) {
+            arrayCopy(np, sbuf, 0, count);
+            return new BigDecimal(sbuf, 0, count);
+        } else {
+            return new BigDecimal(sub_chars(np, count));
+        }
+    }
+
+    public boolean isEOF() {
+        return bp == len || ch == EOI && bp + 1 == len;
+    }
+
+    public String info() {
+        return "pos " + bp //
+               + ", json : " //
+               + new String(buf, offset, len < 65536 ? len : 65536, IOUtils.UTF8);
+    }
+
+    /**
+     * Decodes [offset, offset + count) into {@link #chars}.
+     *
+     * @return the number of chars decoded, equal to count when the range is pure ascii
+     */
+    private int decode(int offset, int count) {
+        char[] chars = this.chars;
+        if (chars == null || chars.length < count) {
+            this.chars = chars = new char[count < 512 ? 512 : count];
+        }
+
+        int charsLen = IOUtils.decodeUTF8(buf, this.offset + offset, count, chars);
+        if (charsLen < 0) {
+            throw new JSONException("illegal utf-8 encoding, pos " + offset);
+        }
+        return charsLen;
+    }
+}
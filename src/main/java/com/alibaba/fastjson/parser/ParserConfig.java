@@ -99,9 +99,15 @@ public class ParserConfig {
 
     public static ParserConfig                              global                = new ParserConfig();
 
-    private final IdentityHashMap<Type, ObjectDeserializer> deserializers         = new IdentityHashMap<Type, ObjectDeserializer>();
+    private final IdentityHashMap<Type, ObjectDeserializer> deserializers;
+    /** 正在创建的JavaBeanDeserializer，避免多个线程为同一个类型重复生成asm类 */
+    private final PendingCreations<Type>                    pendingDeserializers  = new PendingCreations<Type>();
+
+    /** class name -> reason, see getReflectiveClasses */
+    private final ConcurrentMap<String, String>             reflectiveClasses     = new ConcurrentHashMap<String, String>();
 
     private boolean                                         asmEnable             = !ASMUtils.IS_ANDROID;
+    private boolean                                         lambdaAccessor        = false;
 
     public final SymbolTable                                symbolTable           = new SymbolTable(4096);
     
@@ -113,16 +119,24 @@ public class ParserConfig {
 
     private static boolean                                  awtError              = false;
     private static boolean                                  jdk8Error             = false;
+    private static boolean                                  lambdaError           = false;
 
     private boolean                                         autoTypeSupport       = AUTO_SUPPORT;
     private long[]                                          denyHashCodes;
     private long[]                                          acceptHashCodes;
 
+    /** autoTypeSupport时已经通过checkAutoType的类型，避免每次都检查黑名单和查找类，配置改变时换成新的map */
+    private volatile ConcurrentMap<String, Class<?>>        autoTypeCache         = new ConcurrentHashMap<String, Class<?>>();
+
 
     public final boolean                                    fieldBased;
 
+    private final boolean                                   weakCache;
+
     public boolean                                          compatibleWithJavaBean = TypeUtils.compatibleWithJavaBean;
 
+    private BufferPool                                      bufferPool            = StripedBufferPool.getGlobalInstance();
+
     {
         /**
          *
@@ -176,22 +190,36 @@ public class ParserConfig {
     }
 
     public ParserConfig(boolean fieldBase){
-        this(null, null, fieldBase);
+        this(null, null, fieldBase, IOUtils.isWeakCache());
+    }
+
+    /**
+     * @param weakCache if true the cached deserializers and the classes generated for them do not keep the classes
+     * of other classloaders alive, see {@link IOUtils#FASTJSON_WEAK_CACHE}
+     * @since 1.2.45
+     */
+    public ParserConfig(boolean fieldBase, boolean weakCache){
+        this(null, null, fieldBase, weakCache);
     }
 
     public ParserConfig(ClassLoader parentClassLoader){
-        this(null, parentClassLoader, false);
+        this(null, parentClassLoader, false, false);
     }
 
     public ParserConfig(ASMDeserializerFactory asmFactory){
-        this(asmFactory, null, false);
+        this(asmFactory, null, false, false);
     }
 
-    private ParserConfig(ASMDeserializerFactory asmFactory, ClassLoader parentClassLoader, boolean fieldBased){
+    private ParserConfig(ASMDeserializerFactory asmFactory, ClassLoader parentClassLoader, boolean fieldBased, boolean weakCache){
         this.fieldBased = fieldBased;
+        this.weakCache = weakCache;
+        this.deserializers = new IdentityHashMap<Type, ObjectDeserializer>(IdentityHashMap.DEFAULT_SIZE, weakCache);
         if (asmFactory == null && !ASMUtils.IS_ANDROID) {
             try {
-                if (parentClassLoader == null) {
+                if (weakCache) {
+                    /** 生成的类定义在bean所属classloader的子classloader中，随之卸载 */
+                    asmFactory = new ASMDeserializerFactory(new ASMClassLoader(JSON.class.getClassLoader(), true));
+                } else if (parentClassLoader == null) {
                     asmFactory = new ASMDeserializerFactory(new ASMClassLoader());
                 } else {
                     asmFactory = new ASMDeserializerFactory(parentClassLoader);
@@ -357,20 +385,86 @@ public class ParserConfig {
 
     public void setAutoTypeSupport(boolean autoTypeSupport) {
         this.autoTypeSupport = autoTypeSupport;
+        resetAutoTypeCache();
     }
 
     public boolean isAsmEnable() {
         return asmEnable;
     }
 
+    /**
+     * @return bean classes deserialized by the reflective JavaBeanDeserializer instead of an asm generated
+     * deserializer, class name to the reason, e.g. a package which can not be defined into or a getOnly property
+     * @since 1.2.45
+     */
+    public Map<String, String> getReflectiveClasses() {
+        return Collections.unmodifiableMap(reflectiveClasses);
+    }
+
     public void setAsmEnable(boolean asmEnable) {
         this.asmEnable = asmEnable;
     }
 
+    /**
+     * @since 1.2.45
+     */
+    public boolean isLambdaAccessor() {
+        return lambdaAccessor;
+    }
+
+    /**
+     * 不能使用asm的类型(非public、接口、fieldBased等)通过LambdaMetafactory绑定setter，代替Method.invoke，需要jdk 8
+     * 
+     * @since 1.2.45
+     */
+    public void setLambdaAccessor(boolean lambdaAccessor) {
+        this.lambdaAccessor = lambdaAccessor;
+    }
+
+    /**
+     * @since 1.2.45
+     */
+    public BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * @since 1.2.45
+     */
+    public void setBufferPool(BufferPool bufferPool) {
+        if (bufferPool == null) {
+            throw new IllegalArgumentException("bufferPool is null");
+        }
+        this.bufferPool = bufferPool;
+    }
+
     public IdentityHashMap<Type, ObjectDeserializer> getDeserializers() {
         return deserializers;
     }
 
+    /**
+     * @since 1.2.45
+     */
+    public boolean isWeakCache() {
+        return weakCache;
+    }
+
+    /**
+     * @return number of cached deserializers
+     * @since 1.2.45
+     */
+    public int getDeserializerCount() {
+        return deserializers.size();
+    }
+
+    /**
+     * @return number of live classes generated by asm for this config
+     * @since 1.2.45
+     */
+    public int getASMClassCount() {
+        return asmFactory == null ? 0 : asmFactory.classLoader.getClassCount();
+    }
+
     public ObjectDeserializer getDeserializer(Type type) {
         /** 首先从内部已经注册查找特定class的反序列化实例 */
         ObjectDeserializer derializer = this.deserializers.get(type);
@@ -592,14 +686,27 @@ public class ParserConfig {
         } else if (PropertyProcessable.class.isAssignableFrom(clazz)) {
             derializer = new PropertyProcessableDeserializer((Class<PropertyProcessable>)clazz);
         } else {
-            /** 默认使用JavaBeanDeserializer反序列化(没有开启asm情况下) */
-            derializer = createJavaBeanDeserializer(clazz, type);
+            /** 默认使用JavaBeanDeserializer反序列化(没有开启asm情况下)，并发时只由一个线程生成 */
+            if (pendingDeserializers.begin(type)) {
+                try {
+                    derializer = createJavaBeanDeserializer(clazz, type);
+                    deserializers.putIfAbsent(type, derializer);
+                } finally {
+                    pendingDeserializers.end(type);
+                }
+            } else {
+                derializer = deserializers.get(type);
+                if (derializer != null) {
+                    return derializer;
+                }
+                derializer = createJavaBeanDeserializer(clazz, type);
+            }
         }
 
-        /** 加入cache，避免同类型反复创建 */
-        putDeserializer(type, derializer);
+        /** 加入cache，避免同类型反复创建；并发创建时以先加入cache的实例为准 */
+        ObjectDeserializer exists = deserializers.putIfAbsent(type, derializer);
 
-        return derializer;
+        return exists != null ? exists : derializer;
     }
 
     /**
@@ -622,6 +729,9 @@ public class ParserConfig {
 
     public ObjectDeserializer createJavaBeanDeserializer(Class<?> clazz, Type type) {
         boolean asmEnable = this.asmEnable & !this.fieldBased;
+        /** 不使用asm的原因，见getReflectiveClasses */
+        String reason = !this.asmEnable ? "asm disabled" : fieldBased ? "fieldBased" : null;
+        boolean packageAccess = false;
         if (asmEnable) {
             JSONType jsonType = TypeUtils.getAnnotation(clazz,JSONType.class);
 
@@ -639,23 +749,32 @@ public class ParserConfig {
                 }
                 
                 asmEnable = jsonType.asm();
-            }
-
-            if (asmEnable) {
-                Class<?> superClass = JavaBeanInfo.getBuilderClass(clazz, jsonType);
-                if (superClass == null) {
-                    superClass = clazz;
+                if (!asmEnable) {
+                    reason = "JSONType.asm false";
                 }
+            }
 
-                for (;;) {
-                    if (!Modifier.isPublic(superClass.getModifiers())) {
-                        asmEnable = false;
-                        break;
+            /** 非public类型或者asmFactory看不到的类型，生成的类定义到bean所在的package中 */
+            if (asmEnable && asmFactory != null) {
+                Class<?> builderClass = JavaBeanInfo.getBuilderClass(clazz, jsonType);
+                packageAccess = asmFactory.classLoader.isPackageAccessRequired(clazz)
+                                || (builderClass != null && asmFactory.classLoader.isPackageAccessRequired(builderClass));
+                if (packageAccess) {
+                    String error = asmFactory.classLoader.checkPackageAccess(clazz);
+                    if (error == null && builderClass != null) {
+                        error = asmFactory.classLoader.checkPackageAccess(builderClass);
+                        if (error == null && !Modifier.isPublic(builderClass.getModifiers())
+                            && !isSamePackage(builderClass, clazz)) {
+                            error = "non-public builder " + builderClass.getName() + " in another package";
+                        }
+                    }
+                    if (error == null && this != global && !ASMClassLoader.isHiddenClassSupported()) {
+                        error = "hidden classes unsupported, only the global config defines classes in the package of the bean";
                     }
 
-                    superClass = superClass.getSuperclass();
-                    if (superClass == Object.class || superClass == null) {
-                        break;
+                    if (error != null) {
+                        asmEnable = false;
+                        reason = error;
                     }
                 }
             }
@@ -663,51 +782,57 @@ public class ParserConfig {
 
         if (clazz.getTypeParameters().length != 0) {
             asmEnable = false;
+            reason = "generic class";
         }
 
-        if (asmEnable && asmFactory != null && asmFactory.classLoader.isExternalClass(clazz)) {
+        if (asmEnable && !ASMUtils.checkName(clazz.getSimpleName())) {
             asmEnable = false;
-        }
-
-        if (asmEnable) {
-            asmEnable = ASMUtils.checkName(clazz.getSimpleName());
+            reason = "class name " + clazz.getSimpleName();
         }
 
         if (asmEnable) {
             if (clazz.isInterface()) {
                 asmEnable = false;
+                reason = "interface";
             }
             JavaBeanInfo beanInfo = JavaBeanInfo.build(clazz, type, propertyNamingStrategy);
 
             if (asmEnable && beanInfo.fields.length > 200) {
                 asmEnable = false;
+                reason = "more than 200 fields";
             }
 
             Constructor<?> defaultConstructor = beanInfo.defaultConstructor;
             if (asmEnable && defaultConstructor == null && !clazz.isInterface()) {
                 asmEnable = false;
+                reason = "no default constructor";
             }
 
             for (FieldInfo fieldInfo : beanInfo.fields) {
                 if (fieldInfo.getOnly) {
                     asmEnable = false;
+                    reason = "getOnly, " + fieldInfo.name;
                     break;
                 }
 
                 Class<?> fieldClass = fieldInfo.fieldClass;
-                if (!Modifier.isPublic(fieldClass.getModifiers())) {
+                if (!Modifier.isPublic(fieldClass.getModifiers())
+                    && !(packageAccess && isSamePackage(fieldClass, clazz))) {
                     asmEnable = false;
+                    reason = "non-public field class, " + fieldInfo.name;
                     break;
                 }
 
                 if (fieldClass.isMemberClass() && !Modifier.isStatic(fieldClass.getModifiers())) {
                     asmEnable = false;
+                    reason = "inner field class, " + fieldInfo.name;
                     break;
                 }
 
                 if (fieldInfo.getMember() != null //
                     && !ASMUtils.checkName(fieldInfo.getMember().getName())) {
                     asmEnable = false;
+                    reason = "member name, " + fieldInfo.name;
                     break;
                 }
 
@@ -719,6 +844,13 @@ public class ParserConfig {
                         || annotation.unwrapped())
                         || (fieldInfo.method != null && fieldInfo.method.getParameterTypes().length > 1)) {
                     asmEnable = false;
+                    reason = "JSONField, " + fieldInfo.name;
+                    break;
+                }
+
+                if (fieldClass.isInterface() && isEnumSeeAlso(fieldClass)) { // 字符串值由JavaBeanDeserializer按seeAlso转成枚举
+                    asmEnable = false;
+                    reason = "enum seeAlso, " + fieldInfo.name;
                     break;
                 }
 
@@ -726,6 +858,7 @@ public class ParserConfig {
                     ObjectDeserializer fieldDeser = this.getDeserializer(fieldClass);
                     if (!(fieldDeser instanceof EnumDeserializer)) {
                         asmEnable = false;
+                        reason = "custom enum deserializer, " + fieldInfo.name;
                         break;
                     }
                 }
@@ -735,12 +868,13 @@ public class ParserConfig {
         if (asmEnable) {
             if (clazz.isMemberClass() && !Modifier.isStatic(clazz.getModifiers())) {
                 asmEnable = false;
+                reason = "inner class";
             }
         }
 
         /** 创建通用Java对象反序列化实例JavaBeanDeserializer */
         if (!asmEnable) {
-            return new JavaBeanDeserializer(this, clazz, type);
+            return bindAccessors(new JavaBeanDeserializer(this, clazz, type), reason);
         }
 
         JavaBeanInfo beanInfo = JavaBeanInfo.build(clazz, type, propertyNamingStrategy);
@@ -750,12 +884,56 @@ public class ParserConfig {
             // e.printStackTrace();
             // return new JavaBeanDeserializer(this, clazz, type);
         } catch (NoSuchMethodException ex) {
-            return new JavaBeanDeserializer(this, clazz, type);
+            return bindAccessors(new JavaBeanDeserializer(this, clazz, type), ex.toString());
         } catch (JSONException asmError) {
-            return new JavaBeanDeserializer(this, beanInfo);
+            return bindAccessors(new JavaBeanDeserializer(this, beanInfo), asmError.toString());
         } catch (Exception e) {
+            if (packageAccess) { // 不能定义到bean的package中，例如sealed package
+                return bindAccessors(new JavaBeanDeserializer(this, beanInfo), e.toString());
+            }
             throw new JSONException("create asm deserializer error, " + clazz.getName(), e);
+        } catch (LinkageError e) {
+            if (packageAccess) {
+                return bindAccessors(new JavaBeanDeserializer(this, beanInfo), e.toString());
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isEnumSeeAlso(Class<?> clazz) {
+        JSONType jsonType = TypeUtils.getAnnotation(clazz, JSONType.class);
+        if (jsonType != null) {
+            for (Class<?> seeAlso : jsonType.seeAlso()) {
+                if (seeAlso.isEnum()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSamePackage(Class<?> clazz, Class<?> other) {
+        return clazz.getClassLoader() == other.getClassLoader()
+               && ASMClassLoader.getPackageName(clazz).equals(ASMClassLoader.getPackageName(other));
+    }
+
+    /**
+     * 开启lambdaAccessor时setter绑定到LambdaMetafactory生成的类上
+     */
+    private JavaBeanDeserializer bindAccessors(JavaBeanDeserializer deserializer, String reason) {
+        if (reason != null) {
+            reflectiveClasses.put(deserializer.beanInfo.clazz.getName(), reason);
         }
+
+        if (lambdaAccessor && !lambdaError) {
+            try {
+                LambdaAccessors.bind(deserializer.beanInfo.fields);
+                LambdaAccessors.bind(deserializer.beanInfo.sortedFields);
+            } catch (Throwable error) {
+                lambdaError = true; // jdk without LambdaMetafactory
+            }
+        }
+        return deserializer;
     }
 
     public FieldDeserializer createFieldDeserializer(ParserConfig mapping, //
@@ -882,6 +1060,7 @@ public class ParserConfig {
 
     public void setDefaultClassLoader(ClassLoader defaultClassLoader) {
         this.defaultClassLoader = defaultClassLoader;
+        resetAutoTypeCache();
     }
 
     public void addDeny(String name) {
@@ -899,6 +1078,7 @@ public class ParserConfig {
         System.arraycopy(this.denyHashCodes, 0, hashCodes, 0, this.denyHashCodes.length);
         Arrays.sort(hashCodes);
         this.denyHashCodes = hashCodes;
+        resetAutoTypeCache();
     }
 
     public void addAccept(String name) {
@@ -916,6 +1096,14 @@ public class ParserConfig {
         System.arraycopy(this.acceptHashCodes, 0, hashCodes, 0, this.acceptHashCodes.length);
         Arrays.sort(hashCodes);
         this.acceptHashCodes = hashCodes;
+        resetAutoTypeCache();
+    }
+
+    /**
+     * 配置改变之后调用，先修改配置再替换map
+     */
+    private void resetAutoTypeCache() {
+        this.autoTypeCache = new ConcurrentHashMap<String, Class<?>>();
     }
 
     public Class<?> checkAutoType(String typeName, Class<?> expectClass) {
@@ -927,6 +1115,26 @@ public class ParserConfig {
             return null;
         }
 
+        if (expectClass == null && autoTypeSupport) {
+            /** 检查之前取出map，检查过程中配置改变（比如addDeny）时结果放到已经丢弃的map中，不会被后续的检查使用 */
+            ConcurrentMap<String, Class<?>> cache = this.autoTypeCache;
+            Class<?> clazz = cache.get(typeName);
+            if (clazz != null) {
+                return clazz;
+            }
+
+            clazz = checkAutoType0(typeName, null, features);
+            if (clazz != null) {
+                cache.putIfAbsent(typeName, clazz);
+            }
+            return clazz;
+        }
+
+        return checkAutoType0(typeName, expectClass, features);
+    }
+
+    private Class<?> checkAutoType0(String typeName, Class<?> expectClass, int features) {
+
         if (typeName.length() >= 128 || typeName.length() < 3) {
             throw new JSONException("autoType is not support. " + typeName);
         }
@@ -1056,6 +1264,7 @@ public class ParserConfig {
 
     public void clearDeserializers() {
         this.deserializers.clear();
+        resetAutoTypeCache();
         this.initDeserializers();
     }
 }
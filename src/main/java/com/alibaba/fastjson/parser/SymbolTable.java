@@ -15,22 +15,44 @@
  */
 package com.alibaba.fastjson.parser;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import com.alibaba.fastjson.JSON;
 
 /**
+ * 有界的符号表，多个线程共享，不加锁。开放寻址，每个key最多探测PROBE个槽位，槽位满了按clock算法淘汰最近没有命中过的符号，
+ * "$ref"和type key固定在表中不淘汰。太长或者像id、时间戳、UUID这样的key不缓存，直接创建新的字符串。
+ * 
  * @author wenshao[szujobs@hotmail.com]
  */
 public class SymbolTable {
 
-    private final String[] symbols;
-    private final int      indexMask;
+    /** 超过这个长度的key不缓存 */
+    public final static int   MAX_SYMBOL_LENGTH = 256;
+    /** UUID、hex id的最小长度，更短的key只检查数字的比例 */
+    private final static int  ENTROPY_CHECK_LENGTH = 16;
+    private final static int  PROBE             = 4;
+
+    private final static byte REFERENCED        = 1;
+    private final static byte PINNED            = 2;
+
+    private final String[]    symbols;
+    /** 槽位的状态，命中过的标记为REFERENCED，淘汰时先清除标记再跳过，PINNED的不淘汰 */
+    private final byte[]      states;
+    private final int         indexMask;
+
+    private boolean           statEnabled;
+    private final AtomicLong  hitCount          = new AtomicLong();
+    private final AtomicLong  missCount         = new AtomicLong();
+    private final AtomicLong  evictionCount     = new AtomicLong();
     
     public SymbolTable(int tableSize){
         this.indexMask = tableSize - 1;
         this.symbols = new String[tableSize];
+        this.states = new byte[tableSize];
         
-        this.addSymbol("$ref", 0, 4, "$ref".hashCode());
-        this.addSymbol(JSON.DEFAULT_TYPE_KEY, 0, JSON.DEFAULT_TYPE_KEY.length(), JSON.DEFAULT_TYPE_KEY.hashCode());
+        this.addSymbol("$ref", 0, 4, "$ref".hashCode(), true);
+        this.addSymbol(JSON.DEFAULT_TYPE_KEY, 0, JSON.DEFAULT_TYPE_KEY.length(), JSON.DEFAULT_TYPE_KEY.hashCode(), true);
     }
 
     public String addSymbol(char[] buffer, int offset, int len) {
@@ -49,66 +71,168 @@ public class SymbolTable {
      * @param len The length of the new symbol in the buffer.
      */
     public String addSymbol(char[] buffer, int offset, int len, int hash) {
+        if (len > MAX_SYMBOL_LENGTH) {
+            return new String(buffer, offset, len);
+        }
+
         final int bucket = hash & indexMask;
-        
-        String symbol = symbols[bucket];
-        if (symbol != null) {
-            boolean eq = true;
+
+        int empty = -1;
+        for (int i = 0; i < PROBE; ++i) {
+            final int index = (bucket + i) & indexMask;
+            final String symbol = symbols[index];
+            if (symbol == null) {
+                empty = index; // 槽位只会被替换不会被清空，后面的槽位不会有这个key
+                break;
+            }
+
             if (hash == symbol.hashCode() // 
                     && len == symbol.length()) {
-                for (int i = 0; i < len; i++) {
-                    if (buffer[offset + i] != symbol.charAt(i)) {
+                boolean eq = true;
+                for (int j = 0; j < len; j++) {
+                    if (buffer[offset + j] != symbol.charAt(j)) {
                         eq = false;
                         break;
                     }
                 }
-            } else {
-                eq = false;
-            }
-            
-            if (eq) {
-                return symbol;
-            } else {
-                return new String(buffer, offset, len);    
+
+                if (eq) {
+                    hit(index);
+                    return symbol;
+                }
             }
         }
-        
-        symbol = new String(buffer, offset, len).intern();
-        symbols[bucket] = symbol;
-        return symbol;
+
+        return put(bucket, empty, new String(buffer, offset, len));
     }
 
     public String addSymbol(String buffer, int offset, int len, int hash) {
         return addSymbol(buffer, offset, len, hash, false);
     }
 
+    /**
+     * @param replace 为true时符号固定在表中，不会被淘汰
+     */
     public String addSymbol(String buffer, int offset, int len, int hash, boolean replace) {
+        if (len > MAX_SYMBOL_LENGTH && !replace) {
+            return subString(buffer, offset, len);
+        }
+
         final int bucket = hash & indexMask;
 
-        String symbol = symbols[bucket];
-        if (symbol != null) {
+        int empty = -1;
+        for (int i = 0; i < PROBE; ++i) {
+            final int index = (bucket + i) & indexMask;
+            final String symbol = symbols[index];
+            if (symbol == null) {
+                empty = index;
+                break;
+            }
+
             if (hash == symbol.hashCode() // 
                     && len == symbol.length() //
                     && buffer.startsWith(symbol, offset)) {
+                if (replace) {
+                    states[index] = PINNED;
+                } else {
+                    hit(index);
+                }
                 return symbol;
             }
+        }
 
-            String str = subString(buffer, offset, len);
+        String symbol = len == buffer.length() //
+            ? buffer //
+            : subString(buffer, offset, len);
 
-            if (replace) {
-                symbols[bucket] = str;
+        if (replace) {
+            int index = empty;
+            for (int i = 0; index == -1 && i < PROBE; ++i) {
+                int probe = (bucket + i) & indexMask;
+                if (states[probe] != PINNED) {
+                    index = probe;
+                }
             }
 
-            return str;
+            if (index != -1) {
+                symbols[index] = symbol;
+                states[index] = PINNED;
+            }
+            return symbol;
         }
-        
-        symbol = len == buffer.length() //
-            ? buffer //
-            : subString(buffer, offset, len);
-        symbol = symbol.intern();
-        symbols[bucket] = symbol;
+
+        return put(bucket, empty, symbol);
+    }
+
+    private void hit(int index) {
+        if (states[index] == 0) {
+            states[index] = REFERENCED;
+        }
+
+        if (statEnabled) {
+            hitCount.incrementAndGet();
+        }
+    }
+
+    private String put(int bucket, int empty, String symbol) {
+        if (statEnabled) {
+            missCount.incrementAndGet();
+        }
+
+        if (!isCacheable(symbol)) {
+            return symbol;
+        }
+
+        if (empty != -1) {
+            symbol = symbol.intern();
+            symbols[empty] = symbol;
+            return symbol;
+        }
+
+        // 替换进来的符号不做intern，避免不断变化的key填满jvm的字符串常量表
+        for (int i = 0; i < PROBE; ++i) {
+            final int index = (bucket + i) & indexMask;
+            final byte state = states[index];
+            if (state == PINNED) {
+                continue;
+            }
+
+            if (state == REFERENCED) {
+                states[index] = 0;
+                continue;
+            }
+
+            symbols[index] = symbol;
+            if (statEnabled) {
+                evictionCount.incrementAndGet();
+            }
+            break;
+        }
+
         return symbol;
     }
+
+    /**
+     * 一半以上是数字，或者不短于ENTROPY_CHECK_LENGTH并且数字和其他字符频繁交替（UUID、hex）的key不缓存。
+     * 短的key不检查交替，x1、id1、md5这样的字段名也会频繁交替
+     */
+    private static boolean isCacheable(String symbol) {
+        final int len = symbol.length();
+        int digits = 0, transitions = 0;
+        boolean lastDigit = false;
+        for (int i = 0; i < len; ++i) {
+            char ch = symbol.charAt(i);
+            boolean digit = ch >= '0' && ch <= '9';
+            if (digit) {
+                digits++;
+            }
+            if (i > 0 && digit != lastDigit) {
+                transitions++;
+            }
+            lastDigit = digit;
+        }
+        return digits * 2 <= len && (len < ENTROPY_CHECK_LENGTH || transitions * 4 <= len);
+    }
     
     private static String subString(String src, int offset, int len) {
         char[] chars = new char[len];
@@ -125,4 +249,67 @@ public class SymbolTable {
         }
         return h;
     }
+
+    /**
+     * 是否统计命中、未命中和淘汰的次数，统计会在每次查找时更新计数器，默认关闭
+     * 
+     * @since 1.2.45
+     */
+    public void setStatEnabled(boolean statEnabled) {
+        this.statEnabled = statEnabled;
+    }
+
+    /**
+     * @since 1.2.45
+     */
+    public boolean isStatEnabled() {
+        return statEnabled;
+    }
+
+    /**
+     * @since 1.2.45
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * 包括不缓存的key
+     * 
+     * @since 1.2.45
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @since 1.2.45
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * 表中的符号数量，不会超过创建时的tableSize
+     * 
+     * @since 1.2.45
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < symbols.length; ++i) {
+            if (symbols[i] != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @since 1.2.45
+     */
+    public void resetStat() {
+        hitCount.set(0);
+        missCount.set(0);
+        evictionCount.set(0);
+    }
 }
\ No newline at end of file
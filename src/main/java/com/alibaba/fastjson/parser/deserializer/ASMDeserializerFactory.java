@@ -62,13 +62,20 @@ public class ASMDeserializerFactory implements Opcodes {
             throw new IllegalArgumentException("not support type :" + clazz.getName());
         }
 
+        /** 非public的类型，生成的类定义在bean自己的package中 */
+        boolean packageAccess = classLoader.isPackageAccessRequired(clazz)
+                                || (beanInfo.builderClass != null
+                                    && classLoader.isPackageAccessRequired(beanInfo.builderClass));
+
         String className = "FastjsonASMDeserializer_" + seed.incrementAndGet() + "_" + clazz.getSimpleName();
         String classNameType;
         String classNameFull;
 
         Package pkg = ASMDeserializerFactory.class.getPackage();
-        if (pkg != null) {
-            String packageName = pkg.getName();
+        String packageName = packageAccess //
+            ? ASMClassLoader.getPackageName(clazz) //
+            : pkg != null ? pkg.getName() : "";
+        if (packageName.length() != 0) {
             classNameType = packageName.replace('.', '/') + "/" + className;
             classNameFull = packageName + "." + className;
         } else {
@@ -86,7 +93,9 @@ public class ASMDeserializerFactory implements Opcodes {
         _deserialzeArrayMapping(cw, new Context(classNameType, config, beanInfo, 4));
         byte[] code = cw.toByteArray();
 
-        Class<?> deserClass = classLoader.defineClassPublic(classNameFull, code, 0, code.length);
+        Class<?> deserClass = packageAccess //
+            ? classLoader.defineClassInPackage(clazz, classNameFull, code, config == ParserConfig.global) //
+            : classLoader.getClassLoader(clazz).defineClassPublic(classNameFull, code, 0, code.length);
         Constructor<?> constructor = deserClass.getConstructor(ParserConfig.class, JavaBeanInfo.class);
         Object instance = constructor.newInstance(config, beanInfo);
 
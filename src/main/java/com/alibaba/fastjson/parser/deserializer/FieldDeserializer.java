@@ -107,7 +107,7 @@ public abstract class FieldDeserializer {
                         }
                     }
                 } else {
-                    method.invoke(object, value);
+                    fieldInfo.set(object, value);
                 }
             } else {
                 final Field field = fieldInfo.field;
@@ -154,7 +154,7 @@ public abstract class FieldDeserializer {
                     }
                 } else {
                     if (field != null) {
-                        field.set(object, value);
+                        fieldInfo.set(object, value);
                     }
                 }
             }
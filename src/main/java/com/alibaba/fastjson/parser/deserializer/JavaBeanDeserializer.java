@@ -124,6 +124,18 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
     }
 
     public FieldDeserializer getFieldDeserializer(long hash) {
+        int index = getFieldIndex(hash);
+        if (index != -1) {
+            return sortedFieldDeserializers[index];
+        }
+
+        return null; // key not found.
+    }
+
+    /**
+     * 按字段名的fnv1a_64 hash查找字段在sortedFieldDeserializers中的位置，没有找到返回-1
+     */
+    private int getFieldIndex(long hash) {
         if (this.hashArray == null) {
             long[] hashArray = new long[sortedFieldDeserializers.length];
             for (int i = 0; i < sortedFieldDeserializers.length; i++) {
@@ -135,7 +147,7 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
 
         int pos = Arrays.binarySearch(hashArray, hash);
         if (pos < 0) {
-            return null;
+            return -1;
         }
 
         if (hashArrayMapping == null) {
@@ -151,12 +163,7 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
             hashArrayMapping = mapping;
         }
 
-        int setterIndex = hashArrayMapping[pos];
-        if (setterIndex != -1) {
-            return sortedFieldDeserializers[setterIndex];
-        }
-
-        return null; // key not found.
+        return hashArrayMapping[pos];
     }
 
     static boolean isSetFlag(int i, int[] setFlags) {
@@ -482,12 +489,31 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
             }
 
             String typeKey = beanInfo.typeKey;
+            long lastHash = 0;
             for (int fieldIndex = 0;; fieldIndex++) {
                 String key = null;
                 FieldDeserializer fieldDeser = null;
                 FieldInfo fieldInfo = null;
                 Class<?> fieldClass = null;
                 JSONField feildAnnotation = null;
+                /** 字段顺序和json不一致时，用字段名的hash定位字段，不创建字符串，之后从这个字段开始继续按顺序匹配，
+                 *  不是字段的key直接走下面的符号表。同一个hash只定位一次，避免定位的字段没有匹配上时反复查找 */
+                if (fieldIndex >= sortedFieldDeserializers.length || lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
+                    long hash = lexer.peekFieldNameHash();
+                    if (hash != 0 && hash != lastHash) {
+                        lastHash = hash;
+                        int hashIndex = getFieldIndex(hash);
+                        if (hashIndex == -1) {
+                            hashIndex = sortedFieldDeserializers.length;
+                        } else if (hashIndex < fieldIndex
+                                   && (sortedFieldDeserializers[hashIndex].fieldInfo.name.equals(typeKey)
+                                       || isSetFlag(hashIndex, setFlags))) {
+                            /** 按顺序已经错过的字段原来走符号表，typeKey和已经设置过的字段保持原来的处理 */
+                            hashIndex = sortedFieldDeserializers.length;
+                        }
+                        fieldIndex = hashIndex;
+                    }
+                }
                 /** 检查是否所有字段都已经处理 */
                 if (fieldIndex < sortedFieldDeserializers.length) {
                     fieldDeser = sortedFieldDeserializers[fieldIndex];
@@ -639,6 +665,7 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                     } else if (lexer.matchField(name_chars)) {
                         matchField = true;
                     } else {
+                        lexer.matchStat = JSONLexer.NOT_MATCH_NAME;
                         continue;
                     }
                 }
@@ -15,6 +15,7 @@ import java.lang.reflect.*;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.util.Collection;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,7 +26,7 @@ import static com.alibaba.fastjson.util.ASMUtils.type;
 
 public class ASMSerializerFactory implements Opcodes {
 
-    protected final ASMClassLoader classLoader             = new ASMClassLoader();
+    protected final ASMClassLoader classLoader;
 
     private final AtomicLong       seed                    = new AtomicLong();
 
@@ -39,6 +40,17 @@ public class ASMSerializerFactory implements Opcodes {
     static final String            SerialContext_desc       = desc(SerialContext.class);
     static final String            SerializeFilterable_desc = desc(SerializeFilterable.class);
 
+    public ASMSerializerFactory(){
+        this(new ASMClassLoader());
+    }
+
+    /**
+     * @since 1.2.45
+     */
+    public ASMSerializerFactory(ASMClassLoader classLoader){
+        this.classLoader = classLoader;
+    }
+
     static class Context {
 
         static final int              serializer     = 1;
@@ -54,6 +66,7 @@ public class ASMSerializerFactory implements Opcodes {
         private final String            className;
         private final SerializeBeanInfo beanInfo;
         private final boolean           writeDirect;
+        private final boolean           packageAccess;
 
         private Map<String, Integer>    variants       = new HashMap<String, Integer>();
         private int                     variantIndex   = 9;
@@ -63,12 +76,28 @@ public class ASMSerializerFactory implements Opcodes {
                        SerializeBeanInfo beanInfo, //
                        String className, //
                        boolean writeDirect, //
-                       boolean nonContext){
+                       boolean nonContext, //
+                       boolean packageAccess){
             this.getters = getters;
             this.className = className;
             this.beanInfo = beanInfo;
             this.writeDirect = writeDirect;
             this.nonContext = nonContext || beanInfo.beanType.isEnum();
+            this.packageAccess = packageAccess;
+        }
+
+        /**
+         * 生成的代码可以直接引用的类型，定义在bean的package中时包括同一个package中的非public类型
+         */
+        boolean isAccessible(Class<?> type) {
+            if (Modifier.isPublic(type.getModifiers())) {
+                return true;
+            }
+
+            Class<?> beanType = beanInfo.beanType;
+            return packageAccess //
+                   && type.getClassLoader() == beanType.getClassLoader() //
+                   && ASMClassLoader.getPackageName(type).equals(ASMClassLoader.getPackageName(beanType));
         }
 
         public int var(String name) {
@@ -104,6 +133,16 @@ public class ASMSerializerFactory implements Opcodes {
     }
 
     public JavaBeanSerializer createJavaBeanSerializer(SerializeBeanInfo beanInfo) throws Exception {
+        return createJavaBeanSerializer(beanInfo, false);
+    }
+
+    /**
+     * @param permanentPackageClass whether the class generated for a non-public bean may stay in the bean's class
+     * loader when it can not be defined as a hidden class, see {@link ASMClassLoader#defineClassInPackage}
+     * @since 1.2.45
+     */
+    public JavaBeanSerializer createJavaBeanSerializer(SerializeBeanInfo beanInfo, boolean permanentPackageClass)
+                                                                                                              throws Exception {
         Class<?> clazz = beanInfo.beanType;
         if (clazz.isPrimitive()) {
             throw new JSONException("unsupportd class " + clazz.getName());
@@ -138,12 +177,17 @@ public class ASMSerializerFactory implements Opcodes {
             }
         }
 
+        /** 非public的类型，生成的类定义在bean自己的package中 */
+        boolean packageAccess = classLoader.isPackageAccessRequired(clazz);
+
         String className = "ASMSerializer_" + seed.incrementAndGet() + "_" + clazz.getSimpleName();
         String classNameType;
         String classNameFull;
         Package pkg = ASMSerializerFactory.class.getPackage();
-        if (pkg != null) {
-            String packageName = pkg.getName();
+        String packageName = packageAccess //
+            ? ASMClassLoader.getPackageName(clazz) //
+            : pkg != null ? pkg.getName() : "";
+        if (packageName.length() != 0) {
             classNameType = packageName.replace('.', '/') + "/" + className;
             classNameFull = packageName + "." + className;
         } else {
@@ -151,9 +195,6 @@ public class ASMSerializerFactory implements Opcodes {
             classNameFull = className;
         }
 
-        String packageName = ASMSerializerFactory.class.getPackage().getName();
-
-
         ClassWriter cw = new ClassWriter();
         cw.visit(V1_5
                  // jdk1.2以后规范编译需要标志ACC_SUPER
@@ -247,7 +288,7 @@ public class ASMSerializerFactory implements Opcodes {
             }
 
             Context context = new Context(getters, beanInfo, classNameType, writeDirect,
-                                          nonContext);
+                                          nonContext, packageAccess);
 
             mw = new MethodWriter(cw, //
                                   ACC_PUBLIC, //
@@ -352,7 +393,7 @@ public class ASMSerializerFactory implements Opcodes {
         if (!nativeSorted) {
             // sortField support
             Context context = new Context(getters, beanInfo, classNameType, false,
-                                          DisableCircularReferenceDetect);
+                                          DisableCircularReferenceDetect, packageAccess);
 
             mw = new MethodWriter(cw, ACC_PUBLIC, "writeUnsorted",
                                   "(L" + JSONSerializer + ";Ljava/lang/Object;Ljava/lang/Object;Ljava/lang/reflect/Type;I)V",
@@ -392,7 +433,7 @@ public class ASMSerializerFactory implements Opcodes {
             }
 
             Context context = new Context(getters, beanInfo, classNameType, writeDirect,
-                                          nonContext);
+                                          nonContext, packageAccess);
 
             mw = new MethodWriter(cw, ACC_PUBLIC, methodName,
                                   "(L" + JSONSerializer + ";Ljava/lang/Object;Ljava/lang/Object;Ljava/lang/reflect/Type;I)V",
@@ -413,7 +454,9 @@ public class ASMSerializerFactory implements Opcodes {
 
         byte[] code = cw.toByteArray();
 
-        Class<?> serializerClass = classLoader.defineClassPublic(classNameFull, code, 0, code.length);
+        Class<?> serializerClass = packageAccess //
+            ? classLoader.defineClassInPackage(clazz, classNameFull, code, permanentPackageClass) //
+            : classLoader.getClassLoader(clazz).defineClassPublic(classNameFull, code, 0, code.length);
         Constructor<?> constructor = serializerClass.getConstructor(SerializeBeanInfo.class);
         Object instance = constructor.newInstance(beanInfo);
 
@@ -589,7 +632,7 @@ public class ASMSerializerFactory implements Opcodes {
                     mw.visitLabel(forItemNullElse_);
 
                     Label forItemClassIfEnd_ = new Label(), forItemClassIfElse_ = new Label();
-                    if (elementClass != null && Modifier.isPublic(elementClass.getModifiers())) {
+                    if (elementClass != null && context.isAccessible(elementClass)) {
                         mw.visitVarInsn(ALOAD, context.var("list_item"));
                         mw.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Object", "getClass", "()Ljava/lang/Class;");
                         mw.visitLdcInsn(com.alibaba.fastjson.asm.Type.getType(desc(elementClass)));
@@ -651,7 +694,7 @@ public class ASMSerializerFactory implements Opcodes {
                         mw.visitVarInsn(ILOAD, context.var("i"));
                         mw.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;");
                     }
-                    if (elementClass != null && Modifier.isPublic(elementClass.getModifiers())) {
+                    if (elementClass != null && context.isAccessible(elementClass)) {
                         mw.visitLdcInsn(com.alibaba.fastjson.asm.Type.getType(desc((Class<?>) elementType)));
                         mw.visitLdcInsn(fieldInfo.serialzeFeatures);
                         mw.visitMethodInsn(INVOKEVIRTUAL, JSONSerializer, "writeWithFieldName",
@@ -702,7 +745,7 @@ public class ASMSerializerFactory implements Opcodes {
                 mw.visitVarInsn(ASTORE, context.var("fied_ser"));
 
                 Label instanceOfElse_ = new Label(), instanceOfEnd_ = new Label();
-                if (context.writeDirect && Modifier.isPublic(fieldClass.getModifiers())) {
+                if (context.writeDirect && context.isAccessible(fieldClass)) {
                     mw.visitVarInsn(ALOAD, context.var("fied_ser"));
                     mw.visitTypeInsn(INSTANCEOF, JavaBeanSerializer);
                     mw.visitJumpInsn(IFEQ, instanceOfElse_);
@@ -842,7 +885,8 @@ public class ASMSerializerFactory implements Opcodes {
                 writeAsArrayMethodName = "writeAsArray";
             }
         } else {
-            writeAsArrayMethodName = "writeAsArrayNormal";
+            /** 生成的writeAsArray不支持filter，有filter时使用JavaBeanSerializer输出 */
+            writeAsArrayMethodName = "writeNoneASM";
         }
 
         if ((context.beanInfo.features & SerializerFeature.BeanToArray.mask) == 0) {
@@ -965,6 +1009,32 @@ public class ASMSerializerFactory implements Opcodes {
             mw.visitVarInsn(ALOAD, 0);
             mw.visitMethodInsn(INVOKEVIRTUAL, JSONSerializer, "hasNameFilters", "(" + SerializeFilterable_desc + ")Z");
             mw.visitVarInsn(ISTORE, context.var("hasNameFilters"));
+
+            mw.visitVarInsn(ALOAD, Context.serializer);
+            mw.visitVarInsn(ALOAD, 0);
+            mw.visitMethodInsn(INVOKEVIRTUAL, JSONSerializer, "hasPropertyFilters", "(" + SerializeFilterable_desc + ")Z");
+            mw.visitVarInsn(ISTORE, context.var("hasPropertyFilters"));
+
+            // PropertyPreFilter和LabelFilter按bean预先计算
+            mw.visitVarInsn(ALOAD, 0);
+            mw.visitVarInsn(ALOAD, Context.serializer);
+            mw.visitVarInsn(ALOAD, Context.obj);
+            mw.visitMethodInsn(INVOKEVIRTUAL, JavaBeanSerializer, "getFieldFilterPlan",
+                               "(L" + JSONSerializer + ";Ljava/lang/Object;)[Z");
+            mw.visitVarInsn(ASTORE, context.var("filterPlan"));
+
+            Label _else_namePlan = new Label();
+            mw.visitInsn(ACONST_NULL);
+            mw.visitVarInsn(ASTORE, context.var("namePlan"));
+            mw.visitVarInsn(ILOAD, context.var("hasNameFilters"));
+            mw.visitJumpInsn(IFEQ, _else_namePlan);
+            mw.visitVarInsn(ALOAD, 0);
+            mw.visitVarInsn(ALOAD, Context.serializer);
+            mw.visitVarInsn(ALOAD, Context.obj);
+            mw.visitMethodInsn(INVOKEVIRTUAL, JavaBeanSerializer, "getFieldNamePlan",
+                               "(L" + JSONSerializer + ";Ljava/lang/Object;)[Ljava/lang/String;");
+            mw.visitVarInsn(ASTORE, context.var("namePlan"));
+            mw.visitLabel(_else_namePlan);
         }
 
         for (int i = 0; i < size; ++i) {
@@ -1409,7 +1479,7 @@ public class ASMSerializerFactory implements Opcodes {
             mw.visitLabel(forItemNullElse_);
 
             Label forItemClassIfEnd_ = new Label(), forItemClassIfElse_ = new Label();
-            if (elementClass != null && Modifier.isPublic(elementClass.getModifiers())) {
+            if (elementClass != null && context.isAccessible(elementClass)) {
                 mw.visitVarInsn(ALOAD, context.var("list_item"));
                 mw.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Object", "getClass", "()Ljava/lang/Class;");
                 mw.visitLdcInsn(com.alibaba.fastjson.asm.Type.getType(desc(elementClass)));
@@ -1476,7 +1546,7 @@ public class ASMSerializerFactory implements Opcodes {
                 mw.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;");
             }
 
-            if (elementClass != null && Modifier.isPublic(elementClass.getModifiers())) {
+            if (elementClass != null && context.isAccessible(elementClass)) {
                 mw.visitLdcInsn(com.alibaba.fastjson.asm.Type.getType(desc((Class<?>) elementType)));
                 mw.visitLdcInsn(fieldInfo.serialzeFeatures);
                 mw.visitMethodInsn(INVOKEVIRTUAL, JSONSerializer, "writeWithFieldName",
@@ -1527,8 +1597,12 @@ public class ASMSerializerFactory implements Opcodes {
             return;
         }
 
+        Label _else_apply = new Label();
+        mw.visitVarInsn(ILOAD, context.var("hasPropertyFilters"));
+        mw.visitJumpInsn(IFEQ, _else_apply);
         _apply(mw, property, context);
         mw.visitJumpInsn(IFEQ, _end);
+        mw.visitLabel(_else_apply);
 
         _processKey(mw, property, context);
 
@@ -1537,6 +1611,18 @@ public class ASMSerializerFactory implements Opcodes {
 
     private void _nameApply(MethodVisitor mw, FieldInfo property, Context context, Label _end) {
         if (!context.writeDirect) {
+            Label _plan = new Label(), _else_plan = new Label();
+
+            // if (filterPlan != null) { if (!filterPlan[i]) goto _end; } else ...
+            mw.visitVarInsn(ALOAD, context.var("filterPlan"));
+            mw.visitJumpInsn(IFNULL, _plan);
+            mw.visitVarInsn(ALOAD, context.var("filterPlan"));
+            mw.visitLdcInsn(context.getFieldOrinal(property.name));
+            mw.visitInsn(BALOAD);
+            mw.visitJumpInsn(IFEQ, _end);
+            mw.visitJumpInsn(GOTO, _else_plan);
+
+            mw.visitLabel(_plan);
             mw.visitVarInsn(ALOAD, 0);
             mw.visitVarInsn(ALOAD, Context.serializer);
             mw.visitVarInsn(ALOAD, Context.obj);
@@ -1546,6 +1632,8 @@ public class ASMSerializerFactory implements Opcodes {
             mw.visitJumpInsn(IFEQ, _end);
 
             _labelApply(mw, property, context, _end);
+
+            mw.visitLabel(_else_plan);
         }
 
         if (property.field == null) {
@@ -1594,7 +1682,7 @@ public class ASMSerializerFactory implements Opcodes {
         _writeFieldName(mw, context);
 
         Label classIfEnd_ = new Label(), classIfElse_ = new Label();
-        if (Modifier.isPublic(fieldClass.getModifiers()) //
+        if (context.isAccessible(fieldClass) //
             && !ParserConfig.isPrimitive2(fieldClass) //
         ) {
             mw.visitVarInsn(ALOAD, context.var("object"));
@@ -1813,6 +1901,32 @@ public class ASMSerializerFactory implements Opcodes {
             mw.visitVarInsn(ASTORE, Context.processValue);
             mw.visitJumpInsn(GOTO, processKeyElse_);
 
+            mw.visitLabel(checkValueEnd_);
+        } else if ((fieldInfo.serialzeFeatures & SerializerFeature.WriteNonStringValueAsString.mask) == 0
+                   && !fieldInfo.jsonDirect) {
+            // 没有ValueFilter时processValue不会改变值
+            Label checkValueEnd_ = new Label();
+            mw.visitVarInsn(ILOAD, context.var("checkValue"));
+            mw.visitJumpInsn(IFNE, checkValueEnd_);
+
+            String valueVar;
+            if (fieldClass == BigDecimal.class) {
+                valueVar = "decimal";
+            } else if (fieldClass == String.class) {
+                valueVar = "string";
+            } else if (fieldClass.isEnum()) {
+                valueVar = "enum";
+            } else if (List.class.isAssignableFrom(fieldClass)) {
+                valueVar = "list";
+            } else {
+                valueVar = "object";
+            }
+            mw.visitVarInsn(ALOAD, context.var(valueVar));
+            mw.visitInsn(DUP);
+            mw.visitVarInsn(ASTORE, Context.original);
+            mw.visitVarInsn(ASTORE, Context.processValue);
+            mw.visitJumpInsn(GOTO, processKeyElse_);
+
             mw.visitLabel(checkValueEnd_);
         }
 
@@ -1822,7 +1936,7 @@ public class ASMSerializerFactory implements Opcodes {
         mw.visitLdcInsn(context.getFieldOrinal(fieldInfo.name));
         mw.visitMethodInsn(INVOKEVIRTUAL, JavaBeanSerializer, "getBeanContext", "(I)" + desc(BeanContext.class));
         mw.visitVarInsn(ALOAD, Context.obj);
-        mw.visitVarInsn(ALOAD, Context.fieldName);
+        mw.visitLdcInsn(fieldInfo.name); // 和JavaBeanSerializer一致，ValueFilter得到NameFilter处理前的名称
 
         String valueDesc = "Ljava/lang/Object;";
         if (fieldClass == byte.class) {
@@ -1910,6 +2024,17 @@ public class ASMSerializerFactory implements Opcodes {
         mw.visitVarInsn(ILOAD, context.var("hasNameFilters"));
         mw.visitJumpInsn(IFEQ, _else_processKey);
 
+        // if (namePlan != null) fieldName = namePlan[i]; else ...
+        Label _namePlan = new Label();
+        mw.visitVarInsn(ALOAD, context.var("namePlan"));
+        mw.visitJumpInsn(IFNULL, _namePlan);
+        mw.visitVarInsn(ALOAD, context.var("namePlan"));
+        mw.visitLdcInsn(context.getFieldOrinal(property.name));
+        mw.visitInsn(AALOAD);
+        mw.visitVarInsn(ASTORE, Context.fieldName);
+        mw.visitJumpInsn(GOTO, _else_processKey);
+
+        mw.visitLabel(_namePlan);
         Class<?> propertyClass = property.fieldClass;
 
         mw.visitVarInsn(ALOAD, 0);
@@ -1989,7 +2114,7 @@ public class ASMSerializerFactory implements Opcodes {
         } else if (Number.class.isAssignableFrom(propertyClass)) {
             writeNullFeatures = SerializerFeature.WriteMapNullValue.getMask()
                     | SerializerFeature.WriteNullNumberAsZero.getMask();
-        } else if (Collection.class.isAssignableFrom(propertyClass)) {
+        } else if (Collection.class.isAssignableFrom(propertyClass) || Enumeration.class.isAssignableFrom(propertyClass)) {
             writeNullFeatures = SerializerFeature.WriteMapNullValue.getMask()
                     | SerializerFeature.WriteNullListAsEmpty.getMask();
         } else if (Boolean.class == propertyClass) {
@@ -2024,7 +2149,8 @@ public class ASMSerializerFactory implements Opcodes {
             mw.visitLdcInsn(SerializerFeature.WriteNullNumberAsZero.mask);
         } else if (propertyClass == Boolean.class) {
             mw.visitLdcInsn(SerializerFeature.WriteNullBooleanAsFalse.mask);
-        } else if (Collection.class.isAssignableFrom(propertyClass) || propertyClass.isArray()) {
+        } else if (Collection.class.isAssignableFrom(propertyClass) || propertyClass.isArray()
+                   || Enumeration.class.isAssignableFrom(propertyClass)) { // EnumerationSerializer
             mw.visitLdcInsn(SerializerFeature.WriteNullListAsEmpty.mask);
         } else {
             mw.visitLdcInsn(0);
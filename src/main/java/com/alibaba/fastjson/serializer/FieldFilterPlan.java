@@ -0,0 +1,269 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.serializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * 按filter组合预先计算的字段输出计划。SimplePropertyPreFilter和LabelFilter的结果只取决于属性名和label，
+ * PropertyProjection的结果取决于属性名和对象所在的路径，PascalNameFilter的结果只取决于属性名，一次序列化中每种bean只计算一次，之后每个对象只需按下标检查，
+ * 不用每个字段都查HashSet或生成新的名字。缓存在JSONSerializer上，filter变化后重新计算。
+ */
+final class FieldFilterPlan {
+
+    final JavaBeanSerializer              beanSerializer;
+    final Class<?>                        objectClass;
+    /** 计算时的PropertyPreFilter、LabelFilter和NameFilter，按serializer、bean的顺序 */
+    private final Object[]                filters;
+
+    /** 按sortedGetters的顺序，字段是否输出，null表示有自定义的PropertyPreFilter，需要逐个字段调用applyName */
+    final boolean[]                       apply;
+    /** 超过maxLevel时所有字段都不输出 */
+    final boolean[]                       none;
+    final int                             maxLevel;
+    /** 按sortedGetters的顺序，NameFilter处理后的名字，null表示需要逐个字段调用processKey */
+    final String[]                        names;
+
+    private final PropertyProjection      projection;
+    /** apply中是否有不输出的字段，有的话需要和投影的结果合并 */
+    private final boolean                 restricted;
+    /** 同一个列表中的元素的parent有相同的位置，只需要解析一次，ListSerializer每个元素会创建新的parent */
+    private SerialContext                 lastGrandParent;
+    private Object                        lastParentFieldName;
+    private boolean                       parentResolved;
+    private PropertyProjection.Node       lastParentNode;
+    private PropertyProjection.Node       lastNode;
+    private boolean[]                     lastApply;
+    /** 投影节点对应的字段计划，和计划一样只在一次序列化中有效 */
+    private IdentityHashMap<PropertyProjection.Node, boolean[]> nodeApply;
+
+    private FieldFilterPlan(JavaBeanSerializer beanSerializer, Class<?> objectClass, Object[] filters,
+                            boolean[] apply, int maxLevel, String[] names, PropertyProjection projection){
+        this.beanSerializer = beanSerializer;
+        this.objectClass = objectClass;
+        this.filters = filters;
+        this.apply = apply;
+        this.none = apply == null ? null : new boolean[apply.length];
+        this.maxLevel = maxLevel;
+        this.names = names;
+        this.projection = projection;
+
+        boolean restricted = false;
+        if (apply != null) {
+            for (boolean item : apply) {
+                if (!item) {
+                    restricted = true;
+                    break;
+                }
+            }
+        }
+        this.restricted = restricted;
+    }
+
+    boolean matches(JSONSerializer serializer, JavaBeanSerializer beanSerializer, Class<?> objectClass) {
+        if (this.beanSerializer != beanSerializer || this.objectClass != objectClass) {
+            return false;
+        }
+
+        int offset = match(filters, 0, serializer.propertyPreFilters);
+        offset = match(filters, offset, beanSerializer.propertyPreFilters);
+        offset = match(filters, offset, serializer.labelFilters);
+        offset = match(filters, offset, beanSerializer.labelFilters);
+        offset = match(filters, offset, serializer.nameFilters);
+        offset = match(filters, offset, beanSerializer.nameFilters);
+        return offset == filters.length;
+    }
+
+    /**
+     * 返回对象应该使用的计划，maxLevel的检查和SimplePropertyPreFilter一样取决于当前的SerialContext
+     */
+    boolean[] get(JSONSerializer serializer) {
+        if (maxLevel > 0) {
+            int level = 0;
+            for (SerialContext context = serializer.context; context != null; context = context.parent) {
+                if (++level > maxLevel) {
+                    return none;
+                }
+            }
+        }
+
+        if (projection == null) {
+            return apply;
+        }
+
+        PropertyProjection.Node node;
+        SerialContext context = serializer.context;
+        if (context == null) {
+            node = projection.resolve(serializer, null);
+        } else {
+            SerialContext parent = context.parent;
+            PropertyProjection.Node parentNode;
+            if (parent == null) {
+                parentNode = projection.root;
+            } else {
+                Object fieldName = parent.fieldName;
+                if (!parentResolved //
+                    || parent.parent != lastGrandParent //
+                    || (fieldName != lastParentFieldName && (fieldName == null || !fieldName.equals(lastParentFieldName)))) {
+                    lastParentNode = projection.resolve(serializer, parent);
+                    lastGrandParent = parent.parent;
+                    lastParentFieldName = fieldName;
+                    parentResolved = true;
+                }
+                parentNode = lastParentNode;
+            }
+            node = projection.child(parentNode, context.fieldName);
+        }
+
+        if (node == null) {
+            return apply;
+        }
+
+        if (node == PropertyProjection.NONE) {
+            return none;
+        }
+
+        if (node != lastNode) {
+            if (nodeApply == null) {
+                nodeApply = new IdentityHashMap<PropertyProjection.Node, boolean[]>();
+            }
+
+            boolean[] mask = nodeApply.get(node);
+            if (mask == null) {
+                mask = projection.getFieldMask(node, beanSerializer);
+                if (restricted) {
+                    for (int i = 0; i < mask.length; ++i) {
+                        mask[i] &= apply[i];
+                    }
+                }
+                nodeApply.put(node, mask);
+            }
+            lastNode = node;
+            lastApply = mask;
+        }
+        return lastApply;
+    }
+
+    static FieldFilterPlan create(JSONSerializer serializer, JavaBeanSerializer beanSerializer, Class<?> objectClass) {
+        List<Object> filters = new ArrayList<Object>();
+        List<SimplePropertyPreFilter> preFilters = new ArrayList<SimplePropertyPreFilter>();
+        List<NameFilter> nameFilters = new ArrayList<NameFilter>();
+        PropertyProjection projection = null;
+        boolean custom = false, customName = false;
+
+        List<?>[] lists = { serializer.propertyPreFilters, beanSerializer.propertyPreFilters, //
+                serializer.labelFilters, beanSerializer.labelFilters, //
+                serializer.nameFilters, beanSerializer.nameFilters };
+        for (int i = 0; i < lists.length; ++i) {
+            if (lists[i] == null) {
+                continue;
+            }
+
+            for (Object filter : lists[i]) {
+                filters.add(filter);
+                if (i >= 4) {
+                    if (filter.getClass() == PascalNameFilter.class) {
+                        nameFilters.add((NameFilter) filter);
+                    } else {
+                        customName = true;
+                    }
+                    continue;
+                }
+
+                if (i >= 2) {
+                    continue;
+                }
+
+                if (filter instanceof PropertyProjection && projection == null) {
+                    projection = (PropertyProjection) filter;
+                    continue;
+                }
+
+                if (filter.getClass() != SimplePropertyPreFilter.class) {
+                    custom = true; // 子类或其他实现可能依赖对象的值
+                    continue;
+                }
+
+                SimplePropertyPreFilter preFilter = (SimplePropertyPreFilter) filter;
+                Class<?> clazz = preFilter.getClazz();
+                if (clazz == null || clazz.isAssignableFrom(objectClass)) {
+                    preFilters.add(preFilter);
+                }
+            }
+        }
+
+        FieldSerializer[] getters = beanSerializer.sortedGetters;
+
+        String[] names = null;
+        if (!customName) {
+            names = new String[getters.length];
+            for (int i = 0; i < getters.length; ++i) {
+                String name = getters[i].fieldInfo.name;
+                for (NameFilter nameFilter : nameFilters) {
+                    name = nameFilter.process(null, name, null);
+                }
+                names[i] = name;
+            }
+        }
+
+        if (custom) {
+            return new FieldFilterPlan(beanSerializer, objectClass, filters.toArray(), null, 0, names, null);
+        }
+
+        int maxLevel = 0;
+        for (SimplePropertyPreFilter preFilter : preFilters) {
+            int filterMaxLevel = preFilter.getMaxLevel();
+            if (filterMaxLevel > 0 && (maxLevel == 0 || filterMaxLevel < maxLevel)) {
+                maxLevel = filterMaxLevel;
+            }
+        }
+
+        boolean[] apply = new boolean[getters.length];
+        Arrays.fill(apply, true);
+        for (int i = 0; i < getters.length; ++i) {
+            String name = getters[i].fieldInfo.name;
+            for (SimplePropertyPreFilter preFilter : preFilters) {
+                if (preFilter.getExcludes().contains(name)
+                    || (preFilter.getIncludes().size() != 0 && !preFilter.getIncludes().contains(name))) {
+                    apply[i] = false;
+                    break;
+                }
+            }
+
+            if (apply[i] && !beanSerializer.applyLabel(serializer, getters[i].fieldInfo.label)) {
+                apply[i] = false;
+            }
+        }
+
+        return new FieldFilterPlan(beanSerializer, objectClass, filters.toArray(), apply, maxLevel, names, projection);
+    }
+
+    private static int match(Object[] filters, int offset, List<?> list) {
+        if (offset < 0 || list == null) {
+            return offset;
+        }
+
+        for (int i = 0, size = list.size(); i < size; ++i) {
+            if (offset >= filters.length || filters[offset++] != list.get(i)) {
+                return -1;
+            }
+        }
+        return offset;
+    }
+}
@@ -152,6 +152,27 @@ public class FieldSerializer implements Comparable<FieldSerializer> {
         return propertyValue;
     }
     
+    private static Class<?> boxed(Class<?> primitive) {
+        if (primitive == int.class) {
+            return Integer.class;
+        } else if (primitive == long.class) {
+            return Long.class;
+        } else if (primitive == boolean.class) {
+            return Boolean.class;
+        } else if (primitive == double.class) {
+            return Double.class;
+        } else if (primitive == float.class) {
+            return Float.class;
+        } else if (primitive == short.class) {
+            return Short.class;
+        } else if (primitive == byte.class) {
+            return Byte.class;
+        } else if (primitive == char.class) {
+            return Character.class;
+        }
+        return primitive;
+    }
+
     public int compareTo(FieldSerializer o) {
         return this.fieldInfo.compareTo(o.fieldInfo);
     }
@@ -164,6 +185,10 @@ public class FieldSerializer implements Comparable<FieldSerializer> {
             /** 获取字段的类型 */
             if (propertyValue == null) {
                 runtimeFieldClass = this.fieldInfo.fieldClass;
+                /** BeanToArray时被filter过滤的primitive字段输出null，按包装类型查找序列化类型 */
+                if (runtimeFieldClass.isPrimitive()) {
+                    runtimeFieldClass = boxed(runtimeFieldClass);
+                }
             } else {
                 runtimeFieldClass = propertyValue.getClass();
             }
@@ -44,6 +44,10 @@ public class JSONSerializer extends SerializeFilterable {
 
     protected IdentityHashMap<Object, SerialContext> references  = null;
     protected SerialContext                          context;
+    /** 本次序列化中按bean计算的PropertyPreFilter/LabelFilter计划 */
+    FieldFilterPlan[]                                fieldFilterPlans;
+    /** 有class级别filter的serializer的输出次数，输出中有这样的对象时SerializeCache不缓存 */
+    int                                              filteredWrites;
 
     protected TimeZone                               timeZone    = JSON.defaultTimeZone;
     protected Locale                                 locale      = JSON.defaultLocale;
@@ -115,6 +119,10 @@ public class JSONSerializer extends SerializeFilterable {
         }
 
         this.context = new SerialContext(parent, object, fieldName, features, fieldFeatures);
+        if (out.disableSharedReferenceDetect) {
+            return; // 循环引用在祖先中查找
+        }
+
         if (references == null) {
             references = new IdentityHashMap<Object, SerialContext>();
         }
@@ -139,11 +147,7 @@ public class JSONSerializer extends SerializeFilterable {
     }
 
     public boolean containsReference(Object value) {
-        if (references == null) {
-            return false;
-        }
-
-        SerialContext refContext = references.get(value);
+        SerialContext refContext = getReferenceContext(value);
         if (refContext == null) {
             return false;
         }
@@ -188,11 +192,30 @@ public class JSONSerializer extends SerializeFilterable {
         } else {
             /** 常规java对象引用，直接输出 */
             out.write("{\"$ref\":\"");
-            out.write(references.get(object).toString());
+            out.write(getReferenceContext(object).toString());
             out.write("\"}");
         }
     }
 
+    /**
+     * 返回对象已经输出过的context，DisableSharedReferenceDetect时只在祖先中查找
+     */
+    SerialContext getReferenceContext(Object value) {
+        if (out.disableSharedReferenceDetect) {
+            for (SerialContext context = this.context; context != null; context = context.parent) {
+                if (context.object == value) {
+                    return context;
+                }
+            }
+            return null;
+        }
+
+        if (references == null) {
+            return null;
+        }
+        return references.get(value);
+    }
+
     public boolean checkValue(SerializeFilterable filterable) {
         return (valueFilters != null && valueFilters.size() > 0) //
                || (contextValueFilters != null && contextValueFilters.size() > 0) //
@@ -206,6 +229,14 @@ public class JSONSerializer extends SerializeFilterable {
                || (filterable.nameFilters != null && filterable.nameFilters.size() > 0);
     }
 
+    /**
+     * @since 1.2.45
+     */
+    public boolean hasPropertyFilters(SerializeFilterable filterable) {
+        return (propertyFilters != null && propertyFilters.size() > 0) //
+               || (filterable.propertyFilters != null && filterable.propertyFilters.size() > 0);
+    }
+
     public int getIndentCount() {
         return indentCount;
     }
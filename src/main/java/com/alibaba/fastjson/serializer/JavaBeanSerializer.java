@@ -39,6 +39,9 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
     
     protected SerializeBeanInfo       beanInfo;
 
+    /** JSONType.cacheable时不为null */
+    SerializeCache                    serializeCache;
+
     private transient volatile long[] hashArray;
     private transient volatile short[] hashArrayMapping;
     
@@ -148,6 +151,34 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
             return;
         }
 
+        if (!this.writeDirect) {
+            serializer.filteredWrites++;
+        }
+
+        SerializeCache.Key cacheKey = null;
+        int cacheStart = 0, cacheReferences = 0, cacheFilteredWrites = 0;
+        /** 有class级别filter时输出和上下文有关，不使用缓存 */
+        if (serializeCache != null && !unwrapped && this.writeDirect) {
+            cacheKey = serializeCache.createKey(serializer, object, this.beanInfo.features, features);
+            if (cacheKey != null) {
+                char[] fragment = serializeCache.get(cacheKey);
+                if (fragment != null) {
+                    /** 和正常输出一样登记引用，这个对象再次出现时输出$ref */
+                    if (!this.beanInfo.beanType.isEnum()) {
+                        SerialContext context = serializer.context;
+                        serializer.setContext(context, object, fieldName, this.beanInfo.features, features);
+                        serializer.context = context;
+                    }
+
+                    out.write(fragment, 0, fragment.length);
+                    return;
+                }
+                cacheStart = out.count;
+                cacheReferences = serializer.references == null ? 0 : serializer.references.size();
+                cacheFilteredWrites = serializer.filteredWrites;
+            }
+        }
+
         final FieldSerializer[] getters;
 
         if (out.sortField) {
@@ -207,6 +238,13 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
 
             final boolean skipTransient = out.isEnabled(SerializerFeature.SkipTransientField);
             final boolean ignoreNonFieldGetter = out.isEnabled(SerializerFeature.IgnoreNonFieldGetter);
+            /** 计划按sortedGetters的顺序计算 */
+            final boolean[] filterPlan = getters == sortedGetters && !writeDirect(serializer) //
+                ? getFieldFilterPlan(serializer, object) //
+                : null;
+            final String[] nameFilterPlan = getters == sortedGetters && serializer.hasNameFilters(this) //
+                ? getFieldNamePlan(serializer, object) //
+                : null;
 
             for (int i = 0; i < getters.length; ++i) {
                 FieldSerializer fieldSerializer = getters[i];
@@ -234,8 +272,10 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
 
                 boolean notApply = false;
                 /** 触发字段PropertyPreFilter拦截器 */
-                if ((!this.applyName(serializer, object, fieldInfoName))
-                    || !this.applyLabel(serializer, fieldInfo.label)) {
+                if (filterPlan != null //
+                    ? !filterPlan[i] //
+                    : (!this.applyName(serializer, object, fieldInfoName))
+                      || !this.applyLabel(serializer, fieldInfo.label)) {
                     if (writeAsArray) {
                         notApply = true;
                     } else {
@@ -280,7 +320,11 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
 
                 String key = fieldInfoName;
                 /** 触发属性名字NameFilter拦截器 */
-                key = this.processKey(serializer, object, key, propertyValue);
+                if (nameFilterPlan != null) {
+                    key = nameFilterPlan[i];
+                } else {
+                    key = this.processKey(serializer, object, key, propertyValue);
+                }
 
                 Object originalValue = propertyValue;
                 /** 触发属性值ContextValueFilter拦截器 */
@@ -492,6 +536,13 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
         } finally {
             serializer.context = parent;
         }
+
+        /** 片段内部登记了引用的对象，命中时无法登记，后面再出现时就不会输出$ref，不缓存；内部有对象经过class级别filter输出时也不缓存 */
+        if (cacheKey != null
+            && (serializer.references == null ? 0 : serializer.references.size()) - cacheReferences <= 1
+            && serializer.filteredWrites == cacheFilteredWrites) {
+            serializeCache.put(cacheKey, out, cacheStart);
+        }
     }
 
     protected void writeClassName(JSONSerializer serializer, String typeKey, Object object) {
@@ -519,7 +570,7 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
             return false;
         }
 
-        if (serializer.references != null && serializer.references.containsKey(object)) {
+        if (serializer.getReferenceContext(object) != null) {
             serializer.writeReference(object);
             return true;
         } else {
@@ -777,4 +828,52 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
         
         return true;
     }
+
+    /**
+     * 按sortedGetters的顺序返回每个字段是否通过PropertyPreFilter和LabelFilter，一次序列化中每种bean只计算一次。
+     * 有SimplePropertyPreFilter之外的PropertyPreFilter时返回null，需要逐个字段调用applyName和applyLabel
+     * 
+     * @since 1.2.45
+     */
+    protected boolean[] getFieldFilterPlan(JSONSerializer serializer, Object object) {
+        return getFieldFilterPlan(serializer, object.getClass()).get(serializer);
+    }
+
+    /**
+     * 按sortedGetters的顺序返回NameFilter处理后的属性名，有PascalNameFilter之外的NameFilter时返回null，
+     * 需要逐个字段调用processKey
+     * 
+     * @since 1.2.45
+     */
+    protected String[] getFieldNamePlan(JSONSerializer serializer, Object object) {
+        return getFieldFilterPlan(serializer, object.getClass()).names;
+    }
+
+    private FieldFilterPlan getFieldFilterPlan(JSONSerializer serializer, Class<?> objectClass) {
+        FieldFilterPlan[] plans = serializer.fieldFilterPlans;
+        int index = 0;
+        if (plans != null) {
+            for (; index < plans.length && plans[index] != null; ++index) {
+                FieldFilterPlan plan = plans[index];
+                if (plan.beanSerializer == this && plan.objectClass == objectClass) {
+                    if (plan.matches(serializer, this, objectClass)) {
+                        return plan;
+                    }
+                    break; // filter变化了，替换旧的计划
+                }
+            }
+        }
+
+        FieldFilterPlan plan = FieldFilterPlan.create(serializer, this, objectClass);
+        if (plans == null) {
+            plans = serializer.fieldFilterPlans = new FieldFilterPlan[4];
+        } else if (index == plans.length) {
+            FieldFilterPlan[] newPlans = new FieldFilterPlan[index * 2];
+            System.arraycopy(plans, 0, newPlans, 0, index);
+            plans = serializer.fieldFilterPlans = newPlans;
+        }
+        plans[index] = plan;
+
+        return plan;
+    }
 }
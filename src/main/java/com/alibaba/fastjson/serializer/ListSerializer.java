@@ -15,6 +15,7 @@
  */
 package com.alibaba.fastjson.serializer;
 
+import com.alibaba.fastjson.JSONNumberArray;
 import com.alibaba.fastjson.util.TypeUtils;
 
 import java.io.IOException;
@@ -58,6 +59,25 @@ public final class ListSerializer implements ObjectSerializer {
             return;
         }
 
+        if (object instanceof JSONNumberArray && !out.isEnabled(SerializerFeature.PrettyFormat)) {
+            /** 基本类型数组直接输出，不需要装箱 */
+            Object array = ((JSONNumberArray) object).getPrimitiveArray();
+            if (array instanceof int[]) {
+                out.writeIntArray((int[]) array, list.size());
+                return;
+            }
+
+            if (array instanceof long[]) {
+                out.writeLongArray((long[]) array, list.size(), writeClassName);
+                return;
+            }
+
+            if (array instanceof double[] && serializer.getObjectWriter(Double.class) == DoubleSerializer.instance) {
+                out.writeDoubleArray((double[]) array, list.size());
+                return;
+            }
+        }
+
         /** 创建当前新的序列化context */
         SerialContext context = serializer.context;
         serializer.setContext(context, object, fieldName, 0);
@@ -59,6 +59,10 @@ public class MapSerializer extends SerializeFilterable implements ObjectSerializ
             return;
         }
 
+        if (!this.writeDirect) {
+            serializer.filteredWrites++;
+        }
+
         Map<?, ?> map = (Map<?, ?>) object;
         final int mapSortFieldMask = SerializerFeature.MapSortField.mask;
         if ((out.features & mapSortFieldMask) != 0 || (features & mapSortFieldMask) != 0) {
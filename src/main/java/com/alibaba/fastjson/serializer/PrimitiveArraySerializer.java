@@ -106,7 +106,7 @@ public class PrimitiveArraySerializer implements ObjectSerializer {
                 if (Float.isNaN(item)) {
                     out.writeNull();
                 } else {
-                    out.append(Float.toString(item));
+                    out.writeFloatChars(item);
                 }
             }
             out.write(']');
@@ -126,7 +126,7 @@ public class PrimitiveArraySerializer implements ObjectSerializer {
                 if (Double.isNaN(item)) {
                     out.writeNull();
                 } else {
-                    out.append(Double.toString(item));
+                    out.writeDoubleChars(item);
                 }
             }
             out.write(']');
@@ -0,0 +1,207 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.serializer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.alibaba.fastjson.JSONException;
+
+/**
+ * 按属性路径投影输出的字段，支持嵌套的路径，比如"items.price"。路径只编译一次，
+ * JavaBean在每次序列化中按节点计算一次每个字段是否输出，之后的对象不再逐个字段查找属性名。
+ *
+ * <pre>
+ * static final PropertyProjection projection = PropertyProjection.includes("id", "name", "items.price");
+ *
+ * String text = JSON.toJSONString(orders, projection);
+ * </pre>
+ *
+ * 列表和数组的下标不是路径的一部分，Map的key是。嵌套的路径依赖SerialContext，不能和DisableCircularReferenceDetect一起使用。
+ *
+ * @since 1.2.45
+ */
+public final class PropertyProjection implements PropertyPreFilter {
+
+    private final static int                                     MAX_CACHE_SIZE = 1024;
+    private final static ConcurrentMap<String, PropertyProjection> cache         = new ConcurrentHashMap<String, PropertyProjection>();
+
+    /** 整个子树都不输出 */
+    final static Node                                            NONE           = new Node();
+
+    private final boolean                                        excludes;
+    private final String[]                                       paths;
+    private final boolean                                        nested;
+    final Node                                                   root;
+
+    private PropertyProjection(boolean excludes, String[] paths){
+        this.excludes = excludes;
+        this.paths = paths;
+        this.root = new Node();
+
+        boolean nested = false;
+        for (String path : paths) {
+            Node node = root;
+            int start = 0;
+            for (;;) {
+                int end = path.indexOf('.', start);
+                String name = end == -1 ? path.substring(start) : path.substring(start, end);
+                if (name.length() == 0) {
+                    throw new JSONException("illegal projection path : " + path);
+                }
+
+                Node child = node.children.get(name);
+                if (child == null) {
+                    node.children.put(name, child = new Node());
+                }
+                node = child;
+
+                if (end == -1) {
+                    break;
+                }
+                nested = true;
+                start = end + 1;
+            }
+        }
+        this.nested = nested;
+    }
+
+    /**
+     * 只输出这些路径，路径的最后一个属性输出全部内容
+     */
+    public static PropertyProjection includes(String... paths) {
+        return of(false, paths);
+    }
+
+    /**
+     * 输出这些路径之外的所有属性
+     */
+    public static PropertyProjection excludes(String... paths) {
+        return of(true, paths);
+    }
+
+    private static PropertyProjection of(boolean excludes, String... paths) {
+        String[] sortedPaths = paths.clone();
+        Arrays.sort(sortedPaths);
+
+        StringBuilder buf = new StringBuilder(excludes ? "-" : "+");
+        for (String path : sortedPaths) {
+            if (path == null) {
+                throw new JSONException("illegal projection path : null");
+            }
+            buf.append(path).append(',');
+        }
+        String key = buf.toString();
+
+        PropertyProjection projection = cache.get(key);
+        if (projection == null) {
+            projection = new PropertyProjection(excludes, sortedPaths);
+            if (cache.size() < MAX_CACHE_SIZE) {
+                PropertyProjection old = cache.putIfAbsent(key, projection);
+                if (old != null) {
+                    projection = old;
+                }
+            }
+        }
+        return projection;
+    }
+
+    public boolean isExcludes() {
+        return excludes;
+    }
+
+    public String[] getPaths() {
+        return paths.clone();
+    }
+
+    public boolean apply(JSONSerializer serializer, Object object, String name) {
+        return apply(resolve(serializer, serializer.context), name);
+    }
+
+    /**
+     * 返回对象所在位置的投影节点，null表示不限制
+     */
+    Node resolve(JSONSerializer serializer, SerialContext context) {
+        if (context == null) {
+            if (nested && serializer.out.disableCircularReferenceDetect) {
+                throw new JSONException("nested projection paths not support DisableCircularReferenceDetect");
+            }
+            return root;
+        }
+
+        return child(resolve(serializer, context.parent), context.fieldName);
+    }
+
+    Node child(Node node, Object fieldName) {
+        if (node == null || node == NONE || !(fieldName instanceof String)) {
+            return node; // 列表下标
+        }
+
+        Node child = node.children.get(fieldName);
+        if (excludes) {
+            if (child == null) {
+                return null;
+            }
+            return child.children.isEmpty() ? NONE : child;
+        }
+
+        if (child == null) {
+            return NONE;
+        }
+        return child.children.isEmpty() ? null : child;
+    }
+
+    boolean apply(Node node, String name) {
+        if (node == null) {
+            return true;
+        }
+
+        if (node == NONE) {
+            return false;
+        }
+
+        Node child = node.children.get(name);
+        if (excludes) {
+            return child == null || !child.children.isEmpty();
+        }
+        return child != null;
+    }
+
+    /**
+     * 按sortedGetters的顺序，节点上每个字段是否输出。投影是全局缓存的，结果由FieldFilterPlan保存，不能缓存在节点上，
+     * 否则会一直引用遇到过的JavaBeanSerializer
+     */
+    boolean[] getFieldMask(Node node, JavaBeanSerializer beanSerializer) {
+        FieldSerializer[] getters = beanSerializer.sortedGetters;
+        boolean[] mask = new boolean[getters.length];
+        for (int i = 0; i < getters.length; ++i) {
+            mask[i] = apply(node, getters[i].fieldInfo.name);
+        }
+        return mask;
+    }
+
+    public String toString() {
+        return (excludes ? "excludes" : "includes") + Arrays.toString(paths);
+    }
+
+    static final class Node {
+
+        final Map<String, Node> children = new HashMap<String, Node>();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.serializer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * 不可变对象的序列化结果缓存，按对象identity和影响输出的SerializerFeature缓存JSON片段，
+ * 再次序列化同一个对象时直接拷贝到SerializeWriter中。总大小按字符数限制，超过时淘汰最久没有使用的片段。
+ * <p>
+ * 通过JSONType#cacheable()或者SerializeConfig#configCacheable开启。对象序列化之后不能再修改，修改之后需要调用remove。
+ * 有SerializeFilter(包括SerializeConfig#addFilter按类型添加的)、PrettyFormat、WriteClassName或者指定了dateFormat时不使用缓存，
+ * 结果中有$ref时不缓存。
+ * 命中时只登记对象本身的引用，所以默认的引用检测下，内部有其他对象(bean、Map、Collection等)的结果不缓存，
+ * DisableCircularReferenceDetect或DisableSharedReferenceDetect时不受这个限制。
+ *
+ * @see SerializeConfig#getSerializeCache()
+ * @since 1.2.45
+ */
+public class SerializeCache {
+
+    public final static int            DEFAULT_MAX_SIZE = 1024 * 1024;
+
+    private final static int           NOT_CACHEABLE    = SerializerFeature.PrettyFormat.mask
+                                                          | SerializerFeature.WriteClassName.mask;
+
+    private final LinkedHashMap<Key, char[]> fragments  = new LinkedHashMap<Key, char[]>(16, 0.75f, true);
+
+    private int                        maxSize;
+    private int                        size;
+
+    public SerializeCache(int maxSize){
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return 缓存的最大字符数
+     */
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @param maxSize 缓存的最大字符数，0表示不缓存
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        evict();
+    }
+
+    /**
+     * @return 缓存的字符数
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        fragments.clear();
+        size = 0;
+    }
+
+    /**
+     * 对象被修改之后删除它的缓存
+     */
+    public synchronized void remove(Object object) {
+        for (Iterator<Map.Entry<Key, char[]>> it = fragments.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Key, char[]> entry = it.next();
+            if (entry.getKey().object == object) {
+                size -= entry.getValue().length;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * @return 当前的输出配置不能使用缓存时返回null
+     */
+    Key createKey(JSONSerializer serializer, Object object, int beanFeatures, int features) {
+        SerializeWriter out = serializer.out;
+        if (((out.features | beanFeatures | features) & NOT_CACHEABLE) != 0 //
+            || !serializer.writeDirect //
+            || serializer.getDateFormat() != null) {
+            return null;
+        }
+
+        return new Key(object, out.features, features, serializer.timeZone, serializer.locale);
+    }
+
+    synchronized char[] get(Key key) {
+        return fragments.get(key);
+    }
+
+    /**
+     * 缓存out中从start开始的输出
+     */
+    void put(Key key, SerializeWriter out, int start) {
+        int len = out.count - start;
+        if (out.hasWriter() || len <= 0 || len > maxSize) {
+            return;
+        }
+
+        char[] buf = out.buf;
+        for (int i = start, end = out.count - 3; i < end; ++i) {
+            if (buf[i] == '$' && buf[i + 1] == 'r' && buf[i + 2] == 'e' && buf[i + 3] == 'f') {
+                return; // 引用的路径和输出的位置有关
+            }
+        }
+
+        char[] fragment = new char[len];
+        System.arraycopy(buf, start, fragment, 0, len);
+
+        synchronized (this) {
+            char[] old = fragments.put(key, fragment);
+            size += old == null ? len : len - old.length;
+            evict();
+        }
+    }
+
+    private void evict() {
+        for (Iterator<char[]> it = fragments.values().iterator(); size > maxSize && it.hasNext();) {
+            size -= it.next().length;
+            it.remove();
+        }
+    }
+
+    static final class Key {
+
+        final Object   object;
+        final int      features;
+        final int      fieldFeatures;
+        final TimeZone timeZone;
+        final Locale   locale;
+
+        Key(Object object, int features, int fieldFeatures, TimeZone timeZone, Locale locale){
+            this.object = object;
+            this.features = features;
+            this.fieldFeatures = fieldFeatures;
+            this.timeZone = timeZone;
+            this.locale = locale;
+        }
+
+        public int hashCode() {
+            return System.identityHashCode(object) * 31 + features;
+        }
+
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return object == other.object //
+                   && features == other.features //
+                   && fieldFeatures == other.fieldFeatures //
+                   && timeZone == other.timeZone //
+                   && locale == other.locale;
+        }
+    }
+}
@@ -39,6 +39,8 @@ import java.nio.charset.Charset;
 import java.sql.Clob;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.*;
 import java.util.regex.Pattern;
 
@@ -57,15 +59,28 @@ public class SerializeConfig {
     private static boolean                                springfoxError  = false;
     private static boolean                                guavaError      = false;
     private static boolean                                jsonnullError   = false;
+    private static boolean                                lambdaError     = false;
 
     private boolean                                       asm             = !ASMUtils.IS_ANDROID;
+    private boolean                                       lambdaAccessor  = false;
     private ASMSerializerFactory                          asmFactory;
     protected String                                      typeKey         = JSON.DEFAULT_TYPE_KEY;
     public PropertyNamingStrategy                         propertyNamingStrategy;
 
     private final IdentityHashMap<Type, ObjectSerializer> serializers;
+    /** 正在创建的JavaBeanSerializer，避免多个线程为同一个类型重复生成asm类 */
+    private final PendingCreations<Type>                  pendingSerializers = new PendingCreations<Type>();
+
+    /** class name -> reason, see getReflectiveClasses */
+    private final ConcurrentMap<String, String>           reflectiveClasses = new ConcurrentHashMap<String, String>();
 
     private final boolean                                 fieldBased;
+
+    private final boolean                                 weakCache;
+
+    private BufferPool                                    bufferPool      = StripedBufferPool.getGlobalInstance();
+
+    private final SerializeCache                          serializeCache  = new SerializeCache(SerializeCache.DEFAULT_MAX_SIZE);
     
 	public String getTypeKey() {
 		return typeKey;
@@ -76,7 +91,7 @@ public class SerializeConfig {
 	}
 	
     private final JavaBeanSerializer createASMSerializer(SerializeBeanInfo beanInfo) throws Exception {
-        JavaBeanSerializer serializer = asmFactory.createJavaBeanSerializer(beanInfo);
+        JavaBeanSerializer serializer = asmFactory.createJavaBeanSerializer(beanInfo, this == globalInstance);
         
         for (int i = 0; i < serializer.sortedGetters.length; ++i) {
             FieldSerializer fieldDeser = serializer.sortedGetters[i];
@@ -107,6 +122,8 @@ public class SerializeConfig {
 	    JSONType jsonType = beanInfo.jsonType;
 
         boolean asm = this.asm && !fieldBased;
+        /** 不使用asm的原因，见getReflectiveClasses */
+        String reason = !this.asm ? "asm disabled" : fieldBased ? "fieldBased" : null;
 	    
 	    if (jsonType != null) {
 	        Class<?> serializerClass = jsonType.serializer();
@@ -125,8 +142,15 @@ public class SerializeConfig {
 	        /** 注解显示指定不使用asm */
 	        if (jsonType.asm() == false) {
 	            asm = false;
+	            reason = "JSONType.asm false";
 	        }
 
+            /** 缓存序列化结果由JavaBeanSerializer处理 */
+            if (jsonType.cacheable()) {
+                asm = false;
+                reason = "JSONType.cacheable";
+            }
+
             /** 注解显示开启WriteNonStringValueAsString、WriteEnumUsingToString
              * 和NotWriteDefaultValue不使用asm */
             for (SerializerFeature feature : jsonType.serialzeFeatures()) {
@@ -134,30 +158,39 @@ public class SerializeConfig {
                         || SerializerFeature.WriteEnumUsingToString == feature //
                         || SerializerFeature.NotWriteDefaultValue == feature) {
                     asm = false;
+                    reason = "JSONType.serialzeFeatures " + feature;
                     break;
                 }
             }
         }
 
 	    Class<?> clazz = beanInfo.beanType;
-	    /** 非public类型，直接使用JavaBeanSerializer序列化 */
-		if (!Modifier.isPublic(beanInfo.beanType.getModifiers())) {
-			return new JavaBeanSerializer(beanInfo);
+	    /** 非public类型或者asmFactory看不到的类型，生成的类定义到bean所在的package中，不能定义时使用JavaBeanSerializer序列化 */
+		boolean packageAccess = asm && asmFactory.classLoader.isPackageAccessRequired(clazz);
+		if (packageAccess) {
+		    String error = asmFactory.classLoader.checkPackageAccess(clazz);
+		    if (error == null && this != globalInstance && !ASMClassLoader.isHiddenClassSupported()) {
+		        error = "hidden classes unsupported, only the global config defines classes in the package of the bean";
+		    }
+		    if (error != null) {
+		        asm = false;
+		        reason = error;
+		    }
 		}
 
-
-
-		if (asm && asmFactory.classLoader.isExternalClass(clazz)
-				|| clazz == Serializable.class || clazz == Object.class) {
+		if (clazz == Serializable.class || clazz == Object.class) {
 			asm = false;
+			reason = "unsupported class";
 		}
 
 		if (asm && !ASMUtils.checkName(clazz.getSimpleName())) {
 		    asm = false;
+		    reason = "class name " + clazz.getSimpleName();
 		}
 
 		if (asm && beanInfo.beanType.isInterface()) {
 		    asm = false;
+		    reason = "interface";
         }
 		
 		if (asm) {
@@ -165,12 +198,14 @@ public class SerializeConfig {
                 Field field = fieldInfo.field;
                 if (field != null && !field.getType().equals(fieldInfo.fieldClass)) {
                     asm = false;
+                    reason = "field type mismatch, " + fieldInfo.name;
                     break;
                 }
 
                 Method method = fieldInfo.method;
                 if (method != null && !method.getReturnType().equals(fieldInfo.fieldClass)) {
                     asm = false;
+                    reason = "getter type mismatch, " + fieldInfo.name;
                     break;
                 }
 
@@ -186,6 +221,7 @@ public class SerializeConfig {
 
                     } else {
                         asm = false;
+                        reason = "JSONField.format, " + fieldInfo.name;
                         break;
                     }
                 }
@@ -196,6 +232,7 @@ public class SerializeConfig {
                         || annotation.unwrapped()
                         ) {
     				asm = false;
+    				reason = "JSONField, " + fieldInfo.name;
     				break;
     			}
 
@@ -205,12 +242,14 @@ public class SerializeConfig {
                             || SerializerFeature.NotWriteDefaultValue == feature
                             || SerializerFeature.WriteClassName == feature) {
                         asm = false;
+                        reason = "JSONField.serialzeFeatures " + feature + ", " + fieldInfo.name;
                         break;
                     }
                 }
 
                 if (TypeUtils.isAnnotationPresentOneToMany(method) || TypeUtils.isAnnotationPresentManyToMany(method)) {
     			    asm = true;
+    			    reason = null;
     			    break;
                 }
     		}
@@ -221,28 +260,82 @@ public class SerializeConfig {
 			    /** 使用asm字节码库序列化，后面单独列一个章节分析asm源码 */
                 ObjectSerializer asmSerializer = createASMSerializer(beanInfo);
                 if (asmSerializer != null) {
+                    if (asmSerializer.getClass() == JavaBeanSerializer.class) {
+                        reflectiveClasses.put(clazz.getName(), "unsupported by ASMSerializerFactory");
+                    }
                     return asmSerializer;
                 }
             } catch (ClassNotFoundException ex) {
-			    // skip
+			    reason = ex.toString();
 			} catch (ClassFormatError e) {
-			    // skip
+			    reason = e.toString();
 			} catch (ClassCastException e) {
-				// skip
+			    reason = e.toString();
 			} catch (Throwable e) {
-				throw new JSONException("create asm serializer error, class "
-						+ clazz, e);
+			    if (!packageAccess) {
+			        throw new JSONException("create asm serializer error, class "
+			                + clazz, e);
+			    }
+			    reason = e.toString(); // 不能定义到bean的package中，例如sealed package
 			}
 		}
 
 		/** 默认使用JavaBeanSerializer 序列化类 */
-		return new JavaBeanSerializer(beanInfo);
+		return createReflectiveSerializer(beanInfo, reason);
 	}
 
+    /**
+     * 不能使用asm时的通用序列化，开启lambdaAccessor时getter绑定到LambdaMetafactory生成的类上
+     */
+    private JavaBeanSerializer createReflectiveSerializer(SerializeBeanInfo beanInfo, String reason) {
+        if (reason != null) {
+            reflectiveClasses.put(beanInfo.beanType.getName(), reason);
+        }
+
+        if (lambdaAccessor && !lambdaError) {
+            try {
+                LambdaAccessors.bind(beanInfo.fields);
+                LambdaAccessors.bind(beanInfo.sortedFields);
+            } catch (Throwable error) {
+                lambdaError = true; // jdk without LambdaMetafactory
+            }
+        }
+        JavaBeanSerializer serializer = new JavaBeanSerializer(beanInfo);
+        if (beanInfo.jsonType != null && beanInfo.jsonType.cacheable()) {
+            serializer.serializeCache = serializeCache;
+        }
+        return serializer;
+    }
+
 	public boolean isAsmEnable() {
 		return asm;
 	}
 
+    /**
+     * @return bean classes serialized by the reflective JavaBeanSerializer instead of an asm generated serializer, class
+     * name to the reason, e.g. a package which can not be defined into or an unsupported annotation
+     * @since 1.2.45
+     */
+    public Map<String, String> getReflectiveClasses() {
+        return Collections.unmodifiableMap(reflectiveClasses);
+    }
+
+    /**
+     * @since 1.2.45
+     */
+    public boolean isLambdaAccessor() {
+        return lambdaAccessor;
+    }
+
+    /**
+     * 不能使用asm的类型(非public、接口、fieldBased等)通过LambdaMetafactory绑定getter，代替Method.invoke，需要jdk 8
+     * 
+     * @since 1.2.45
+     */
+    public void setLambdaAccessor(boolean lambdaAccessor) {
+        this.lambdaAccessor = lambdaAccessor;
+    }
+
 	public void setAsmEnable(boolean asmEnable) {
 	    if (ASMUtils.IS_ANDROID) {
 	        return;
@@ -250,6 +343,67 @@ public class SerializeConfig {
 		this.asm = asmEnable;
 	}
 
+    /**
+     * @since 1.2.45
+     */
+    public BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * @since 1.2.45
+     */
+    public void setBufferPool(BufferPool bufferPool) {
+        if (bufferPool == null) {
+            throw new IllegalArgumentException("bufferPool is null");
+        }
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * @return 不可变对象序列化结果的缓存，见JSONType#cacheable()和configCacheable
+     * @since 1.2.45
+     */
+    public SerializeCache getSerializeCache() {
+        return serializeCache;
+    }
+
+    /**
+     * 和JSONType#cacheable()一样，缓存这些类型的对象的序列化结果，对象序列化之后不能再修改
+     * @since 1.2.45
+     */
+    public void configCacheable(Class<?>... classes) {
+        for (Class<?> clazz : classes) {
+            SerializeBeanInfo beanInfo = TypeUtils.buildBeanInfo(clazz, null, propertyNamingStrategy, fieldBased);
+            JavaBeanSerializer serializer = createReflectiveSerializer(beanInfo, "configCacheable");
+            serializer.serializeCache = serializeCache;
+            put(clazz, serializer);
+        }
+    }
+
+    /**
+     * @since 1.2.45
+     */
+    public boolean isWeakCache() {
+        return weakCache;
+    }
+
+    /**
+     * @return number of cached serializers
+     * @since 1.2.45
+     */
+    public int getSerializerCount() {
+        return serializers.size();
+    }
+
+    /**
+     * @return number of live classes generated by asm for this config
+     * @since 1.2.45
+     */
+    public int getASMClassCount() {
+        return asmFactory == null ? 0 : asmFactory.classLoader.getClassCount();
+    }
+
 	public static SerializeConfig getGlobalInstance() {
 		return globalInstance;
 	}
@@ -267,12 +421,24 @@ public class SerializeConfig {
     }
 
 	public SerializeConfig(int tableSize, boolean fieldBase) {
+	    this(tableSize, fieldBase, IOUtils.isWeakCache());
+	}
+
+    /**
+     * @param weakCache if true the cached serializers and the classes generated for them do not keep the classes of
+     * other classloaders alive, see {@link IOUtils#FASTJSON_WEAK_CACHE}
+     * @since 1.2.45
+     */
+	public SerializeConfig(int tableSize, boolean fieldBase, boolean weakCache) {
 	    this.fieldBased = fieldBase;
-	    serializers = new IdentityHashMap<Type, ObjectSerializer>(tableSize);
+	    this.weakCache = weakCache;
+	    serializers = new IdentityHashMap<Type, ObjectSerializer>(tableSize, weakCache);
 		
 		try {
 		    if (asm) {
-		        asmFactory = new ASMSerializerFactory();
+		        asmFactory = weakCache //
+		            ? new ASMSerializerFactory(new ASMClassLoader(JSON.class.getClassLoader(), true)) //
+		            : new ASMSerializerFactory();
 		    }
 		} catch (Throwable eror) {
 		    asm = false;
@@ -753,9 +919,27 @@ public class SerializeConfig {
                 }
 
                 if (create) {
-                    /** 没有精确匹配，使用通用JavaBeanSerializer 序列化(假设不启用asm) */
-                    writer = createJavaBeanSerializer(clazz);
-                    put(clazz, writer);
+                    /** 没有精确匹配，使用通用JavaBeanSerializer 序列化(假设不启用asm)，并发时只由一个线程生成 */
+                    if (pendingSerializers.begin(clazz)) {
+                        try {
+                            writer = createJavaBeanSerializer(clazz);
+                            ObjectSerializer exists = serializers.putIfAbsent(clazz, writer);
+                            if (exists != null) {
+                                writer = exists;
+                            }
+                        } finally {
+                            pendingSerializers.end(clazz);
+                        }
+                    } else {
+                        writer = serializers.get(clazz);
+                        if (writer == null) {
+                            writer = createJavaBeanSerializer(clazz);
+                            ObjectSerializer exists = serializers.putIfAbsent(clazz, writer);
+                            if (exists != null) {
+                                writer = exists; // 并发创建时以先加入cache的实例为准
+                            }
+                        }
+                    }
                 }
             }
 
@@ -799,6 +983,7 @@ public class SerializeConfig {
 
     public void clearSerializers() {
         this.serializers.clear();
+        this.serializeCache.clear();
         this.initSerializers();
     }
 }
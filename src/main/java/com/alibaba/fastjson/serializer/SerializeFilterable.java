@@ -256,6 +256,9 @@ public abstract class SerializeFilterable {
      * @return
      */
     protected boolean writeDirect(JSONSerializer jsonBeanDeser) {
+        if (!this.writeDirect) {
+            jsonBeanDeser.filteredWrites++;
+        }
         return jsonBeanDeser.out.writeDirect //
                && this.writeDirect //
                && jsonBeanDeser.writeDirect;
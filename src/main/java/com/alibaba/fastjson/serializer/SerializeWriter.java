@@ -17,7 +17,9 @@ package com.alibaba.fastjson.serializer;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.BufferPool;
 import com.alibaba.fastjson.util.IOUtils;
+import com.alibaba.fastjson.util.Schubfach;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -34,10 +36,8 @@ import static com.alibaba.fastjson.util.IOUtils.replaceChars;
  */
 public final class SerializeWriter extends Writer {
 
-    /** 字符类型buffer */
-    private final static ThreadLocal<char[]> bufLocal      = new ThreadLocal<char[]>();
-    /** 字节类型buffer */
-    private final static ThreadLocal<byte[]> bytesBufLocal = new ThreadLocal<byte[]>();
+    /** 字符和字节类型buffer的来源，close时归还 */
+    private final BufferPool                 bufferPool;
 
     /** 存储序列化结果buffer */
     protected char                           buf[];
@@ -59,6 +59,8 @@ public final class SerializeWriter extends Writer {
     protected boolean                        sortField;
     /** 禁用字段循环引用探测 */
     protected boolean                        disableCircularReferenceDetect;
+    /** 只检测循环引用，不检测共享引用 */
+    protected boolean                        disableSharedReferenceDetect;
     protected boolean                        beanToArray;
     /** 按照toString方式获取对象字面值 */
     protected boolean                        writeNonStringValueAsString;
@@ -100,15 +102,26 @@ public final class SerializeWriter extends Writer {
      * @param features
      */
     public SerializeWriter(Writer writer, int defaultFeatures, SerializerFeature... features){
-        this.writer = writer;
+        this(writer, SerializeConfig.globalInstance.getBufferPool(), defaultFeatures, features);
+    }
 
-        buf = bufLocal.get();
+    /**
+     * @since 1.2.45
+     */
+    public SerializeWriter(Writer writer, BufferPool bufferPool, int defaultFeatures, SerializerFeature... features){
+        this(writer, bufferPool, 2048, defaultFeatures, features);
+    }
 
-        if (buf != null) {
-            bufLocal.set(null);
-        } else {
-            buf = new char[2048];
-        }
+    /**
+     * @param bufferSize 缓冲区的最小长度，有writer时缓冲区满了才写到writer中
+     * @since 1.2.45
+     */
+    public SerializeWriter(Writer writer, BufferPool bufferPool, int bufferSize, int defaultFeatures,
+                           SerializerFeature... features){
+        this.writer = writer;
+        this.bufferPool = bufferPool;
+
+        buf = bufferPool.allocateChars(bufferSize);
 
         int featuresValue = defaultFeatures;
         for (SerializerFeature feature : features) {
@@ -135,12 +148,20 @@ public final class SerializeWriter extends Writer {
         return this.buf.length;
     }
 
+    /**
+     * 有writer时缓冲区满了会写出，buf中不一定是完整的输出
+     */
+    boolean hasWriter() {
+        return writer != null;
+    }
+
     public SerializeWriter(int initialSize){
         this(null, initialSize);
     }
 
     public SerializeWriter(Writer writer, int initialSize){
         this.writer = writer;
+        this.bufferPool = SerializeConfig.globalInstance.getBufferPool();
 
         if (initialSize <= 0) {
             throw new IllegalArgumentException("Negative initial size: " + initialSize);
@@ -182,6 +203,7 @@ public final class SerializeWriter extends Writer {
         useSingleQuotes = (this.features & SerializerFeature.UseSingleQuotes.mask) != 0;
         sortField = (this.features & SerializerFeature.SortField.mask) != 0;
         disableCircularReferenceDetect = (this.features & SerializerFeature.DisableCircularReferenceDetect.mask) != 0;
+        disableSharedReferenceDetect = (this.features & SerializerFeature.DisableSharedReferenceDetect.mask) != 0;
         beanToArray = (this.features & SerializerFeature.BeanToArray.mask) != 0;
         writeNonStringValueAsString = (this.features & SerializerFeature.WriteNonStringValueAsString.mask) != 0;
         notWriteDefaultValue = (this.features & SerializerFeature.NotWriteDefaultValue.mask) != 0;
@@ -455,41 +477,67 @@ public final class SerializeWriter extends Writer {
     }
 
     private int encodeToUTF8(OutputStream out) throws IOException {
+        byte[] bytes = bufferPool.allocateBytes(1024 * 8);
 
-        int bytesLength = (int) (count * (double) 3);
-        byte[] bytes = bytesBufLocal.get();
-
-        if (bytes == null) {
-            bytes = new byte[1024 * 8];
-            bytesBufLocal.set(bytes);
-        }
+        /** 分段编码输出，不再分配count * 3大小的临时缓冲区 */
+        final int chunkSize = bytes.length / 3;
+        int position = 0;
+        try {
+            for (int offset = 0; offset < count;) {
+                int len = count - offset;
+                if (len > chunkSize) {
+                    len = chunkSize;
+                    if (Character.isHighSurrogate(buf[offset + len - 1])) {
+                        len--; // keep surrogate pairs in one chunk
+                    }
+                }
 
-        if (bytes.length < bytesLength) {
-            bytes = new byte[bytesLength];
+                int bytesLen = IOUtils.encodeUTF8(buf, offset, len, bytes);
+                out.write(bytes, 0, bytesLen);
+                position += bytesLen;
+                offset += len;
+            }
+        } finally {
+            bufferPool.releaseBytes(bytes);
         }
-
-        int position = IOUtils.encodeUTF8(buf, 0, count, bytes);
-        out.write(bytes, 0, position);
         return position;
     }
-    
-    private byte[] encodeToUTF8Bytes() {
-        int bytesLength = (int) (count * (double) 3);
-        byte[] bytes = bytesBufLocal.get();
 
-        if (bytes == null) {
-            bytes = new byte[1024 * 8];
-            bytesBufLocal.set(bytes);
-        }
+    private byte[] encodeToUTF8Bytes() {
+        /** 先计算utf-8编码后的长度，直接编码到结果数组中，省去临时缓冲区和一次拷贝 */
+        byte[] bytes = new byte[encodeUTF8Length(buf, count)];
+        IOUtils.encodeUTF8(buf, 0, count, bytes);
+        return bytes;
+    }
 
-        if (bytes.length < bytesLength) {
-            bytes = new byte[bytesLength];
+    /**
+     * @see IOUtils#encodeUTF8(char[], int, int, byte[])
+     */
+    private static int encodeUTF8Length(char[] chars, int len) {
+        int i = 0;
+        while (i < len && chars[i] < 0x80) {
+            i++;
+        }
+
+        int bytesLen = i;
+        while (i < len) {
+            char c = chars[i++];
+            if (c < 0x80) {
+                bytesLen++;
+            } else if (c < 0x800) {
+                bytesLen += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                if (i < len && Character.isLowSurrogate(chars[i])) {
+                    bytesLen += 4;
+                    i++;
+                } else {
+                    bytesLen++; // unpaired, encodeUTF8 writes '?' or fails
+                }
+            } else {
+                bytesLen += 3;
+            }
         }
-
-        int position = IOUtils.encodeUTF8(buf, 0, count, bytes);
-        byte[] copy = new byte[position];
-        System.arraycopy(bytes, 0, copy, 0, position);
-        return copy;
+        return bytesLen;
     }
     
     public int size() {
@@ -508,9 +556,7 @@ public final class SerializeWriter extends Writer {
         if (writer != null && count > 0) {
             flush();
         }
-        if (buf.length <= 1024 * 128) {
-            bufLocal.set(buf);
-        }
+        bufferPool.releaseChars(buf);
 
         this.buf = null;
     }
@@ -737,13 +783,12 @@ public final class SerializeWriter extends Writer {
                 || Float.isInfinite(value)) {
             writeNull();
         } else {
-            /** 将高精度float转换为字符串 */
-            String floatText= Float.toString(value);
+            /** 直接把float转换成字符写到buffer中 */
+            writeFloatChars(value);
             /** 启动WriteNullNumberAsZero特性，会将结尾.0去除 */
-            if (isEnabled(SerializerFeature.WriteNullNumberAsZero) && floatText.endsWith(".0")) {
-                floatText = floatText.substring(0, floatText.length() - 2);
+            if (isEnabled(SerializerFeature.WriteNullNumberAsZero)) {
+                trimZeroFraction();
             }
-            write(floatText);
 
             /** 如果开启序列化WriteClassName特性，输出float类型 */
             if (checkWriteClassName && isEnabled(SerializerFeature.WriteClassName)) {
@@ -758,16 +803,13 @@ public final class SerializeWriter extends Writer {
                 || Double.isInfinite(doubleValue)) {
             writeNull();
         } else {
-            /** 将高精度double转换为字符串 */
-            String doubleText = Double.toString(doubleValue);
+            /** 直接把double转换成字符写到buffer中 */
+            writeDoubleChars(doubleValue);
             /** 启动WriteNullNumberAsZero特性，会将结尾.0去除 */
-            if (isEnabled(SerializerFeature.WriteNullNumberAsZero) && doubleText.endsWith(".0")) {
-                doubleText = doubleText.substring(0, doubleText.length() - 2);
+            if (isEnabled(SerializerFeature.WriteNullNumberAsZero)) {
+                trimZeroFraction();
             }
 
-            /** 调用字符串输出方法 */
-            write(doubleText);
-
             /** 如果开启序列化WriteClassName特性，输出Double类型 */
             if (checkWriteClassName && isEnabled(SerializerFeature.WriteClassName)) {
                 write('D');
@@ -775,6 +817,95 @@ public final class SerializeWriter extends Writer {
         }
     }
 
+    /**
+     * 输出最短的能够精确还原的数字，格式和Double.toString一样，不创建String。
+     * JDK 19之前的Double.toString不一定是最短的形式（比如1.0E23输出9.999999999999999E22），这时两者的输出不同
+     */
+    void writeDoubleChars(double value) {
+        ensureNumberCapacity(Schubfach.DOUBLE_MAX_CHARS);
+        count = Schubfach.toChars(value, buf, count);
+    }
+
+    /**
+     * 输出最短的能够精确还原的数字，格式和Float.toString一样，不创建String。
+     * JDK 19之前的Float.toString不一定是最短的形式，这时两者的输出不同
+     */
+    void writeFloatChars(float value) {
+        ensureNumberCapacity(Schubfach.FLOAT_MAX_CHARS);
+        count = Schubfach.toChars(value, buf, count);
+    }
+
+    private void ensureNumberCapacity(int size) {
+        int newcount = count + size;
+        if (newcount > buf.length) {
+            if (writer != null) {
+                flush();
+                newcount = size;
+            }
+
+            if (newcount > buf.length) {
+                expandCapacity(newcount);
+            }
+        }
+    }
+
+    /**
+     * 去掉刚写入的数字结尾的.0
+     */
+    private void trimZeroFraction() {
+        if (count >= 2 && buf[count - 1] == '0' && buf[count - 2] == '.') {
+            count -= 2;
+        }
+    }
+
+    /**
+     * 输出array的前size个元素
+     * @since 1.2.45
+     */
+    public void writeIntArray(int[] array, int size) {
+        write('[');
+        for (int i = 0; i < size; ++i) {
+            if (i != 0) {
+                write(',');
+            }
+            writeInt(array[i]);
+        }
+        write(']');
+    }
+
+    /**
+     * 输出array的前size个元素，writeClassName时每个元素后面追加类型L
+     * @since 1.2.45
+     */
+    public void writeLongArray(long[] array, int size, boolean writeClassName) {
+        write('[');
+        for (int i = 0; i < size; ++i) {
+            if (i != 0) {
+                write(',');
+            }
+            writeLong(array[i]);
+            if (writeClassName) {
+                write('L');
+            }
+        }
+        write(']');
+    }
+
+    /**
+     * 输出array的前size个元素，和writeDouble(value, true)一样NaN和无穷数输出null
+     * @since 1.2.45
+     */
+    public void writeDoubleArray(double[] array, int size) {
+        write('[');
+        for (int i = 0; i < size; ++i) {
+            if (i != 0) {
+                write(',');
+            }
+            writeDouble(array[i], true);
+        }
+        write(']');
+    }
+
     public void writeEnum(Enum<?> value) {
         if (value == null) {
             /** 如果枚举value为空，调用writeNull输出 */
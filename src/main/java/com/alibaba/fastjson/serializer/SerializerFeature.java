@@ -152,7 +152,15 @@ public enum SerializerFeature {
     /**
      * @since 1.2.27
      */
-    MapSortField;
+    MapSortField,
+
+    /**
+     * 只检测循环引用，不检测共享引用。同一个对象在不同位置出现时完整输出，只有出现在自己的祖先中时才输出$ref，
+     * 不需要记录每个输出过的对象，适合树形的对象
+     * 
+     * @since 1.2.45
+     */
+    DisableSharedReferenceDetect;
 
     SerializerFeature(){
         mask = (1 << ordinal());
@@ -68,6 +68,11 @@ public class FastJsonConfig {
 
     protected boolean writeContentLength = true;
 
+    /**
+     * 大于0时不在内存中缓存整个结果，而是用这个大小(字符数)的缓冲区分块直接写出
+     */
+    private int streamingBufferSize;
+
     /**
      * init param.
      */
@@ -214,4 +219,22 @@ public class FastJsonConfig {
     public void setWriteContentLength(boolean writeContentLength) {
         this.writeContentLength = writeContentLength;
     }
+
+    /**
+     * @return the streamingBufferSize
+     * @since 1.2.45
+     */
+    public int getStreamingBufferSize() {
+        return streamingBufferSize;
+    }
+
+    /**
+     * 序列化结果很大时可以避免在内存中缓存整个body，只有结果不超过一个缓冲区时才会写Content-Length
+     *
+     * @param streamingBufferSize 缓冲区的字符数，0表示不分块写出
+     * @since 1.2.45
+     */
+    public void setStreamingBufferSize(int streamingBufferSize) {
+        this.streamingBufferSize = streamingBufferSize;
+    }
 }
@@ -3,7 +3,10 @@ package com.alibaba.fastjson.support.spring;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.JSONPObject;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
 import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializeWriter;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import com.alibaba.fastjson.support.config.FastJsonConfig;
 import com.alibaba.fastjson.util.IOUtils;
@@ -21,6 +24,9 @@ import org.springframework.util.StringUtils;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
@@ -243,6 +249,16 @@ public class FastJsonHttpMessageConverter extends AbstractHttpMessageConverter<O
                 isJsonp = true;
             }
 
+            int streamingBufferSize = fastJsonConfig.getStreamingBufferSize();
+            if (streamingBufferSize > 0) {
+                if (isJsonp) {
+                    headers.setContentType(APPLICATION_JAVASCRIPT);
+                }
+
+                writeStreaming(value, allFilters.toArray(new SerializeFilter[allFilters.size()]), outputMessage,
+                               streamingBufferSize);
+                return;
+            }
 
             int len = JSON.writeJSONString(outnew, //
                     fastJsonConfig.getCharset(), //
@@ -271,6 +287,105 @@ public class FastJsonHttpMessageConverter extends AbstractHttpMessageConverter<O
         }
     }
 
+    /**
+     * 序列化结果不经过ByteArrayOutputStream，SerializeWriter的缓冲区满了就直接写到response中
+     */
+    private void writeStreaming(Object value, SerializeFilter[] filters, HttpOutputMessage outputMessage,
+                                int bufferSize) throws IOException {
+        SerializeConfig config = fastJsonConfig.getSerializeConfig();
+        StreamingBodyWriter bodyWriter = new StreamingBodyWriter(outputMessage, fastJsonConfig.getCharset(),
+                                                                 fastJsonConfig.isWriteContentLength());
+        SerializeWriter out = new SerializeWriter(bodyWriter, config.getBufferPool(), bufferSize,
+                                                  JSON.DEFAULT_GENERATE_FEATURE,
+                                                  fastJsonConfig.getSerializerFeatures());
+        try {
+            JSONSerializer serializer = new JSONSerializer(out, config);
+
+            String dateFormat = fastJsonConfig.getDateFormat();
+            if (dateFormat != null && dateFormat.length() != 0) {
+                serializer.setDateFormat(dateFormat);
+                serializer.config(SerializerFeature.WriteDateUseDateFormat, true);
+            }
+
+            for (SerializeFilter filter : filters) {
+                serializer.addFilter(filter);
+            }
+
+            serializer.write(value);
+
+            bodyWriter.lastChunk = true;
+            out.flush();
+        } catch (RuntimeException ex) {
+            // 出错之后不再把缓冲区中剩下的半个结果写到response中
+            bodyWriter.aborted = true;
+            if (ex instanceof JSONException && ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw ex;
+        } finally {
+            out.close();
+        }
+
+        bodyWriter.close();
+    }
+
+    /**
+     * 第一次写出时才获取response的body，如果这时已经序列化完成，说明整个结果在一个缓冲区内，可以写Content-Length
+     */
+    private static class StreamingBodyWriter extends Writer {
+
+        private final HttpOutputMessage outputMessage;
+        private final Charset           charset;
+        private final boolean           writeContentLength;
+        private Writer                  body;
+
+        boolean                         lastChunk;
+        boolean                         aborted;
+
+        StreamingBodyWriter(HttpOutputMessage outputMessage, Charset charset, boolean writeContentLength) {
+            this.outputMessage = outputMessage;
+            this.charset = charset;
+            this.writeContentLength = writeContentLength;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (aborted) {
+                return;
+            }
+
+            if (body == null) {
+                if (lastChunk) {
+                    byte[] bytes = new String(cbuf, off, len).getBytes(charset);
+                    if (writeContentLength) {
+                        outputMessage.getHeaders().setContentLength(bytes.length);
+                    }
+
+                    OutputStream bodyStream = outputMessage.getBody();
+                    bodyStream.write(bytes);
+                    body = new OutputStreamWriter(bodyStream, charset);
+                    return;
+                }
+
+                body = new OutputStreamWriter(outputMessage.getBody(), charset);
+            }
+
+            body.write(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+            // SerializeWriter每写出一块都会调用flush，这里不flush response，由Spring在写完之后统一flush
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (body != null) {
+                body.flush();
+            }
+        }
+    }
+
     private Object strangeCodeForJackson(Object obj) {
         if (obj != null) {
             String className = obj.getClass().getName();
@@ -5,6 +5,10 @@ import com.alibaba.fastjson.support.config.FastJsonConfig;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * {@link RedisSerializer} FastJson Impl
  * @author lihengming
@@ -49,4 +53,28 @@ public class FastJsonRedisSerializer<T> implements RedisSerializer<T> {
             throw new SerializationException("Could not deserialize: " + ex.getMessage(), ex);
         }
     }
+
+    /**
+     * 批量序列化，用于MSET等pipeline操作
+     * @since 1.2.45
+     */
+    public List<byte[]> serializeAll(Collection<? extends T> values) throws SerializationException {
+        List<byte[]> list = new ArrayList<byte[]>(values.size());
+        for (T t : values) {
+            list.add(serialize(t));
+        }
+        return list;
+    }
+
+    /**
+     * 批量反序列化，用于MGET等pipeline操作的结果，null或者空数组对应null
+     * @since 1.2.45
+     */
+    public List<T> deserializeAll(Collection<byte[]> values) throws SerializationException {
+        List<T> list = new ArrayList<T>(values.size());
+        for (byte[] bytes : values) {
+            list.add(deserialize(bytes));
+        }
+        return list;
+    }
 }
@@ -3,10 +3,13 @@ package com.alibaba.fastjson.support.spring;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.parser.ParserConfig;
 import com.alibaba.fastjson.serializer.SerializerFeature;
-import com.alibaba.fastjson.util.IOUtils;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * {@link RedisSerializer} FastJson Generic Impl
  * @author lihengming
@@ -34,9 +37,33 @@ public class GenericFastJsonRedisSerializer implements RedisSerializer<Object> {
             return null;
         }
         try {
-            return JSON.parseObject(new String(bytes, IOUtils.UTF8), Object.class, defaultRedisConfig);
+            return JSON.parseObject(bytes, 0, bytes.length, Object.class, defaultRedisConfig);
         } catch (Exception ex) {
             throw new SerializationException("Could not deserialize: " + ex.getMessage(), ex);
         }
     }
+
+    /**
+     * 批量序列化，用于MSET等pipeline操作
+     * @since 1.2.45
+     */
+    public List<byte[]> serializeAll(Collection<?> objects) throws SerializationException {
+        List<byte[]> list = new ArrayList<byte[]>(objects.size());
+        for (Object object : objects) {
+            list.add(serialize(object));
+        }
+        return list;
+    }
+
+    /**
+     * 批量反序列化，用于MGET等pipeline操作的结果，null或者空数组对应null
+     * @since 1.2.45
+     */
+    public List<Object> deserializeAll(Collection<byte[]> values) throws SerializationException {
+        List<Object> list = new ArrayList<Object>(values.size());
+        for (byte[] bytes : values) {
+            list.add(deserialize(bytes));
+        }
+        return list;
+    }
 }
@@ -1,8 +1,13 @@
 package com.alibaba.fastjson.util;
 
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.security.PrivilegedAction;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONArray;
@@ -61,6 +66,14 @@ public class ASMClassLoader extends ClassLoader {
     
     private static Map<String, Class<?>> classMapping = new HashMap<String, Class<?>>();
 
+    /**
+     * scoped mode only, one child loader per defining loader of the beans. Both sides are weak, a child is kept alive
+     * by the classes generated in it, which are only reachable from the codec caches of the beans.
+     */
+    private final Map<ClassLoader, WeakReference<ASMClassLoader>> scopedLoaders;
+    private final ASMClassLoader                                  root;
+    private final AtomicInteger                                   classCount = new AtomicInteger();
+
     static {
         DOMAIN = (java.security.ProtectionDomain) java.security.AccessController.doPrivileged(new PrivilegedAction<Object>() {
 
@@ -137,11 +150,28 @@ public class ASMClassLoader extends ClassLoader {
     }
     
     public ASMClassLoader(){
-        super(getParentClassLoader());
+        this(getParentClassLoader(), false);
     }
 
     public ASMClassLoader(ClassLoader parent){
-        super (parent);
+        this(parent, false);
+    }
+
+    /**
+     * @param scoped if true the classes generated for a bean are defined in a child loader of the bean's own
+     * classloader instead of this one, so they can be unloaded together with it, see {@link #getClassLoader(Class)}
+     * @since 1.2.45
+     */
+    public ASMClassLoader(ClassLoader parent, boolean scoped){
+        super(parent);
+        this.root = null;
+        this.scopedLoaders = scoped ? new WeakHashMap<ClassLoader, WeakReference<ASMClassLoader>>() : null;
+    }
+
+    private ASMClassLoader(ClassLoader parent, ASMClassLoader root){
+        super(parent);
+        this.root = root;
+        this.scopedLoaders = null;
     }
 
     static ClassLoader getParentClassLoader() {
@@ -166,17 +196,191 @@ public class ASMClassLoader extends ClassLoader {
         try {
             return super.loadClass(name, resolve);
         } catch (ClassNotFoundException e) {
+            if (root != null) {
+                return root.loadClass(name); // bean loader which does not see fastjson
+            }
             throw e;
         }
     }
 
     public Class<?> defineClassPublic(String name, byte[] b, int off, int len) throws ClassFormatError {
         Class<?> clazz = defineClass(name, b, off, len, DOMAIN);
+        classCount.incrementAndGet();
 
         return clazz;
     }
 
+    /**
+     * defines a generated class in the package and class loader of host, giving it package access to host. Requires
+     * {@link #checkPackageAccess(Class)} to have returned null for host.
+     * <p>
+     * on jdk 15+ the class is a hidden class and is unloaded together with the codec. a class defined permanently stays
+     * in host's class loader as long as the loader lives, so only configs that live as long, such as the global ones,
+     * should pass permanent true; otherwise every new config defining a codec leaks a class.
+     *
+     * @param name binary name, in the package of host
+     * @param permanent whether the class may be defined permanently when a hidden class can not be defined
+     * @since 1.2.45
+     */
+    public Class<?> defineClassInPackage(Class<?> host, String name, byte[] code, boolean permanent) {
+        try {
+            return PackageClassDefiner.define(host, name, code, permanent);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause; // ClassFormatError, LinkageError ...
+            }
+            throw new JSONException("define class error, " + name, cause);
+        } catch (Exception e) {
+            throw new JSONException("define class error, " + name, e);
+        }
+    }
+
+    /**
+     * @return true if {@link #defineClassInPackage(Class, String, byte[], boolean)} defines classes that can be
+     * unloaded, i.e. hidden classes are supported
+     * @since 1.2.45
+     */
+    public static boolean isHiddenClassSupported() {
+        try {
+            return PackageClassDefiner.isHiddenClassSupported();
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the classes generated for clazz can not reach it from this loader and have to be defined in
+     * clazz's own package, because clazz or one of its superclasses is not public, or clazz is not visible here
+     * @since 1.2.45
+     */
+    public boolean isPackageAccessRequired(Class<?> clazz) {
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return true;
+            }
+        }
+        return isExternalClass(clazz);
+    }
+
+    /**
+     * @return why generated classes can not be defined in the package of clazz, null if they can
+     * @since 1.2.45
+     */
+    public String checkPackageAccess(Class<?> clazz) {
+        ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null || clazz.getName().startsWith("java.")) {
+            return "jdk class";
+        }
+
+        String packageName = getPackageName(clazz);
+        for (Class<?> c = clazz.getSuperclass(); c != null && c != Object.class; c = c.getSuperclass()) {
+            if (!Modifier.isPublic(c.getModifiers())
+                && (c.getClassLoader() != classLoader || !packageName.equals(getPackageName(c)))) {
+                return "non-public superclass " + c.getName() + " in another package";
+            }
+        }
+
+        try {
+            if (classLoader.loadClass(JSON.class.getName()) != JSON.class) {
+                return "another fastjson is loaded by " + classLoader;
+            }
+        } catch (ClassNotFoundException e) {
+            return "fastjson is not visible from " + classLoader;
+        }
+
+        try {
+            if (!PackageClassDefiner.isSupported()) {
+                return "neither Lookup.defineClass nor ClassLoader.defineClass accessible";
+            }
+        } catch (Throwable e) {
+            return "define class in package unsupported, " + e;
+        }
+        return null;
+    }
+
+    /**
+     * @return package of clazz, "" for the default package
+     * @since 1.2.45
+     */
+    public static String getPackageName(Class<?> clazz) {
+        String className = clazz.getName();
+        int p = className.lastIndexOf('.');
+        return p == -1 ? "" : className.substring(0, p);
+    }
+
+    /**
+     * @return the loader to define the classes generated for clazz in, this one unless the loader is scoped and clazz
+     * is not visible from it
+     * @since 1.2.45
+     */
+    public ASMClassLoader getClassLoader(Class<?> clazz) {
+        if (scopedLoaders == null || !isExternal(clazz)) {
+            return this;
+        }
+
+        ClassLoader classLoader = clazz.getClassLoader();
+        synchronized (scopedLoaders) {
+            WeakReference<ASMClassLoader> ref = scopedLoaders.get(classLoader);
+            ASMClassLoader scoped = ref == null ? null : ref.get();
+            if (scoped == null) {
+                scoped = new ASMClassLoader(classLoader, this);
+                scopedLoaders.put(classLoader, new WeakReference<ASMClassLoader>(scoped));
+            }
+            return scoped;
+        }
+    }
+
+    /**
+     * @return number of classes defined by this loader and by its live scoped loaders
+     * @since 1.2.45
+     */
+    public int getClassCount() {
+        int count = classCount.get();
+        if (scopedLoaders != null) {
+            synchronized (scopedLoaders) {
+                for (WeakReference<ASMClassLoader> ref : scopedLoaders.values()) {
+                    ASMClassLoader scoped = ref.get();
+                    if (scoped != null) {
+                        count += scoped.classCount.get();
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return number of live scoped loaders, 0 if this loader is not scoped
+     * @since 1.2.45
+     */
+    public int getScopedLoaderCount() {
+        if (scopedLoaders == null) {
+            return 0;
+        }
+
+        int count = 0;
+        synchronized (scopedLoaders) {
+            for (WeakReference<ASMClassLoader> ref : scopedLoaders.values()) {
+                if (ref.get() != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * a scoped loader can define classes for any bean, in a child of the bean's own loader
+     */
     public boolean isExternalClass(Class<?> clazz) {
+        if (scopedLoaders != null) {
+            return false;
+        }
+        return isExternal(clazz);
+    }
+
+    private boolean isExternal(Class<?> clazz) {
         ClassLoader classLoader = clazz.getClassLoader();
 
         if (classLoader == null) {
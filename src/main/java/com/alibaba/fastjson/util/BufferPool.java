@@ -0,0 +1,43 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+/**
+ * Source of the scratch char/byte buffers used by SerializeWriter and JSONReaderScanner. A buffer obtained by
+ * allocate may be handed back by release once the caller is done with it, implementations are free to drop it.
+ * Implementations must be thread safe.
+ *
+ * @see StripedBufferPool
+ * @see com.alibaba.fastjson.serializer.SerializeConfig#setBufferPool(BufferPool)
+ * @see com.alibaba.fastjson.parser.ParserConfig#setBufferPool(BufferPool)
+ * @since 1.2.45
+ */
+public interface BufferPool {
+
+    /**
+     * @return a buffer of at least minLength chars, the content is undefined
+     */
+    char[] allocateChars(int minLength);
+
+    void releaseChars(char[] chars);
+
+    /**
+     * @return a buffer of at least minLength bytes, the content is undefined
+     */
+    byte[] allocateBytes(int minLength);
+
+    void releaseBytes(byte[] bytes);
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+/**
+ * Values attached to the Class object itself, so a value which references its class (a JavaBeanSerializer holds its
+ * beanType) does not keep the class and its loader alive. Requires jdk 7, only loaded when ClassValue exists.
+ *
+ * @since 1.2.45
+ */
+final class ClassValueCache extends ClassValue<ClassValueCache.Holder> {
+
+    protected Holder computeValue(Class<?> type) {
+        return new Holder();
+    }
+
+    static final class Holder {
+
+        volatile Object value;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.math.BigInteger;
+
+/**
+ * 十进制数w * 10^q转换成正确舍入的double/float，w是最多19位的无符号整数。
+ * 能精确计算时用Clinger的快速路径，否则用Eisel-Lemire算法，无法确定舍入结果时返回NaN，由调用方使用Double.parseDouble处理。
+ *
+ * @since 1.2.45
+ */
+public final class EiselLemire {
+
+    private static final int      SMALLEST_POWER_OF_FIVE = -342;
+    private static final int      LARGEST_POWER_OF_FIVE  = 308;
+
+    /**
+     * 5^q的128位近似值，最高位是1，高64位和低64位依次保存在POWER_OF_FIVE[2 * (q + 342)]和POWER_OF_FIVE[2 * (q + 342) + 1]中
+     */
+    private static final long[]   POWER_OF_FIVE          = new long[(LARGEST_POWER_OF_FIVE - SMALLEST_POWER_OF_FIVE + 1) * 2];
+
+    private static final double[] DOUBLE_POW10           = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private static final float[]  FLOAT_POW10            = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f,
+            1e10f };
+
+    static {
+        BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        BigInteger two127 = BigInteger.ONE.shiftLeft(127);
+        BigInteger mask64 = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        BigInteger five = BigInteger.valueOf(5);
+
+        for (int q = SMALLEST_POWER_OF_FIVE; q <= LARGEST_POWER_OF_FIVE; ++q) {
+            BigInteger c;
+            if (q < 0) {
+                BigInteger power5 = five.pow(-q);
+                int z = power5.bitLength();
+                if (power5.bitCount() == 1) {
+                    z--;
+                }
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+                while (c.compareTo(two128) >= 0) {
+                    c = c.shiftRight(1);
+                }
+            } else {
+                c = five.pow(q);
+                while (c.compareTo(two127) < 0) {
+                    c = c.shiftLeft(1);
+                }
+                while (c.compareTo(two128) >= 0) {
+                    c = c.shiftRight(1);
+                }
+            }
+
+            int i = (q - SMALLEST_POWER_OF_FIVE) << 1;
+            POWER_OF_FIVE[i] = c.shiftRight(64).longValue();
+            POWER_OF_FIVE[i + 1] = c.and(mask64).longValue();
+        }
+    }
+
+    private EiselLemire(){
+    }
+
+    public static double toDouble(long w, int q, boolean negative) {
+        if (w == 0) {
+            return negative ? -0D : 0D;
+        }
+
+        if (w >= 0 && w <= (1L << 53) && q >= -22 && q <= 22) {
+            double value = (double) w;
+            value = q < 0 ? value / DOUBLE_POW10[-q] : value * DOUBLE_POW10[q];
+            return negative ? -value : value;
+        }
+
+        long bits = compute(w, q, 52, -1023, 0x7FF, -4, 23, -342, 308);
+        if (bits == -1) {
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble(negative ? bits | Long.MIN_VALUE : bits);
+    }
+
+    public static float toFloat(long w, int q, boolean negative) {
+        if (w == 0) {
+            return negative ? -0F : 0F;
+        }
+
+        if (w >= 0 && w <= (1L << 24) && q >= -10 && q <= 10) {
+            float value = (float) w;
+            value = q < 0 ? value / FLOAT_POW10[-q] : value * FLOAT_POW10[q];
+            return negative ? -value : value;
+        }
+
+        long bits = compute(w, q, 23, -127, 0xFF, -17, 10, -65, 38);
+        if (bits == -1) {
+            return Float.NaN;
+        }
+        return Float.intBitsToFloat(negative ? (int) bits | Integer.MIN_VALUE : (int) bits);
+    }
+
+    /**
+     * @return 不带符号位的IEEE 754位表示，无法确定舍入结果时返回-1
+     */
+    private static long compute(long w, int q, int mantissaBits, int minimumExponent, int infinitePower,
+                                int minRoundToEven, int maxRoundToEven, int smallestPower, int largestPower) {
+        if (q < smallestPower) {
+            return 0;
+        }
+        if (q > largestPower) {
+            return (long) infinitePower << mantissaBits;
+        }
+
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+
+        int index = (q - SMALLEST_POWER_OF_FIVE) << 1;
+        long high = unsignedMultiplyHigh(w, POWER_OF_FIVE[index]);
+        long low = w * POWER_OF_FIVE[index];
+
+        long precisionMask = -1L >>> (mantissaBits + 3);
+        if ((high & precisionMask) == precisionMask) {
+            /** 高64位不够确定结果时再乘上低64位 */
+            long secondHigh = unsignedMultiplyHigh(w, POWER_OF_FIVE[index + 1]);
+            low += secondHigh;
+            if (secondHigh + Long.MIN_VALUE > low + Long.MIN_VALUE) {
+                high++;
+            }
+
+            if (low == -1L && (q < -27 || q > 55)) {
+                return -1;
+            }
+        }
+
+        int upperbit = (int) (high >>> 63);
+        int shift = upperbit + 64 - mantissaBits - 3;
+        long mantissa = high >>> shift;
+        int power2 = (int) ((((152170 + 65536) * (long) q) >> 16) + 63) + upperbit - lz - minimumExponent;
+
+        if (power2 <= 0) {
+            /** 非规格化数 */
+            if (-power2 + 1 >= 64) {
+                return 0;
+            }
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            power2 = mantissa < (1L << mantissaBits) ? 0 : 1;
+            return mantissa | (long) power2 << mantissaBits;
+        }
+
+        if (low + Long.MIN_VALUE <= 1 + Long.MIN_VALUE && q >= minRoundToEven && q <= maxRoundToEven
+            && (mantissa & 3) == 1) {
+            /** 正好在两个数的中间，向偶数舍入 */
+            if ((mantissa << shift) == high) {
+                mantissa &= ~1L;
+            }
+        }
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << mantissaBits)) {
+            mantissa = 1L << mantissaBits;
+            power2++;
+        }
+        mantissa &= ~(1L << mantissaBits);
+
+        if (power2 >= infinitePower) {
+            return (long) infinitePower << mantissaBits;
+        }
+        return mantissa | (long) power2 << mantissaBits;
+    }
+
+    /**
+     * 无符号128位乘积的高64位
+     */
+    private static long unsignedMultiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        long signedHigh = x1 * y1 + z0 + (z1 >> 32);
+        return signedHigh + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+}
@@ -46,6 +46,10 @@ public class FieldInfo implements Comparable<FieldInfo> {
     public final String     format;
 
     public final String[]  alternateNames;
+
+    /** bound by LambdaAccessors, null when the method is called through reflection */
+    LambdaAccessors.Getter  getter;
+    LambdaAccessors.Setter  setter;
     
     public FieldInfo(String name, // 
                      Class<?> declaringClass, // 
@@ -480,12 +484,29 @@ public class FieldInfo implements Comparable<FieldInfo> {
     }
 
     public Object get(Object javaObject) throws IllegalAccessException, InvocationTargetException {
+        if (getter != null) {
+            try {
+                return getter.get(javaObject);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e); // 和method.invoke一样包装，IgnoreErrorGetter等依赖这个异常
+            }
+        }
+
         return method != null
                 ? method.invoke(javaObject)
                 : field.get(javaObject);
     }
 
     public void set(Object javaObject, Object value) throws IllegalAccessException, InvocationTargetException {
+        if (setter != null) {
+            try {
+                setter.set(javaObject, value);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+            return;
+        }
+
         if (method != null) {
             method.invoke(javaObject, new Object[] { value });
             return;
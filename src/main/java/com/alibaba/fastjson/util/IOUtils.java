@@ -42,6 +42,19 @@ public class IOUtils {
     public final static String FASTJSON_COMPATIBLEWITHJAVABEAN="fastjson.compatibleWithJavaBean";
     
     public final static String FASTJSON_COMPATIBLEWITHFIELDNAME="fastjson.compatibleWithFieldName";
+
+    /**
+     * true : scratch buffers always come from the BufferPool, false : per-thread caches are used, auto (default) :
+     * pooled on virtual threads only
+     */
+    public final static String FASTJSON_POOLED_BUFFER="fastjson.pooledBuffer";
+
+    /**
+     * true : SerializeConfig and ParserConfig cache their codecs without keeping the classes of other classloaders
+     * alive, asm classes are generated in a child loader of each bean's classloader. For containers which redeploy
+     * applications while fastjson is loaded by a shared classloader
+     */
+    public final static String FASTJSON_WEAK_CACHE="fastjson.weakCache";
     
     public final static Properties DEFAULT_PROPERTIES =new Properties();    
 
@@ -86,7 +99,56 @@ public class IOUtils {
             //skip
         }
     }
+
+    private final static int      BUFFER_MODE_AUTO         = 0;
+    private final static int      BUFFER_MODE_POOLED       = 1;
+    private final static int      BUFFER_MODE_THREAD_LOCAL = 2;
+
+    private static int            bufferMode               = BUFFER_MODE_AUTO;
+    private final static Class<?> virtualThreadClass;
+
+    static {
+        String property = getStringProperty(FASTJSON_POOLED_BUFFER);
+        if ("true".equals(property)) {
+            bufferMode = BUFFER_MODE_POOLED;
+        } else if ("false".equals(property)) {
+            bufferMode = BUFFER_MODE_THREAD_LOCAL;
+        }
+
+        Class<?> clazz = null;
+        for (String className : new String[] {"java.lang.BaseVirtualThread", "java.lang.VirtualThread"}) {
+            try {
+                clazz = Class.forName(className);
+                break;
+            } catch (Throwable e) {
+                // skip, jdk without virtual threads
+            }
+        }
+        virtualThreadClass = clazz;
+    }
+
+    /**
+     * Whether the current thread should take scratch buffers from the BufferPool rather than from a ThreadLocal.
+     * A ThreadLocal on a virtual thread lives as long as the task, so caching in it only adds footprint.
+     *
+     * @see #FASTJSON_POOLED_BUFFER
+     * @since 1.2.45
+     */
+    public static boolean isPooledBuffer() {
+        if (bufferMode == BUFFER_MODE_AUTO) {
+            return virtualThreadClass != null && virtualThreadClass.isInstance(Thread.currentThread());
+        }
+        return bufferMode == BUFFER_MODE_POOLED;
+    }
     
+    /**
+     * @see #FASTJSON_WEAK_CACHE
+     * @since 1.2.45
+     */
+    public static boolean isWeakCache() {
+        return "true".equals(getStringProperty(FASTJSON_WEAK_CACHE));
+    }
+
     public static String getStringProperty(String name) {
         String prop = null;
         try {
@@ -15,18 +15,28 @@
  */
 package com.alibaba.fastjson.util;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Arrays;
-import java.util.Collections;
 
 /**
- * for concurrent IdentityHashMap
+ * for concurrent IdentityHashMap. get is a lock free probe of a single bucket, put and remove are serialized on the
+ * map and publish the table through a volatile write, so concurrent puts no longer lose entries. The table doubles
+ * when it is 3/4 full. With weakKeys the map does not keep its keys alive, entries of collected keys are expunged on
+ * the next write. On jdk 7+ the values of Class keys are then attached to the class through a ClassValue, the entry
+ * only indexes the key, so a serializer which references its own bean class no longer keeps the class and its
+ * classloader alive. On older jdks such a value keeps its entry alive.
  * 
  * @author wenshao[szujobs@hotmail.com]
  */
 @SuppressWarnings("unchecked")
 public class IdentityHashMap<K, V> {
-    private final Entry<K, V>[] buckets;
-    private final int           indexMask;
+    private volatile Entry<K, V>[]       buckets;
+    private final boolean                weakKeys;
+    private final ReferenceQueue<Object> queue;
+    private int                          size;
+    private final ClassValueCache        classValues;
     public final static int DEFAULT_SIZE = 8192;
 
     public IdentityHashMap(){
@@ -34,33 +44,58 @@ public class IdentityHashMap<K, V> {
     }
 
     public IdentityHashMap(int tableSize){
-        this.indexMask = tableSize - 1;
-        this.buckets = new Entry[tableSize];
+        this(tableSize, false);
+    }
+
+    /**
+     * @since 1.2.45
+     */
+    public IdentityHashMap(int tableSize, boolean weakKeys){
+        int capacity = 1;
+        while (capacity < tableSize) {
+            capacity <<= 1;
+        }
+        this.buckets = new Entry[capacity];
+        this.weakKeys = weakKeys;
+        this.queue = weakKeys ? new ReferenceQueue<Object>() : null;
+        this.classValues = weakKeys ? newClassValueCache() : null;
+    }
+
+    private static ClassValueCache newClassValueCache() {
+        try {
+            return new ClassValueCache();
+        } catch (Throwable error) {
+            return null; // ClassValue requires jdk 7
+        }
     }
 
     public final V get(K key) {
+        if (classValues != null && key instanceof Class) {
+            return (V) classValues.get((Class<?>) key).value;
+        }
+
+        final Entry<K, V>[] buckets = this.buckets;
         final int hash = System.identityHashCode(key);
-        final int bucket = hash & indexMask;
+        final int bucket = hash & (buckets.length - 1);
 
         for (Entry<K, V> entry = buckets[bucket]; entry != null; entry = entry.next) {
             if (key == entry.key) {
                 return (V) entry.value;
             }
+
+            if (weakKeys && entry.hashCode == hash && ((WeakKey) entry.key).get() == key) {
+                return (V) entry.value;
+            }
         }
 
         return null;
     }
 
     public Class findClass(String keyString) {
+        final Entry<K, V>[] buckets = this.buckets;
         for (int i = 0; i < buckets.length; i++) {
-            Entry bucket = buckets[i];
-
-            if (bucket == null) {
-                continue;
-            }
-
-            for (Entry<K, V> entry = bucket; entry != null; entry = entry.next) {
-                Object key = bucket.key;
+            for (Entry<K, V> entry = buckets[i]; entry != null; entry = entry.next) {
+                Object key = entry.getKey();
                 if (key instanceof Class) {
                     Class clazz = ((Class) key);
                     String className = clazz.getName();
@@ -74,40 +109,188 @@ public class IdentityHashMap<K, V> {
         return null;
     }
 
+    /**
+     * @return true if the key was already mapped, its value is replaced
+     */
     public boolean put(K key, V value) {
+        return put(key, value, false) != null;
+    }
+
+    /**
+     * @return the value already mapped to key, or null when value was added
+     * @since 1.2.45
+     */
+    public V putIfAbsent(K key, V value) {
+        Entry<K, V> entry = put(key, value, true);
+        return entry == null ? null : valueOf(key, entry);
+    }
+
+    private synchronized Entry<K, V> put(K key, V value, boolean onlyIfAbsent) {
+        expungeStaleEntries();
+
+        Entry<K, V>[] buckets = this.buckets;
         final int hash = System.identityHashCode(key);
-        final int bucket = hash & indexMask;
+        final int bucket = hash & (buckets.length - 1);
 
         for (Entry<K, V> entry = buckets[bucket]; entry != null; entry = entry.next) {
-            if (key == entry.key) {
-                entry.value = value;
-                return true;
+            if (entry.getKey() == key && (key != null || !weakKeys)) {
+                if (!onlyIfAbsent) {
+                    if (classValues != null && key instanceof Class) {
+                        classValues.get((Class<?>) key).value = value;
+                    } else {
+                        entry.value = value;
+                    }
+                }
+                return entry;
+            }
+        }
+
+        if (size >= buckets.length - (buckets.length >>> 2)) {
+            buckets = resize(buckets);
+        }
+
+        final int index = hash & (buckets.length - 1);
+        Object entryKey = weakKeys ? new WeakKey(key, hash, queue) : key;
+        V entryValue = value;
+        if (classValues != null && key instanceof Class) {
+            classValues.get((Class<?>) key).value = value;
+            entryValue = null; // the value lives in the class, the entry only indexes the key
+        }
+        buckets[index] = new Entry<K, V>(entryKey, entryValue, hash, buckets[index]);
+        size++;
+        this.buckets = buckets; // volatile write, publish the new entry
+
+        return null;
+    }
+
+    /**
+     * @return the removed value
+     * @since 1.2.45
+     */
+    public synchronized V remove(K key) {
+        expungeStaleEntries();
+
+        final Entry<K, V>[] buckets = this.buckets;
+        final int bucket = System.identityHashCode(key) & (buckets.length - 1);
+        for (Entry<K, V> entry = buckets[bucket]; entry != null; entry = entry.next) {
+            if (entry.getKey() == key && (key != null || !weakKeys)) {
+                removeEntry(buckets, bucket, entry);
+                V value = valueOf(key, entry);
+                if (classValues != null && key instanceof Class) {
+                    classValues.remove((Class<?>) key);
+                }
+                return value;
             }
         }
+        return null;
+    }
 
-        Entry<K, V> entry = new Entry<K, V>(key, value, hash, buckets[bucket]);
-        buckets[bucket] = entry;  // 并发是处理时会可能导致缓存丢失，但不影响正确性
+    /**
+     * @since 1.2.45
+     */
+    public synchronized int size() {
+        expungeStaleEntries();
+        return size;
+    }
 
-        return false;
+    private V valueOf(Object key, Entry<K, V> entry) {
+        if (classValues != null && key instanceof Class) {
+            return (V) classValues.get((Class<?>) key).value;
+        }
+        return entry.value;
+    }
+
+    private Entry<K, V>[] resize(Entry<K, V>[] buckets) {
+        Entry<K, V>[] newBuckets = new Entry[buckets.length << 1];
+        final int mask = newBuckets.length - 1;
+        for (int i = 0; i < buckets.length; ++i) {
+            for (Entry<K, V> entry = buckets[i]; entry != null; entry = entry.next) {
+                int index = entry.hashCode & mask;
+                newBuckets[index] = new Entry<K, V>(entry.key, entry.value, entry.hashCode, newBuckets[index]);
+            }
+        }
+        return newBuckets;
+    }
+
+    /**
+     * entries are immutable except for their value, the bucket is rebuilt without the removed one
+     */
+    private void removeEntry(Entry<K, V>[] buckets, int bucket, Entry<K, V> removed) {
+        Entry<K, V> head = removed.next;
+        for (Entry<K, V> entry = buckets[bucket]; entry != removed; entry = entry.next) {
+            head = new Entry<K, V>(entry.key, entry.value, entry.hashCode, head);
+        }
+        buckets[bucket] = head;
+        size--;
+        this.buckets = buckets;
+    }
+
+    private void expungeStaleEntries() {
+        if (queue == null) {
+            return;
+        }
+
+        for (Reference<?> ref; (ref = queue.poll()) != null;) {
+            final Entry<K, V>[] buckets = this.buckets;
+            final int bucket = ((WeakKey) ref).hashCode & (buckets.length - 1);
+            for (Entry<K, V> entry = buckets[bucket]; entry != null; entry = entry.next) {
+                if (entry.key == ref) {
+                    removeEntry(buckets, bucket, entry);
+                    break;
+                }
+            }
+        }
     }
 
     protected static final class Entry<K, V> {
 
         public final int   hashCode;
-        public final K     key;
-        public V     value;
+        /** the key, or its WeakKey when the map has weak keys */
+        public final Object key;
+        public volatile V  value;
 
         public final Entry<K, V> next;
 
-        public Entry(K key, V value, int hash, Entry<K, V> next){
+        public Entry(Object key, V value, int hash, Entry<K, V> next){
             this.key = key;
             this.value = value;
             this.next = next;
             this.hashCode = hash;
         }
+
+        public K getKey() {
+            return (K) (key instanceof WeakKey ? ((WeakKey) key).get() : key);
+        }
+    }
+
+    private static final class WeakKey extends WeakReference<Object> {
+
+        final int hashCode;
+
+        WeakKey(Object key, int hashCode, ReferenceQueue<Object> queue){
+            super(key, queue);
+            this.hashCode = hashCode;
+        }
     }
 
-    public void clear() {
+    public synchronized void clear() {
+        if (classValues != null) {
+            for (int i = 0; i < buckets.length; i++) {
+                for (Entry<K, V> entry = buckets[i]; entry != null; entry = entry.next) {
+                    Object key = entry.getKey();
+                    if (key instanceof Class) {
+                        classValues.remove((Class<?>) key);
+                    }
+                }
+            }
+        }
         Arrays.fill(this.buckets, null);
+        size = 0;
+        if (queue != null) {
+            while (queue.poll() != null) {
+                // drop
+            }
+        }
+        this.buckets = buckets;
     }
 }
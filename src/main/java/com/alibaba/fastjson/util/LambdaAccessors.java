@@ -0,0 +1,174 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Binds the getter and setter methods of a FieldInfo to classes spun by LambdaMetafactory, so FieldInfo.get/set call
+ * the bean method through an interface call instead of Method.invoke. Used for the beans which can not get an asm
+ * codec when SerializeConfig/ParserConfig has lambdaAccessor enabled. Requires jdk 8, callers must expect this class
+ * to fail loading on older jdks. Field access is left to reflection, LambdaMetafactory can not target fields.
+ *
+ * @since 1.2.45
+ */
+public class LambdaAccessors {
+
+    public interface Getter {
+
+        Object get(Object bean);
+    }
+
+    public interface Setter {
+
+        void set(Object bean, Object value);
+    }
+
+    private static final MethodType   GETTER_TYPE  = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType   SETTER_TYPE  = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /** MethodHandles.privateLookupIn, jdk 9+ */
+    private static final Method       privateLookupIn;
+    /** MethodHandles.Lookup(Class), full access lookup on jdk 8 */
+    private static final Constructor<MethodHandles.Lookup> lookupConstructor;
+
+    static {
+        Method method = null;
+        try {
+            method = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (Throwable e) {
+            // skip, jdk 8
+        }
+        privateLookupIn = method;
+
+        Constructor<MethodHandles.Lookup> constructor = null;
+        if (method == null) {
+            try {
+                constructor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class);
+                constructor.setAccessible(true);
+            } catch (Throwable e) {
+                // skip
+            }
+        }
+        lookupConstructor = constructor;
+    }
+
+    /**
+     * binds every field, fields which can not be bound keep using reflection
+     * 
+     * @return number of fields bound
+     */
+    public static int bind(FieldInfo[] fields) {
+        int count = 0;
+        for (FieldInfo fieldInfo : fields) {
+            if (bind(fieldInfo)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static boolean bind(FieldInfo fieldInfo) {
+        if (fieldInfo.getter != null || fieldInfo.setter != null) {
+            return true;
+        }
+
+        Method method = fieldInfo.method;
+        if (method == null) {
+            return false;
+        }
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        try {
+            if (parameterTypes.length == 0) {
+                fieldInfo.getter = (Getter) spin(method, Getter.class, "get", GETTER_TYPE,
+                                                 MethodType.methodType(wrap(method.getReturnType()),
+                                                                       method.getDeclaringClass()));
+                return true;
+            }
+
+            if (parameterTypes.length == 1 && !fieldInfo.getOnly) {
+                fieldInfo.setter = (Setter) spin(method, Setter.class, "set", SETTER_TYPE,
+                                                 MethodType.methodType(void.class, method.getDeclaringClass(),
+                                                                       wrap(parameterTypes[0])));
+                return true;
+            }
+        } catch (Throwable e) {
+            // skip, not accessible from the lookup, reflection is used
+        }
+        return false;
+    }
+
+    private static Object spin(Method method, Class<?> interfaceType, String interfaceMethod, MethodType erasedType,
+                               MethodType instantiatedType) throws Throwable {
+        MethodHandles.Lookup lookup = lookup(method.getDeclaringClass());
+        MethodHandle target = lookup.unreflect(method);
+
+        CallSite callSite = LambdaMetafactory.metafactory(lookup, //
+                                                          interfaceMethod, //
+                                                          MethodType.methodType(interfaceType), //
+                                                          erasedType, //
+                                                          target, //
+                                                          instantiatedType);
+        return callSite.getTarget().invokeWithArguments();
+    }
+
+    /**
+     * full access lookup in declaringClass, also used by PackageClassDefiner
+     */
+    static MethodHandles.Lookup lookup(Class<?> declaringClass) throws Exception {
+        if (privateLookupIn != null) {
+            return (MethodHandles.Lookup) privateLookupIn.invoke(null, declaringClass, MethodHandles.lookup());
+        }
+
+        if (lookupConstructor != null) {
+            return lookupConstructor.newInstance(declaringClass);
+        }
+
+        return MethodHandles.lookup().in(declaringClass);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+
+        if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return Void.class;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.security.ProtectionDomain;
+
+/**
+ * Defines a class in the package and class loader of a host class, so generated code gets package access to it. jdk
+ * 15+ defines a hidden class on a private lookup of the host, which is unloaded once the generated codec is no longer
+ * reachable. Otherwise the class is defined permanently in the host's loader: jdk 9+ through
+ * MethodHandles.Lookup.defineClass, older jdks by calling ClassLoader.defineClass reflectively. Only reached through
+ * ASMClassLoader, which guards against this class failing to load.
+ */
+final class PackageClassDefiner {
+
+    /** MethodHandles.Lookup.defineHiddenClass(byte[], boolean, ClassOption...), jdk 15+ */
+    private static final Method lookupDefineHiddenClass;
+    /** empty ClassOption[], the hidden class is not strongly bound to the host's loader and can be unloaded */
+    private static final Object hiddenClassOptions;
+    /** MethodHandles.Lookup.lookupClass() */
+    private static final Method lookupClass;
+    /** MethodHandles.Lookup.defineClass(byte[]), jdk 9+ */
+    private static final Method lookupDefineClass;
+    /** ClassLoader.defineClass(String, byte[], int, int, ProtectionDomain), jdk 8 and older */
+    private static final Method loaderDefineClass;
+
+    static {
+        Method method = null, lookupClassMethod = null;
+        Object options = null;
+        try {
+            Class<?> lookupType = Class.forName("java.lang.invoke.MethodHandles$Lookup");
+            Class<?> optionClass = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            options = Array.newInstance(optionClass, 0);
+            method = lookupType.getMethod("defineHiddenClass", byte[].class, boolean.class, options.getClass());
+            lookupClassMethod = lookupType.getMethod("lookupClass");
+        } catch (Throwable e) {
+            method = null; // skip, jdk 14 and older
+        }
+        lookupDefineHiddenClass = method;
+        hiddenClassOptions = options;
+        lookupClass = lookupClassMethod;
+
+        method = null;
+        try {
+            method = Class.forName("java.lang.invoke.MethodHandles$Lookup").getMethod("defineClass", byte[].class);
+        } catch (Throwable e) {
+            // skip, jdk 8
+        }
+        lookupDefineClass = method;
+
+        method = null;
+        if (lookupDefineClass == null) {
+            try {
+                method = ClassLoader.class.getDeclaredMethod("defineClass", String.class, byte[].class, int.class,
+                                                             int.class, ProtectionDomain.class);
+                method.setAccessible(true);
+            } catch (Throwable e) {
+                method = null; // security manager
+            }
+        }
+        loaderDefineClass = method;
+    }
+
+    private PackageClassDefiner(){
+    }
+
+    static boolean isSupported() {
+        return lookupDefineClass != null || loaderDefineClass != null;
+    }
+
+    static boolean isHiddenClassSupported() {
+        return lookupDefineHiddenClass != null;
+    }
+
+    /**
+     * @param permanent whether the class may be defined permanently when it can not be defined as a hidden class,
+     * either because the jdk is older than 15 or because the lookup on host lacks full privilege access
+     */
+    static Class<?> define(Class<?> host, String name, byte[] code, boolean permanent) throws Exception {
+        if (lookupDefineHiddenClass != null) {
+            try {
+                Object lookup = lookupDefineHiddenClass.invoke(LambdaAccessors.lookup(host), code, true,
+                                                               hiddenClassOptions);
+                return (Class<?>) lookupClass.invoke(lookup);
+            } catch (InvocationTargetException e) {
+                if (!permanent || !(e.getCause() instanceof IllegalAccessException)) {
+                    throw e;
+                }
+            }
+        } else if (!permanent) {
+            throw new IllegalStateException("hidden classes are not supported, " + name);
+        }
+
+        if (lookupDefineClass != null) {
+            return (Class<?>) lookupDefineClass.invoke(LambdaAccessors.lookup(host), code);
+        }
+
+        return (Class<?>) loaderDefineClass.invoke(host.getClassLoader(), name, code, 0, code.length,
+                                                   host.getProtectionDomain());
+    }
+}
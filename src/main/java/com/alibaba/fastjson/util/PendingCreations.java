@@ -0,0 +1,87 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多个线程同时需要同一个类型的codec时只让一个线程创建，其他线程等它放入缓存，避免重复生成asm类。
+ * <p>
+ * 正在创建codec的线程不等待其他线程，创建时可能需要其他类型的codec，互相等待会死锁；
+ * 等待也有超时，持有类初始化锁的线程同样可能互相等待，超时之后和原来一样自己创建。
+ *
+ * <pre>
+ * if (pending.begin(type)) {
+ *     try {
+ *         codec = create(type);
+ *         cache.putIfAbsent(type, codec);
+ *     } finally {
+ *         pending.end(type);
+ *     }
+ * } else {
+ *     codec = cache.get(type); // 为null时自己创建
+ * }
+ * </pre>
+ *
+ * @since 1.2.45
+ */
+public final class PendingCreations<K> {
+
+    private final static long                     WAIT_MILLIS = 1000;
+
+    /** 当前线程正在创建的codec的数量，所有实例共享，ParserConfig和SerializeConfig之间也可能互相依赖 */
+    private final static ThreadLocal<int[]>       depth       = new ThreadLocal<int[]>() {
+
+                                                                  protected int[] initialValue() {
+                                                                      return new int[1];
+                                                                  }
+                                                              };
+
+    private final ConcurrentMap<K, CountDownLatch> pending     = new ConcurrentHashMap<K, CountDownLatch>();
+
+    /**
+     * @return true表示由当前线程创建，放入缓存之后必须调用end；false表示其他线程已经创建完成、等待超时或者不能等待，调用方先查缓存
+     */
+    public boolean begin(K key) {
+        int[] depth = PendingCreations.depth.get();
+        CountDownLatch latch = new CountDownLatch(1);
+        CountDownLatch other = pending.putIfAbsent(key, latch);
+        if (other == null) {
+            depth[0]++;
+            return true;
+        }
+
+        if (depth[0] == 0) {
+            try {
+                other.await(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return false;
+    }
+
+    public void end(K key) {
+        PendingCreations.depth.get()[0]--;
+        CountDownLatch latch = pending.remove(key);
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.math.BigInteger;
+
+/**
+ * double/float转换成最短的、能够精确还原的十进制字符，直接写到char[]中，不创建String。
+ * 算法是Raffaello Giulietti的Schubfach，输出格式和Double.toString/Float.toString一样：
+ * 10^-3 &lt;= |v| &lt; 10^7时是普通的小数，否则是d.dddE±n的科学计数法，小数点后至少有一位。
+ *
+ * @since 1.2.45
+ */
+public final class Schubfach {
+
+    /** double最多输出24个字符：符号、17位数字、小数点和E-308这样的指数 */
+    public static final int     DOUBLE_MAX_CHARS = 24;
+    /** float最多输出15个字符：符号、9位数字、小数点和E-38这样的指数 */
+    public static final int     FLOAT_MAX_CHARS  = 15;
+
+    private static final int    K_MIN            = -324;
+    private static final int    K_MAX            = 292;
+
+    private static final int    DOUBLE_P         = 53;
+    private static final int    DOUBLE_Q_MIN     = -1074;
+    private static final long   DOUBLE_C_MIN     = 1L << (DOUBLE_P - 1);
+    private static final int    DOUBLE_C_TINY    = 3;
+
+    private static final int    FLOAT_P          = 24;
+    private static final int    FLOAT_Q_MIN      = -149;
+    private static final int    FLOAT_C_MIN      = 1 << (FLOAT_P - 1);
+    private static final int    FLOAT_C_TINY     = 8;
+
+    private static final long   MASK_63          = (1L << 63) - 1;
+    private static final long   MASK_32          = (1L << 32) - 1;
+
+    /**
+     * g = floor(10^-k * 2^-r) + 1，r = flog2pow10(-k) - 125，2^125 &lt;= g &lt; 2^126，
+     * g1 = g / 2^63，g0 = g % 2^63，依次保存在G[2 * (k - K_MIN)]和G[2 * (k - K_MIN) + 1]中
+     */
+    private static final long[] G                = new long[(K_MAX - K_MIN + 1) * 2];
+
+    static {
+        BigInteger mask63 = BigInteger.valueOf(MASK_63);
+        for (int k = K_MIN; k <= K_MAX; ++k) {
+            int r = flog2pow10(-k) - 125;
+            BigInteger num = BigInteger.ONE, den = BigInteger.ONE;
+            if (k < 0) {
+                num = BigInteger.TEN.pow(-k);
+            } else {
+                den = BigInteger.TEN.pow(k);
+            }
+            if (r < 0) {
+                num = num.shiftLeft(-r);
+            } else {
+                den = den.shiftLeft(r);
+            }
+            BigInteger g = num.divide(den).add(BigInteger.ONE);
+            int i = (k - K_MIN) << 1;
+            G[i] = g.shiftRight(63).longValue();
+            G[i + 1] = g.and(mask63).longValue();
+        }
+    }
+
+    private Schubfach(){
+    }
+
+    /**
+     * 把v按照Double.toString的格式写到buf的off位置，buf至少要有DOUBLE_MAX_CHARS个字符的空间
+     *
+     * @return 写完之后的位置
+     */
+    public static int toChars(double v, char[] buf, int off) {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & ((1L << (DOUBLE_P - 1)) - 1);
+        int bq = (int) (bits >>> (DOUBLE_P - 1)) & 0x7FF;
+        if (bq == 0x7FF) {
+            return special(t != 0, bits < 0, buf, off);
+        }
+
+        if (bits < 0) {
+            buf[off++] = '-';
+        }
+
+        if (bq != 0) {
+            int mq = -DOUBLE_Q_MIN + 1 - bq;
+            long c = DOUBLE_C_MIN | t;
+            if (0 < mq && mq < DOUBLE_P) {
+                /** 整数不需要做转换 */
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return format(f, 0, buf, off);
+                }
+            }
+            return toDecimal(-mq, c, 0, buf, off);
+        }
+
+        if (t != 0) {
+            return t < DOUBLE_C_TINY //
+                ? toDecimal(DOUBLE_Q_MIN, 10 * t, -1, buf, off) //
+                : toDecimal(DOUBLE_Q_MIN, t, 0, buf, off);
+        }
+
+        return zero(buf, off);
+    }
+
+    /**
+     * 把v按照Float.toString的格式写到buf的off位置，buf至少要有FLOAT_MAX_CHARS个字符的空间
+     *
+     * @return 写完之后的位置
+     */
+    public static int toChars(float v, char[] buf, int off) {
+        int bits = Float.floatToRawIntBits(v);
+        int t = bits & ((1 << (FLOAT_P - 1)) - 1);
+        int bq = (bits >>> (FLOAT_P - 1)) & 0xFF;
+        if (bq == 0xFF) {
+            return special(t != 0, bits < 0, buf, off);
+        }
+
+        if (bits < 0) {
+            buf[off++] = '-';
+        }
+
+        if (bq != 0) {
+            int mq = -FLOAT_Q_MIN + 1 - bq;
+            int c = FLOAT_C_MIN | t;
+            if (0 < mq && mq < FLOAT_P) {
+                int f = c >> mq;
+                if (f << mq == c) {
+                    return format(f, 0, buf, off);
+                }
+            }
+            return toDecimal(-mq, c, 0, buf, off);
+        }
+
+        if (t != 0) {
+            return t < FLOAT_C_TINY //
+                ? toDecimal(FLOAT_Q_MIN, 10 * t, -1, buf, off) //
+                : toDecimal(FLOAT_Q_MIN, t, 0, buf, off);
+        }
+
+        return zero(buf, off);
+    }
+
+    /**
+     * v = c * 2^q，找到区间内最短的十进制数，长度相同时选择离v最近的
+     */
+    private static int toDecimal(int q, long c, int dk, char[] buf, int off) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != DOUBLE_C_MIN || q == DOUBLE_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+
+        int i = (k - K_MIN) << 1;
+        long g1 = G[i];
+        long g0 = G[i + 1];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            /** sp10 = floor(s / 10) * 10 */
+            long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return format(upin ? sp10 : tp10, k, buf, off);
+            }
+        }
+
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return format(uin ? s : t, k + dk, buf, off);
+        }
+
+        long cmp = vb - (s + t << 1);
+        return format(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buf, off);
+    }
+
+    private static int toDecimal(int q, int c, int dk, char[] buf, int off) {
+        int out = c & 0x1;
+        long cb = (long) c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != FLOAT_C_MIN || q == FLOAT_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 33;
+
+        long g = G[(k - K_MIN) << 1] + 1;
+
+        int vb = rop(g, cb << h);
+        int vbl = rop(g, cbl << h);
+        int vbr = rop(g, cbr << h);
+
+        int s = vb >> 2;
+        if (s >= 100) {
+            int sp10 = 10 * (int) (s * 1717986919L >>> 34);
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return format(upin ? sp10 : tp10, k, buf, off);
+            }
+        }
+
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return format(uin ? s : t, k + dk, buf, off);
+        }
+
+        int cmp = vb - (s + t << 1);
+        return format(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buf, off);
+    }
+
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private static int rop(long g, long cp) {
+        long x1 = multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    /**
+     * 128位乘积的高64位，和Java 9的Math.multiplyHigh一样
+     */
+    private static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    /** floor(log10(2^e)) */
+    private static int flog10pow2(int e) {
+        return (int) (e * 661971961083L >> 41);
+    }
+
+    /** floor(log10(3/4 * 2^e)) */
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661971961083L - 274743187321L >> 41);
+    }
+
+    /** floor(log2(10^e)) */
+    private static int flog2pow10(int e) {
+        return (int) (e * 913124641741L >> 38);
+    }
+
+    /**
+     * 输出f * 10^e，f &gt; 0
+     */
+    private static int format(long f, int e, char[] buf, int off) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+
+        int len = IOUtils.stringSize(f);
+        /** 小数点相对于第一位数字的位置 */
+        int dp = len + e;
+
+        if (0 < dp && dp <= 7) {
+            if (dp >= len) {
+                IOUtils.getChars(f, off + len, buf);
+                off += len;
+                for (int i = len; i < dp; ++i) {
+                    buf[off++] = '0';
+                }
+                buf[off++] = '.';
+                buf[off++] = '0';
+                return off;
+            }
+
+            IOUtils.getChars(f, off + len + 1, buf);
+            System.arraycopy(buf, off + 1, buf, off, dp);
+            buf[off + dp] = '.';
+            return off + len + 1;
+        }
+
+        if (-3 < dp && dp <= 0) {
+            buf[off++] = '0';
+            buf[off++] = '.';
+            for (int i = dp; i < 0; ++i) {
+                buf[off++] = '0';
+            }
+            IOUtils.getChars(f, off + len, buf);
+            return off + len;
+        }
+
+        IOUtils.getChars(f, off + len + 1, buf);
+        buf[off] = buf[off + 1];
+        buf[off + 1] = '.';
+        if (len == 1) {
+            buf[off + 2] = '0';
+            off += 3;
+        } else {
+            off += len + 1;
+        }
+
+        buf[off++] = 'E';
+        int exp = dp - 1;
+        if (exp < 0) {
+            buf[off++] = '-';
+            exp = -exp;
+        }
+        if (exp >= 100) {
+            buf[off++] = (char) ('0' + exp / 100);
+            exp %= 100;
+            buf[off++] = (char) ('0' + exp / 10);
+        } else if (exp >= 10) {
+            buf[off++] = (char) ('0' + exp / 10);
+        }
+        buf[off++] = (char) ('0' + exp % 10);
+        return off;
+    }
+
+    private static int zero(char[] buf, int off) {
+        buf[off++] = '0';
+        buf[off++] = '.';
+        buf[off++] = '0';
+        return off;
+    }
+
+    private static int special(boolean nan, boolean negative, char[] buf, int off) {
+        String text = nan ? "NaN" : negative ? "-Infinity" : "Infinity";
+        text.getChars(0, text.length(), buf, off);
+        return off + text.length();
+    }
+}
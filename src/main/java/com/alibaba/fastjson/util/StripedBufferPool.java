@@ -0,0 +1,242 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Default {@link BufferPool}. Buffers are grouped in power of two size classes from 512 up to maxBufferSize, each
+ * class keeps at most stripes * buffersPerStripe buffers no matter how many threads are running, so the retained
+ * memory is bounded. A thread first looks at the slots of its own stripe and then at the others, slots are taken and
+ * filled with CAS, no lock is held. When its size class is empty, larger buffers released by the same stripe are
+ * reused, so a writer that grew for a large document keeps its capacity. Requests larger than maxBufferSize are
+ * allocated exactly and never retained.
+ *
+ * @since 1.2.45
+ */
+@SuppressWarnings("unchecked")
+public class StripedBufferPool implements BufferPool {
+
+    public final static int                     MIN_BUFFER_SIZE_EXP = 9;                              // 512
+    public final static int                     DEFAULT_MAX_SIZE    = 1024 * 128;                     // 128k
+
+    private final static StripedBufferPool      global              = new StripedBufferPool();
+
+    private final static int                    HIT                 = 0;
+    private final static int                    MISS                = 1;
+    private final static int                    OVERSIZE            = 2;
+    private final static int                    COUNTER_SPAN        = 8;                              // one cache line per stripe
+
+    private final int                           stripeMask;
+    private final int                           buffersPerStripe;
+    private final int                           maxSizeClass;
+    private final int                           maxBufferSize;
+    private final AtomicReferenceArray<char[]>[] charSlots;
+    private final AtomicReferenceArray<byte[]>[] byteSlots;
+    private final AtomicLongArray               counters;
+
+    public static StripedBufferPool getGlobalInstance() {
+        return global;
+    }
+
+    public StripedBufferPool(){
+        this(Runtime.getRuntime().availableProcessors(), 2, DEFAULT_MAX_SIZE);
+    }
+
+    public StripedBufferPool(int stripes, int buffersPerStripe, int maxBufferSize){
+        if (stripes <= 0 || buffersPerStripe <= 0 || maxBufferSize < (1 << MIN_BUFFER_SIZE_EXP)) {
+            throw new IllegalArgumentException("stripes " + stripes + ", buffersPerStripe " + buffersPerStripe
+                                               + ", maxBufferSize " + maxBufferSize);
+        }
+
+        int stripeCount = 1;
+        while (stripeCount < stripes && stripeCount < 64) {
+            stripeCount <<= 1;
+        }
+
+        this.stripeMask = stripeCount - 1;
+        this.buffersPerStripe = buffersPerStripe;
+        this.maxSizeClass = ceilSizeClass(maxBufferSize);
+        this.maxBufferSize = 1 << (maxSizeClass + MIN_BUFFER_SIZE_EXP);
+
+        int slotCount = stripeCount * buffersPerStripe;
+        charSlots = new AtomicReferenceArray[maxSizeClass + 1];
+        byteSlots = new AtomicReferenceArray[maxSizeClass + 1];
+        for (int i = 0; i <= maxSizeClass; ++i) {
+            charSlots[i] = new AtomicReferenceArray<char[]>(slotCount);
+            byteSlots[i] = new AtomicReferenceArray<byte[]>(slotCount);
+        }
+        counters = new AtomicLongArray(stripeCount * COUNTER_SPAN);
+    }
+
+    public char[] allocateChars(int minLength) {
+        int stripe = stripe();
+        int sizeClass = ceilSizeClass(minLength);
+        if (sizeClass > maxSizeClass) {
+            counters.incrementAndGet(stripe * COUNTER_SPAN + OVERSIZE);
+            return new char[minLength];
+        }
+
+        final int home = stripe * buffersPerStripe;
+        char[] chars = poll(charSlots[sizeClass], home, charSlots[sizeClass].length());
+        for (int i = sizeClass + 1; chars == null && i <= maxSizeClass; ++i) {
+            chars = poll(charSlots[i], home, buffersPerStripe); // a larger buffer released by this stripe
+        }
+        if (chars != null) {
+            counters.incrementAndGet(stripe * COUNTER_SPAN + HIT);
+            return chars;
+        }
+
+        counters.incrementAndGet(stripe * COUNTER_SPAN + MISS);
+        return new char[1 << (sizeClass + MIN_BUFFER_SIZE_EXP)];
+    }
+
+    public void releaseChars(char[] chars) {
+        int sizeClass = floorSizeClass(chars.length);
+        if (sizeClass >= 0 && chars.length <= maxBufferSize) {
+            offer(charSlots[sizeClass], stripe() * buffersPerStripe, chars);
+        }
+    }
+
+    public byte[] allocateBytes(int minLength) {
+        int stripe = stripe();
+        int sizeClass = ceilSizeClass(minLength);
+        if (sizeClass > maxSizeClass) {
+            counters.incrementAndGet(stripe * COUNTER_SPAN + OVERSIZE);
+            return new byte[minLength];
+        }
+
+        final int home = stripe * buffersPerStripe;
+        byte[] bytes = poll(byteSlots[sizeClass], home, byteSlots[sizeClass].length());
+        for (int i = sizeClass + 1; bytes == null && i <= maxSizeClass; ++i) {
+            bytes = poll(byteSlots[i], home, buffersPerStripe); // a larger buffer released by this stripe
+        }
+        if (bytes != null) {
+            counters.incrementAndGet(stripe * COUNTER_SPAN + HIT);
+            return bytes;
+        }
+
+        counters.incrementAndGet(stripe * COUNTER_SPAN + MISS);
+        return new byte[1 << (sizeClass + MIN_BUFFER_SIZE_EXP)];
+    }
+
+    public void releaseBytes(byte[] bytes) {
+        int sizeClass = floorSizeClass(bytes.length);
+        if (sizeClass >= 0 && bytes.length <= maxBufferSize) {
+            offer(byteSlots[sizeClass], stripe() * buffersPerStripe, bytes);
+        }
+    }
+
+    /**
+     * allocations served from the pool
+     */
+    public long getHitCount() {
+        return sum(HIT);
+    }
+
+    /**
+     * allocations of a pooled size class that found no free buffer
+     */
+    public long getMissCount() {
+        return sum(MISS);
+    }
+
+    /**
+     * allocations larger than maxBufferSize, never pooled
+     */
+    public long getOversizeCount() {
+        return sum(OVERSIZE);
+    }
+
+    /**
+     * drops all retained buffers and resets the counters
+     */
+    public void clear() {
+        for (int i = 0; i <= maxSizeClass; ++i) {
+            AtomicReferenceArray<char[]> chars = charSlots[i];
+            AtomicReferenceArray<byte[]> bytes = byteSlots[i];
+            for (int j = 0; j < chars.length(); ++j) {
+                chars.set(j, null);
+                bytes.set(j, null);
+            }
+        }
+
+        for (int i = 0; i < counters.length(); ++i) {
+            counters.set(i, 0);
+        }
+    }
+
+    private int stripe() {
+        return ((int) Thread.currentThread().getId()) & stripeMask;
+    }
+
+    private long sum(int counter) {
+        long sum = 0;
+        for (int i = counter; i < counters.length(); i += COUNTER_SPAN) {
+            sum += counters.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * smallest class whose buffers hold length
+     */
+    private static int ceilSizeClass(int length) {
+        if (length <= (1 << MIN_BUFFER_SIZE_EXP)) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_BUFFER_SIZE_EXP;
+    }
+
+    /**
+     * largest class a buffer of length can serve, -1 if too small
+     */
+    private static int floorSizeClass(int length) {
+        return 31 - Integer.numberOfLeadingZeros(length) - MIN_BUFFER_SIZE_EXP;
+    }
+
+    private static <T> T poll(AtomicReferenceArray<T> slots, int home, int probes) {
+        final int len = slots.length();
+        for (int i = 0, index = home; i < probes; ++i, ++index) {
+            if (index == len) {
+                index = 0;
+            }
+
+            if (slots.get(index) != null) {
+                T value = slots.getAndSet(index, null);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static <T> void offer(AtomicReferenceArray<T> slots, int home, T value) {
+        final int len = slots.length();
+        for (int i = 0, index = home; i < len; ++i, ++index) {
+            if (index == len) {
+                index = 0;
+            }
+
+            if (slots.get(index) == null && slots.compareAndSet(index, null, value)) {
+                return;
+            }
+        }
+        // pool full, let gc take it
+    }
+}
@@ -17,6 +17,10 @@ public class ThreadLocalCache {
     private final static ThreadLocal<CharsetDecoder>        decoderLocal         = new ThreadLocal<CharsetDecoder>();
 
     public static CharsetDecoder getUTF8Decoder() {
+        if (IOUtils.isPooledBuffer()) {
+            return new UTF8Decoder();
+        }
+
         CharsetDecoder decoder = decoderLocal.get();
         if (decoder == null) {
             decoder = new UTF8Decoder();
@@ -30,6 +34,11 @@ public class ThreadLocalCache {
     }
 
     public static char[] getChars(int length) {
+        if (IOUtils.isPooledBuffer()) {
+            // never handed back, a pooled buffer would only drain the pool
+            return new char[length];
+        }
+
         SoftReference<char[]> ref = charsBufLocal.get();
 
         if (ref == null) {
@@ -85,6 +94,10 @@ public class ThreadLocalCache {
     }
 
     public static byte[] getBytes(int length) {
+        if (IOUtils.isPooledBuffer()) {
+            return new byte[length];
+        }
+
         SoftReference<byte[]> ref = bytesBufLocal.get();
 
         if (ref == null) {
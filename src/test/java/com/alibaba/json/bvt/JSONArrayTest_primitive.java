@@ -0,0 +1,121 @@
+package com.alibaba.json.bvt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONNumberArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+public class JSONArrayTest_primitive extends TestCase {
+
+    public void test_int() throws Exception {
+        JSONArray array = (JSONArray) JSON.parse("[1, -2, 3,2147483647]", Feature.PrimitiveNumberArray);
+        Assert.assertTrue(array instanceof JSONNumberArray);
+        Assert.assertTrue(((JSONNumberArray) array).getPrimitiveArray() instanceof int[]);
+
+        Assert.assertEquals(4, array.size());
+        Assert.assertEquals(-2, array.getIntValue(1));
+        Assert.assertEquals(Integer.valueOf(3), array.get(2));
+        Assert.assertEquals(JSON.parse("[1, -2, 3,2147483647]"), array);
+        Assert.assertEquals("[1,-2,3,2147483647]", JSON.toJSONString(array));
+    }
+
+    public void test_long() throws Exception {
+        JSONArray array = (JSONArray) JSON.parse("[1,1516000000000,-3]", Feature.PrimitiveNumberArray);
+        Assert.assertTrue(((JSONNumberArray) array).getPrimitiveArray() instanceof long[]);
+
+        Assert.assertEquals(Long.valueOf(1), array.get(0));
+        Assert.assertEquals(1516000000000L, array.getLongValue(1));
+        Assert.assertEquals("[1,1516000000000,-3]", JSON.toJSONString(array));
+        Assert.assertEquals("[1L,1516000000000L,-3L]", JSON.toJSONString(array, SerializerFeature.WriteClassName));
+    }
+
+    public void test_double() throws Exception {
+        JSONObject object = (JSONObject) JSON.parse("{\"v\":[0.5,-1.25e2,3,1E-3],\"names\":[\"a\"]}",
+                                                    Feature.PrimitiveNumberArray);
+        JSONNumberArray array = (JSONNumberArray) object.getJSONArray("v");
+        Assert.assertTrue(array.getPrimitiveArray() instanceof double[]);
+        Assert.assertFalse(object.getJSONArray("names") instanceof JSONNumberArray);
+
+        Assert.assertEquals(-125D, array.getDoubleValue(1), 0D);
+        Assert.assertEquals(3, array.getIntValue(2));
+        Assert.assertEquals(Double.valueOf(3), array.get(2));
+        Assert.assertTrue(Arrays.equals(new double[] { 0.5, -125, 3, 0.001 }, array.toDoubleArray()));
+        Assert.assertEquals("[0.5,-125.0,3.0,0.001]", JSON.toJSONString(array));
+    }
+
+    public void test_mixed() throws Exception {
+        JSONArray array = (JSONArray) JSON.parse("[[1,2],[3,\"a\",{\"id\":4}],[12345678901234567890,5]]",
+                                                 Feature.PrimitiveNumberArray);
+
+        Assert.assertTrue(((JSONNumberArray) array.getJSONArray(0)).getPrimitiveArray() instanceof int[]);
+
+        JSONArray mixed = array.getJSONArray(1);
+        Assert.assertNull(((JSONNumberArray) mixed).getPrimitiveArray());
+        Assert.assertEquals(3, mixed.get(0));
+        Assert.assertEquals("a", mixed.get(1));
+        Assert.assertEquals(4, mixed.getJSONObject(2).getIntValue("id"));
+
+        JSONArray big = array.getJSONArray(2);
+        Assert.assertEquals(new BigInteger("12345678901234567890"), big.get(0));
+        Assert.assertEquals(5, big.getIntValue(1));
+
+        Assert.assertEquals(JSON.toJSONString(JSON.parse("[[1,2],[3,\"a\",{\"id\":4}],[12345678901234567890,5]]")),
+                            JSON.toJSONString(array));
+    }
+
+    public void test_list() throws Exception {
+        JSONNumberArray array = new JSONNumberArray();
+        array.addInt(1);
+        array.addInt(2);
+        array.add(0, 0);
+        Assert.assertEquals(Arrays.asList(0, 1, 2), array);
+
+        Assert.assertEquals(1, array.remove(1));
+        Assert.assertEquals(2, array.set(1, 5));
+        Assert.assertTrue(array.getPrimitiveArray() instanceof int[]);
+        Assert.assertEquals(Arrays.asList(0, 5), array);
+
+        array.addLong(1L << 40);
+        Assert.assertEquals(Arrays.<Object> asList(0L, 5L, 1L << 40), array);
+
+        array.addDouble(0.5);
+        Assert.assertEquals(Arrays.<Object> asList(0D, 5D, (double) (1L << 40), 0.5), array);
+
+        array.add("x");
+        Assert.assertNull(array.getPrimitiveArray());
+        Assert.assertEquals(Arrays.<Object> asList(0D, 5D, (double) (1L << 40), 0.5, "x"), array);
+        Assert.assertEquals(5, array.getIntValue(1));
+
+        array.clear();
+        Assert.assertTrue(array.isEmpty());
+        array.add(1L);
+        Assert.assertTrue(array.getPrimitiveArray() instanceof long[]);
+    }
+
+    public void test_serializable() throws Exception {
+        JSONArray array = (JSONArray) JSON.parse("[1.5,2.5]", Feature.PrimitiveNumberArray);
+
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        ObjectOutputStream objOut = new ObjectOutputStream(bytesOut);
+        objOut.writeObject(array);
+        objOut.flush();
+
+        ObjectInputStream objIn = new ObjectInputStream(new ByteArrayInputStream(bytesOut.toByteArray()));
+        JSONNumberArray copy = (JSONNumberArray) objIn.readObject();
+        Assert.assertEquals(array, copy);
+        Assert.assertEquals(2.5D, copy.getDoubleValue(1), 0D);
+    }
+}
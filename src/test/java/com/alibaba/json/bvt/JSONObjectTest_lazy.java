@@ -0,0 +1,174 @@
+package com.alibaba.json.bvt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+public class JSONObjectTest_lazy extends TestCase {
+
+    private static final String TEXT = "{ \"id\" : 1001, \"name\":\"a\\\"b\", \"plain\":\"xyz\", \"price\":12.5,"
+                                       + " \"big\":12345678901234,\"ok\":true,\"none\":null,"
+                                       + " \"items\":[{\"id\":1},{\"id\":2,\"tags\":[\"}\",\"]\"]}],"
+                                       + " \"child\":{\"n\\u0061me\":\"c\",\"sub\":{\"v\":[1,2,3]}}, \"empty\":{} }";
+
+    public void test_get() throws Exception {
+        JSONObject object = JSON.parseLazyObject(TEXT);
+
+        Assert.assertEquals(10, object.size());
+        Assert.assertTrue(object.containsKey("items"));
+        Assert.assertEquals(1001, object.getIntValue("id"));
+        Assert.assertEquals("a\"b", object.getString("name"));
+        Assert.assertEquals("xyz", object.get("plain"));
+        Assert.assertEquals(new BigDecimal("12.5"), object.get("price"));
+        Assert.assertEquals(12345678901234L, object.get("big"));
+        Assert.assertEquals(Boolean.TRUE, object.get("ok"));
+        Assert.assertNull(object.get("none"));
+        Assert.assertEquals(2, object.getJSONArray("items").getJSONObject(1).getIntValue("id"));
+        Assert.assertEquals("c", object.getJSONObject("child").getString("name"));
+        Assert.assertEquals(3, object.getJSONObject("child").getJSONObject("sub").getJSONArray("v").size());
+        Assert.assertTrue(object.getJSONObject("empty").isEmpty());
+    }
+
+    public void test_same_as_parseObject() throws Exception {
+        JSONObject lazy = JSON.parseLazyObject(TEXT);
+        JSONObject eager = JSON.parseObject(TEXT, Feature.OrderedField);
+
+        Assert.assertEquals(JSON.toJSONString(eager), JSON.toJSONString(lazy));
+        Assert.assertEquals(JSON.toJSONString(JSON.parseObject(TEXT), SerializerFeature.MapSortField),
+                            JSON.toJSONString(JSON.parseLazyObject(TEXT), SerializerFeature.MapSortField));
+        Assert.assertEquals(eager, JSON.parseLazyObject(TEXT));
+    }
+
+    public void test_put_remove() throws Exception {
+        JSONObject object = JSON.parseLazyObject(TEXT);
+        Assert.assertEquals("xyz", object.put("plain", "new"));
+        Assert.assertEquals(1001, object.remove("id"));
+        object.put("added", 1);
+
+        Assert.assertEquals("new", object.get("plain"));
+        Assert.assertFalse(object.containsKey("id"));
+        Assert.assertEquals(10, object.size());
+        Assert.assertEquals(1, object.get("added"));
+    }
+
+    public void test_keySet_remove() throws Exception {
+        JSONObject object = JSON.parseLazyObject(TEXT);
+        Assert.assertTrue(object.keySet().remove("items"));
+        Assert.assertFalse(object.keySet().remove("items"));
+
+        for (Iterator<String> it = object.keySet().iterator(); it.hasNext();) {
+            if (it.next().startsWith("p")) {
+                it.remove();
+            }
+        }
+        Assert.assertEquals(7, object.size());
+        Assert.assertNotNull(getText(object));
+
+        for (String key : object.keySet()) {
+            object.get(key);
+        }
+        Assert.assertNull(getText(object));
+
+        JSONObject eager = JSON.parseObject(TEXT, Feature.OrderedField);
+        eager.keySet().removeAll(Arrays.asList("items", "plain", "price"));
+        Assert.assertEquals(JSON.toJSONString(eager), JSON.toJSONString(object));
+    }
+
+    public void test_concurrent_get() throws Exception {
+        StringBuilder buf = new StringBuilder("{");
+        for (int i = 0; i < 100; ++i) {
+            buf.append("\"k").append(i).append("\":{\"v\":[").append(i).append(",\"s\"]},");
+        }
+        final String text = buf.append("\"end\":1}").toString();
+        final String expected = JSON.toJSONString(JSON.parseObject(text, Feature.OrderedField));
+
+        for (int n = 0; n < 200; ++n) {
+            final JSONObject object = JSON.parseLazyObject(text);
+            final CountDownLatch start = new CountDownLatch(1);
+            final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+            Thread[] threads = new Thread[4];
+            for (int i = 0; i < threads.length; ++i) {
+                threads[i] = new Thread() {
+
+                    public void run() {
+                        try {
+                            start.await();
+                            for (String key : object.keySet()) {
+                                object.get(key);
+                            }
+                            Assert.assertEquals(expected, JSON.toJSONString(object));
+                        } catch (Throwable ex) {
+                            error.set(ex);
+                        }
+                    }
+                };
+                threads[i].start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            if (error.get() != null) {
+                throw new AssertionError(error.get());
+            }
+            Assert.assertNull(getText(object));
+        }
+    }
+
+    private static Object getText(JSONObject object) throws Exception {
+        Field field = object.getInnerMap().getClass().getDeclaredField("text");
+        field.setAccessible(true);
+        return field.get(object.getInnerMap());
+    }
+
+    public void test_serializable() throws Exception {
+        JSONObject object = JSON.parseLazyObject(TEXT);
+
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        ObjectOutputStream objOut = new ObjectOutputStream(bytesOut);
+        objOut.writeObject(object);
+        objOut.flush();
+
+        ObjectInputStream objIn = new ObjectInputStream(new ByteArrayInputStream(bytesOut.toByteArray()));
+        JSONObject copy = (JSONObject) objIn.readObject();
+        Assert.assertEquals(JSON.toJSONString(object), JSON.toJSONString(copy));
+    }
+
+    public void test_non_standard() throws Exception {
+        JSONObject object = JSON.parseLazyObject("{'id':1,name:'x'}");
+        Assert.assertEquals(1, object.getIntValue("id"));
+        Assert.assertEquals("x", object.getString("name"));
+
+        Assert.assertNull(JSON.parseLazyObject("null"));
+        Assert.assertNull(JSON.parseLazyObject(null));
+    }
+
+    public void test_error() throws Exception {
+        Exception error = null;
+        try {
+            JSON.parseLazyObject("{\"id\":1,\"items\":[1,2}");
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        Assert.assertNotNull(error);
+    }
+}
@@ -0,0 +1,190 @@
+package com.alibaba.json.bvt.asm;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.annotation.JSONType;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.JavaBeanDeserializer;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.serializer.JavaBeanSerializer;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.PropertyFilter;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
+import com.alibaba.fastjson.serializer.ValueFilter;
+import com.alibaba.fastjson.util.ASMClassLoader;
+
+public class NonPublicBeanASMTest extends TestCase {
+
+    public void test_private_nested() throws Exception {
+        SerializeConfig serializeConfig = new SerializeConfig();
+        ParserConfig parserConfig = new ParserConfig();
+
+        ObjectSerializer serializer = serializeConfig.getObjectWriter(Model.class);
+        Assert.assertNotSame(JavaBeanSerializer.class, serializer.getClass());
+        Assert.assertEquals(Model.class.getPackage(), serializer.getClass().getPackage());
+        Assert.assertSame(Model.class.getClassLoader(), serializer.getClass().getClassLoader());
+
+        ObjectDeserializer deserializer = parserConfig.getDeserializer(Model.class);
+        Assert.assertNotSame(JavaBeanDeserializer.class, deserializer.getClass());
+        Assert.assertEquals(Model.class.getPackage(), deserializer.getClass().getPackage());
+
+        Model model = new Model();
+        model.setId(1001);
+        model.setName("wenshao");
+        model.getValues().add(3);
+
+        String text = JSON.toJSONString(model, serializeConfig);
+        Assert.assertEquals("{\"id\":1001,\"name\":\"wenshao\",\"values\":[3]}", text);
+
+        Model model2 = JSON.parseObject(text, Model.class, parserConfig);
+        Assert.assertEquals(1001, model2.getId());
+        Assert.assertEquals("wenshao", model2.getName());
+        Assert.assertEquals(3, model2.getValues().get(0).intValue());
+
+        Assert.assertFalse(serializeConfig.getReflectiveClasses().containsKey(Model.class.getName()));
+        Assert.assertFalse(parserConfig.getReflectiveClasses().containsKey(Model.class.getName()));
+    }
+
+    public void test_package_private() throws Exception {
+        SerializeConfig serializeConfig = new SerializeConfig();
+        ParserConfig parserConfig = new ParserConfig();
+
+        Assert.assertNotSame(JavaBeanSerializer.class, serializeConfig.getObjectWriter(NonPublicBeanASMTest_Item.class).getClass());
+        Assert.assertNotSame(JavaBeanDeserializer.class, parserConfig.getDeserializer(NonPublicBeanASMTest_Item.class).getClass());
+
+        NonPublicBeanASMTest_Item item = new NonPublicBeanASMTest_Item();
+        item.value = 12L;
+        String text = JSON.toJSONString(item, serializeConfig);
+        Assert.assertEquals("{\"value\":12}", text);
+        NonPublicBeanASMTest_Item item2 = JSON.parseObject(text, NonPublicBeanASMTest_Item.class, parserConfig);
+        Assert.assertEquals(12L, item2.value);
+    }
+
+    public void test_unload() throws Exception {
+        if (!ASMClassLoader.isHiddenClassSupported()) {
+            SerializeConfig serializeConfig = new SerializeConfig();
+            ParserConfig parserConfig = new ParserConfig();
+            Assert.assertSame(JavaBeanSerializer.class, serializeConfig.getObjectWriter(NonPublicBeanASMTest_Item.class).getClass());
+            Assert.assertSame(JavaBeanDeserializer.class, parserConfig.getDeserializer(NonPublicBeanASMTest_Item.class).getClass());
+            return;
+        }
+
+        WeakReference<Class<?>> serializerClass = new WeakReference<Class<?>>(new SerializeConfig().getObjectWriter(NonPublicBeanASMTest_Item.class).getClass());
+        WeakReference<Class<?>> deserializerClass = new WeakReference<Class<?>>(new ParserConfig().getDeserializer(NonPublicBeanASMTest_Item.class).getClass());
+        Assert.assertNotSame(JavaBeanSerializer.class, serializerClass.get());
+        Assert.assertNotSame(JavaBeanDeserializer.class, deserializerClass.get());
+
+        for (int i = 0; i < 10 && (serializerClass.get() != null || deserializerClass.get() != null); ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(serializerClass.get());
+        Assert.assertNull(deserializerClass.get());
+    }
+
+    public void test_beanToArray_filter() throws Exception {
+        SerializeConfig serializeConfig = new SerializeConfig();
+        SerializeConfig reflectiveConfig = new SerializeConfig();
+        reflectiveConfig.setAsmEnable(false);
+        Assert.assertNotSame(JavaBeanSerializer.class, serializeConfig.getObjectWriter(NonPublicBeanASMTest_Bean.class).getClass());
+
+        NonPublicBeanASMTest_Bean bean = new NonPublicBeanASMTest_Bean();
+        bean.child = new NonPublicBeanASMTest_Bean();
+        bean.items.add(new NonPublicBeanASMTest_Bean());
+
+        SerializeFilter[] filters = {
+            new SimplePropertyPreFilter("id", "child", "items"), //
+            new PropertyFilter() {
+
+                public boolean apply(Object object, String name, Object value) {
+                    return !"items".equals(name);
+                }
+            }, //
+            new ValueFilter() {
+
+                public Object process(Object object, String name, Object value) {
+                    return "id".equals(name) ? "#" + value : value;
+                }
+            } };
+
+        String text = JSON.toJSONString(bean, serializeConfig, filters[0], SerializerFeature.BeanToArray);
+        Assert.assertFalse(text, text.contains("2.5"));
+
+        for (SerializeFilter filter : filters) {
+            Assert.assertEquals(JSON.toJSONString(bean, reflectiveConfig, filter, SerializerFeature.BeanToArray),
+                                JSON.toJSONString(bean, serializeConfig, filter, SerializerFeature.BeanToArray));
+        }
+    }
+
+    public void test_reflective_report() throws Exception {
+        SerializeConfig serializeConfig = new SerializeConfig();
+        ParserConfig parserConfig = new ParserConfig();
+
+        Assert.assertSame(JavaBeanSerializer.class, serializeConfig.getObjectWriter(NonAsmModel.class).getClass());
+        Assert.assertSame(JavaBeanDeserializer.class, parserConfig.getDeserializer(NonAsmModel.class).getClass());
+
+        Assert.assertEquals("JSONType.asm false", serializeConfig.getReflectiveClasses().get(NonAsmModel.class.getName()));
+        Assert.assertEquals("JSONType.asm false", parserConfig.getReflectiveClasses().get(NonAsmModel.class.getName()));
+    }
+
+    private static class Model {
+
+        private int           id;
+        private String        name;
+        private List<Integer> values = new ArrayList<Integer>();
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<Integer> getValues() {
+            return values;
+        }
+
+        public void setValues(List<Integer> values) {
+            this.values = values;
+        }
+    }
+
+    @JSONType(asm = false)
+    public static class NonAsmModel {
+
+        public int id;
+    }
+}
+
+class NonPublicBeanASMTest_Item {
+
+    public long value;
+}
+
+class NonPublicBeanASMTest_Bean {
+
+    public int                             id    = 1;
+    public String                          name  = "n";
+    public double                          score = 2.5;
+    public NonPublicBeanASMTest_Bean       child;
+    public List<NonPublicBeanASMTest_Bean> items = new ArrayList<NonPublicBeanASMTest_Bean>();
+}
@@ -0,0 +1,121 @@
+package com.alibaba.json.bvt.parser;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONReader;
+import com.alibaba.fastjson.parser.Feature;
+
+public class DoubleParseTest_fast extends TestCase {
+
+    private static final String[] TEXTS = { "0", "-0.0", "1.5", "1.50", "0.1", "0.000123", "1e23", "8.41e21", "1E-3",
+            "9007199254740993", "9007199254740992.5", "123456789012345678901234567890", "0.30000000000000004",
+            "2.2250738585072011e-308", "4.9e-324", "2.4703282292062327e-324", "1.7976931348623157e308",
+            "1.7976931348623159e308", "1e400", "1e-400", "3.4028235e38", "1.4e-45", "7.038531e-26",
+            "16777217", "1234567891", "9999999999999999999", "-999999999999999999.9",
+            "0.00000000000000000000000000000000000000000000000000000000000000001",
+            "1.0000000000000001110223024625156540423631668090820312500000000000001", "-12345.6789e-3" };
+
+    public void test_texts() throws Exception {
+        for (String text : TEXTS) {
+            check(text);
+        }
+    }
+
+    public void test_random() throws Exception {
+        Random random = new Random(2);
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 20000; ++i) {
+            buf.setLength(0);
+            if (random.nextBoolean()) {
+                buf.append('-');
+            }
+            int digits = 1 + random.nextInt(24);
+            int dot = random.nextInt(digits + 1);
+            for (int j = 0; j < digits; ++j) {
+                if (j == dot && j != 0) {
+                    buf.append('.');
+                }
+                buf.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextInt(4) == 0) {
+                buf.append(random.nextBoolean() ? 'e' : 'E').append(random.nextInt(80) - 40);
+            }
+            check(buf.toString());
+        }
+
+        for (int i = 0; i < 20000; ++i) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(d) && !Double.isInfinite(d)) {
+                check(Double.toString(d));
+            }
+
+            float f = Float.intBitsToFloat(random.nextInt());
+            if (!Float.isNaN(f) && !Float.isInfinite(f)) {
+                check(Float.toString(f));
+            }
+        }
+    }
+
+    public void test_suffix() throws Exception {
+        List<Object> list = JSON.parseArray("[1.5F,2.25D,0.1F]");
+        Assert.assertEquals(1.5F, list.get(0));
+        Assert.assertEquals(2.25D, list.get(1));
+        Assert.assertEquals(0.1F, list.get(2));
+    }
+
+    private static void check(String text) {
+        double d = Double.parseDouble(text);
+        float f = Float.parseFloat(text);
+        BigDecimal decimal = new BigDecimal(text);
+
+        String json = "{\"d\":" + text + ",\"f\":" + text + ",\"v\":" + text + ",\"values\":[" + text + "," + text
+                      + "]}";
+        assertModel(text, d, f, decimal, JSON.parseObject(json, Model.class));
+        assertModel(text, d, f, decimal, JSON.parseObject(json.replace(":" + text, ":\"" + text + "\""), Model.class));
+
+        String reordered = "{\"v\":" + text + ",\"values\":[" + text + "],\"f\":" + text + ",\"d\":" + text + "}";
+        assertModel(text, d, f, decimal, JSON.parseObject(reordered, Model.class));
+
+        JSONReader reader = new JSONReader(new StringReader(json));
+        assertModel(text, d, f, decimal, reader.readObject(Model.class));
+        reader.close();
+
+        Object value = JSON.parse(text);
+        if (value instanceof BigDecimal) {
+            Assert.assertEquals(text, decimal, value);
+        }
+
+        int features = JSON.DEFAULT_PARSER_FEATURE & ~Feature.UseBigDecimal.mask;
+        value = JSON.parse(text, features);
+        if (value instanceof Double) {
+            Assert.assertTrue(text, value.equals(d));
+        }
+
+        JSONArray array = (JSONArray) JSON.parse("[" + text + ",0.5]", Feature.PrimitiveNumberArray);
+        Assert.assertTrue(text, array.getDoubleValue(0) == d);
+    }
+
+    private static void assertModel(String text, double d, float f, BigDecimal decimal, Model model) {
+        Assert.assertTrue(text, Double.valueOf(d).equals(model.d));
+        Assert.assertTrue(text, Float.valueOf(f).equals(model.f));
+        Assert.assertEquals(text, decimal, model.v);
+        Assert.assertTrue(text, Float.valueOf(f).equals(model.values[0]));
+    }
+
+    public static class Model {
+
+        public double     d;
+        public float      f;
+        public BigDecimal v;
+        public float[]    values;
+    }
+}
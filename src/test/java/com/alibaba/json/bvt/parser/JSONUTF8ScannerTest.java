@@ -0,0 +1,175 @@
+package com.alibaba.json.bvt.parser;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.JSONUTF8Scanner;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.IOUtils;
+
+public class JSONUTF8ScannerTest extends TestCase {
+
+    public void test_ascii() throws Exception {
+        String text = "{\"id\":123,\"name\":\"wenshao\",\"rate\":3.5,\"ok\":true,\"items\":[1,2,3]}";
+        JSONObject object = (JSONObject) JSON.parse(text.getBytes("UTF-8"));
+        Assert.assertEquals(JSON.parse(text), object);
+    }
+
+    public void test_non_ascii() throws Exception {
+        String text = "{\"名字\":\"温少\",\"emoji\":\"😀\",\"mixed\":\"a\\\"中\\u6587\\n\"}";
+        JSONObject object = JSON.parseObject(text.getBytes("UTF-8"), JSONObject.class);
+        Assert.assertEquals("温少", object.get("名字"));
+        Assert.assertEquals("😀", object.get("emoji"));
+        Assert.assertEquals("a\"中文\n", object.get("mixed"));
+        Assert.assertEquals(JSON.parse(text), object);
+    }
+
+    public void test_escaped_key() throws Exception {
+        String text = "{\"k\\u00e9y\":1,\"é\\t\":2}";
+        JSONObject object = (JSONObject) JSON.parse(text.getBytes("UTF-8"));
+        Assert.assertEquals(1, object.get("kéy"));
+        Assert.assertEquals(2, object.get("é\t"));
+    }
+
+    public void test_unquoted_key() throws Exception {
+        String[] texts = { "{中文:1}", //
+                "{a中b:1,😀x:2, 名字 :'温少'}", //
+                "[{键:{值_1:[1,{文:null}]}}]", //
+                "{key$:1,_k2:2}", //
+                "{é:1}", //
+                "{aé:1}", //
+                "{1中:1}" };
+
+        for (String text : texts) {
+            Object expected, actual;
+            try {
+                expected = JSON.parse(text);
+            } catch (Exception ex) {
+                expected = ex.getClass();
+            }
+            try {
+                actual = JSON.parse(text.getBytes("UTF-8"));
+            } catch (Exception ex) {
+                actual = ex.getClass();
+            }
+            Assert.assertEquals(text, expected, actual);
+        }
+
+        JSONObject object = JSON.parseObject("{中文:1}".getBytes("UTF-8"), JSONObject.class);
+        Assert.assertEquals(1, object.get("中文"));
+    }
+
+    public void test_bean() throws Exception {
+        VO vo = new VO();
+        vo.setId(1001);
+        vo.setName("中文\"quoted\"\\");
+        vo.setLevel(Level.高);
+        vo.setValue(new BigDecimal("12.345"));
+        vo.setData("ABC".getBytes("UTF-8"));
+
+        byte[] bytes = JSON.toJSONBytes(vo);
+        VO vo2 = JSON.parseObject(bytes, VO.class);
+        Assert.assertEquals(vo.getId(), vo2.getId());
+        Assert.assertEquals(vo.getName(), vo2.getName());
+        Assert.assertEquals(vo.getLevel(), vo2.getLevel());
+        Assert.assertEquals(vo.getValue(), vo2.getValue());
+        Assert.assertEquals("ABC", new String(vo2.getData(), "UTF-8"));
+    }
+
+    public void test_bean_list() throws Exception {
+        String text = "[{\"name\":\"张三\",\"id\":1},{\"id\":2,\"name\":\"li\\u56db\"}]";
+        DefaultJSONParser parser = new DefaultJSONParser(new JSONUTF8Scanner(text.getBytes("UTF-8")), ParserConfig.getGlobalInstance());
+        List<VO> list = parser.parseArray(VO.class);
+        parser.close();
+
+        Assert.assertEquals(2, list.size());
+        Assert.assertEquals("张三", list.get(0).getName());
+        Assert.assertEquals("li四", list.get(1).getName());
+    }
+
+    public void test_offset_bom_single_quote() throws Exception {
+        byte[] json = "{'中':'文'}".getBytes("UTF-8");
+        byte[] bytes = new byte[json.length + 5];
+        bytes[0] = 'x';
+        bytes[1] = (byte) 0xEF;
+        bytes[2] = (byte) 0xBB;
+        bytes[3] = (byte) 0xBF;
+        System.arraycopy(json, 0, bytes, 4, json.length);
+        bytes[bytes.length - 1] = 'x';
+
+        JSONObject object = JSON.parseObject(bytes, 1, bytes.length - 2, IOUtils.UTF8, JSONObject.class, Feature.AllowSingleQuotes);
+        Assert.assertEquals("文", object.get("中"));
+    }
+
+    public void test_illegal_utf8() throws Exception {
+        byte[] bytes = new byte[] { '"', (byte) 0xC3, '"' };
+        Exception error = null;
+        try {
+            JSON.parse(bytes);
+        } catch (Exception ex) {
+            error = ex;
+        }
+        Assert.assertNotNull(error);
+    }
+
+    public static class VO {
+
+        private int        id;
+        private String     name;
+        private Level      level;
+        private BigDecimal value;
+        private byte[]     data;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        public void setLevel(Level level) {
+            this.level = level;
+        }
+
+        public BigDecimal getValue() {
+            return value;
+        }
+
+        public void setValue(BigDecimal value) {
+            this.value = value;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public void setData(byte[] data) {
+            this.data = data;
+        }
+    }
+
+    public static enum Level {
+        低, 高
+    }
+}
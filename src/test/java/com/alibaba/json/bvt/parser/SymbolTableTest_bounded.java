@@ -0,0 +1,64 @@
+package com.alibaba.json.bvt.parser;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.SymbolTable;
+
+public class SymbolTableTest_bounded extends TestCase {
+
+    public void test_bounded() throws Exception {
+        SymbolTable table = new SymbolTable(16);
+        table.setStatEnabled(true);
+
+        String name = addSymbol(table, "name");
+        for (int i = 0; i < 1000; ++i) {
+            Assert.assertSame(name, addSymbol(table, "name"));
+            addSymbol(table, "key_" + Integer.toHexString(i * 7919) + "_x");
+        }
+
+        Assert.assertTrue(table.size() <= 16);
+        Assert.assertSame("$ref", addSymbol(table, "$ref"));
+        Assert.assertSame(JSON.DEFAULT_TYPE_KEY, addSymbol(table, JSON.DEFAULT_TYPE_KEY));
+
+        Assert.assertTrue(table.getEvictionCount() > 0);
+        Assert.assertTrue(table.getHitCount() >= 1000);
+        Assert.assertTrue(table.getMissCount() >= 1000);
+    }
+
+    public void test_cacheable() throws Exception {
+        SymbolTable table = new SymbolTable(512);
+
+        for (String key : new String[] { "x1", "y2", "id1", "md5", "lat1", "lng2", "sha256", "v1Name", "item2Price" }) {
+            String symbol = addSymbol(table, key);
+            Assert.assertEquals(key, symbol);
+            Assert.assertSame(key, symbol, addSymbol(table, key));
+        }
+    }
+
+    public void test_not_cacheable() throws Exception {
+        SymbolTable table = new SymbolTable(512);
+
+        for (String key : new String[] { "3f2504e0-4f89-11d3-9a0c-0305e82c3301", "3f2504e04f8911d39a0c0305e82c3301",
+                                         "1516000000000" }) {
+            String symbol = addSymbol(table, key);
+            Assert.assertEquals(key, symbol);
+            Assert.assertNotSame(symbol, addSymbol(table, key));
+        }
+
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i <= SymbolTable.MAX_SYMBOL_LENGTH; ++i) {
+            buf.append('a');
+        }
+        String longKey = buf.toString();
+        Assert.assertNotSame(addSymbol(table, longKey), addSymbol(table, longKey));
+
+        Assert.assertEquals(2, table.size());
+    }
+
+    private static String addSymbol(SymbolTable table, String symbol) {
+        return table.addSymbol(symbol.toCharArray(), 0, symbol.length());
+    }
+}
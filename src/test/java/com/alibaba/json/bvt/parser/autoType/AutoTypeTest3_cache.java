@@ -0,0 +1,67 @@
+package com.alibaba.json.bvt.parser.autoType;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.ParserConfig;
+import junit.framework.TestCase;
+
+public class AutoTypeTest3_cache extends TestCase {
+    public void test_cache() throws Exception {
+        ParserConfig config = new ParserConfig();
+        config.setAutoTypeSupport(true);
+
+        String text = "{\"@type\":\"com.alibaba.json.bvt.parser.autoType.AutoTypeTest3_cache$Model\",\"id\":123}";
+        for (int i = 0; i < 3; ++i) {
+            Model model = (Model) JSON.parseObject(text, Object.class, config);
+            assertEquals(123, model.id);
+        }
+
+        config.addDeny("com.alibaba.json.bvt.parser.autoType.AutoTypeTest3_cache");
+
+        Exception error = null;
+        try {
+            JSON.parseObject(text, Object.class, config);
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        assertNotNull(error);
+        assertTrue(error.getMessage().startsWith("autoType is not support"));
+    }
+
+    public void test_deny_during_check() throws Exception {
+        final ParserConfig config = new ParserConfig();
+        config.setAutoTypeSupport(true);
+
+        final String typeName = "com.alibaba.json.bvt.parser.autoType.AutoTypeTest3_cache$Model2";
+        config.setDefaultClassLoader(new ClassLoader(AutoTypeTest3_cache.class.getClassLoader()) {
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (typeName.equals(name)) {
+                    config.addDeny("com.alibaba.json.bvt.parser.autoType.AutoTypeTest3_cache"); // 另一个线程在检查的过程中修改黑名单
+                }
+                return super.loadClass(name, resolve);
+            }
+        });
+
+        try {
+            config.checkAutoType(typeName, null);
+        } catch (JSONException ex) {
+            // skip
+        }
+
+        Exception error = null;
+        try {
+            config.checkAutoType(typeName, null);
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        assertNotNull(error);
+    }
+
+    public static class Model {
+        public int id;
+    }
+
+    public static class Model2 {
+        public int id;
+    }
+}
@@ -0,0 +1,91 @@
+package com.alibaba.json.bvt.parser.deser;
+
+import java.util.List;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.annotation.JSONType;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.ParserConfig;
+
+public class FieldHashMatchTest extends TestCase {
+
+    private ParserConfig asmConfig;
+    private ParserConfig reflectConfig;
+
+    protected void setUp() throws Exception {
+        asmConfig = new ParserConfig();
+        reflectConfig = new ParserConfig();
+        reflectConfig.setAsmEnable(false);
+    }
+
+    public void test_reverse_order() throws Exception {
+        String text = "{\"value\":0.5,\"ts\":1234567890123,\"tags\":[\"a\",\"b\"],\"ok\":true,\"name\":\"cpu\",\"id\":7,\"host\":\"h1\"}";
+        for (ParserConfig config : new ParserConfig[] { asmConfig, reflectConfig }) {
+            Model model = JSON.parseObject(text, Model.class, config);
+            assertModel(model);
+        }
+    }
+
+    public void test_unknown_and_duplicate() throws Exception {
+        String text = "{\"name\":\"x\",\"unknown\":{\"id\":1},\"id\":7,\"host\":\"h1\",\"name\":\"cpu\",\"ts\":1234567890123,\"x\":1,\"value\":0.5,\"ok\":true,\"tags\":[\"a\",\"b\"]}";
+        for (ParserConfig config : new ParserConfig[] { asmConfig, reflectConfig }) {
+            Model model = JSON.parseObject(text, Model.class, config, Feature.IgnoreNotMatch);
+            assertModel(model);
+        }
+    }
+
+    public void test_escaped_key() throws Exception {
+        String text = "{\"ok\":true,\"n\\u0061me\":\"cpu\",\"id\":7}";
+        for (ParserConfig config : new ParserConfig[] { asmConfig, reflectConfig }) {
+            Model model = JSON.parseObject(text, Model.class, config);
+            Assert.assertEquals("cpu", model.name);
+            Assert.assertEquals(7, model.id);
+            Assert.assertTrue(model.ok);
+        }
+    }
+
+    public void test_type_key() throws Exception {
+        String text = "{\"x\":1,\"kind\":\"cat\",\"id\":3}";
+        for (ParserConfig config : new ParserConfig[] { asmConfig, reflectConfig }) {
+            Animal animal = JSON.parseObject(text, Animal.class, config);
+            Assert.assertEquals(Cat.class, animal.getClass());
+            Assert.assertEquals(3, animal.id);
+        }
+    }
+
+    private static void assertModel(Model model) {
+        Assert.assertEquals(7, model.id);
+        Assert.assertEquals(1234567890123L, model.ts);
+        Assert.assertEquals("cpu", model.name);
+        Assert.assertEquals("h1", model.host);
+        Assert.assertEquals(0.5D, model.value, 0D);
+        Assert.assertTrue(model.ok);
+        Assert.assertEquals(2, model.tags.size());
+    }
+
+    public static class Model {
+
+        public int          id;
+        public long         ts;
+        public String       name;
+        public String       host;
+        public double       value;
+        public boolean      ok;
+        public List<String> tags;
+    }
+
+    @JSONType(typeKey = "kind", seeAlso = { Cat.class })
+    public static class Animal {
+
+        public int    id;
+        public String kind;
+    }
+
+    @JSONType(typeName = "cat")
+    public static class Cat extends Animal {
+    }
+}
@@ -0,0 +1,104 @@
+package com.alibaba.json.bvt.parser.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.TypeReference;
+
+public class InputStreamParseTest extends TestCase {
+
+    public void test_small() throws Exception {
+        byte[] bytes = "{\"id\":1,\"name\":\"中文\"}".getBytes("UTF-8");
+        TrackingInputStream in = new TrackingInputStream(bytes, 7);
+
+        VO vo = JSON.parseObject(in, VO.class);
+        Assert.assertEquals(1, vo.getId());
+        Assert.assertEquals("中文", vo.getName());
+        Assert.assertFalse(in.closed);
+    }
+
+    public void test_large() throws Exception {
+        List<VO> list = new ArrayList<VO>();
+        for (int i = 0; i < 20000; ++i) {
+            VO vo = new VO();
+            vo.setId(i);
+            vo.setName("名字\"" + i);
+            list.add(vo);
+        }
+        byte[] bytes = JSON.toJSONBytes(list);
+        Assert.assertTrue(bytes.length > 1024 * 64 * 3);
+
+        TrackingInputStream in = new TrackingInputStream(bytes, 1000);
+        List<VO> list2 = JSON.parseObject(in, new TypeReference<List<VO>>() {}.getType());
+        Assert.assertEquals(list.size(), list2.size());
+        for (int i = 0; i < list.size(); ++i) {
+            Assert.assertEquals(list.get(i).getId(), list2.get(i).getId());
+            Assert.assertEquals(list.get(i).getName(), list2.get(i).getName());
+        }
+        Assert.assertFalse(in.closed);
+    }
+
+    public void test_large_untyped() throws Exception {
+        StringBuilder buf = new StringBuilder("{\"values\":[");
+        for (int i = 0; i < 50000; ++i) {
+            if (i != 0) {
+                buf.append(',');
+            }
+            buf.append("{\"k\":").append(i).append('}');
+        }
+        buf.append("]}");
+
+        JSONObject object = JSON.parseObject(new TrackingInputStream(buf.toString().getBytes("UTF-8"), 4096), JSONObject.class);
+        Assert.assertEquals(50000, object.getJSONArray("values").size());
+        Assert.assertEquals(49999, object.getJSONArray("values").getJSONObject(49999).getIntValue("k"));
+    }
+
+    static class TrackingInputStream extends ByteArrayInputStream {
+
+        private final int chunk;
+        boolean           closed;
+
+        TrackingInputStream(byte[] bytes, int chunk){
+            super(bytes);
+            this.chunk = chunk;
+        }
+
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, chunk));
+        }
+
+        public void close() throws IOException {
+            closed = true;
+        }
+    }
+
+    public static class VO {
+
+        private int    id;
+        private String name;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
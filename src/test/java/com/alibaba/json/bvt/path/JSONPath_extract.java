@@ -0,0 +1,66 @@
+package com.alibaba.json.bvt.path;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONPath;
+
+public class JSONPath_extract extends TestCase {
+
+    static final String json = "{\"header\":{\"id\":1001,\"type\":\"order\",\"tags\":[\"a\",\"b\"]}," //
+                               + "\"skip\":{\"x\":[1,{\"y\":\"}]\"},[]],\"z\":null}," //
+                               + "\"items\":[{\"id\":1,\"price\":10.5,\"name\":\"x1\"},{\"id\":2,\"price\":20,\"name\":\"x2\"}," //
+                               + "{\"id\":3,\"price\":30,\"name\":\"y3\"},{\"id\":4,\"price\":40,\"name\":\"y4\"}]," //
+                               + "\"count\":4}";
+
+    public void test_same_as_eval() throws Exception {
+        Object root = JSON.parse(json);
+        String[] paths = { "$", "$.header", "$.header.id", "$.header.tags[1]", "$.header.tags[5]", "$.missing.id",
+                           "$.items[2].name", "$.items[-1].id", "$.items[1:2]", "$.items[0:3:2].id",
+                           "$.items[?(@.price > 15)]", "$.items[?(@.name like 'y%')].id", "$.items.id",
+                           "$.items.size()", "$..id", "$.count", "$.skip.x[1].y", "$.items[*].price",
+                           "$.header['id','type']" };
+        for (String path : paths) {
+            Assert.assertEquals(path, JSON.toJSONString(JSONPath.eval(root, path)),
+                                JSON.toJSONString(JSONPath.extract(json, path)));
+        }
+    }
+
+    public void test_stop_early() throws Exception {
+        String truncated = "{\"header\":{\"id\":1001,\"type\":\"order\"},\"body\":[1,2,{\"unterminated";
+        Assert.assertEquals(1001, JSONPath.extract(truncated, "$.header.id"));
+        Assert.assertEquals(2, JSONPath.extract("[1,2,3,{", "$[1]"));
+
+        List<?> items = (List<?>) JSONPath.extract("[{\"a\":1},{\"a\":2},{\"a\":3},", "$[0:1]");
+        Assert.assertEquals(2, items.size());
+        Assert.assertEquals(2, ((JSONObject) items.get(1)).get("a"));
+    }
+
+    public void test_read() throws Exception {
+        String duplicate = "{\"role\":\"user\",\"role\":\"admin\"}";
+        Assert.assertEquals("admin", JSONPath.read(duplicate, "$.role"));
+        Assert.assertEquals(JSON.parseObject(duplicate).get("role"), JSONPath.read(duplicate, "$.role"));
+        Assert.assertEquals("user", JSONPath.extract(duplicate, "$.role"));
+
+        Assert.assertEquals(1, JSONPath.extract("{\"a\":1} xx", "$.a"));
+        Exception error = null;
+        try {
+            JSONPath.read("{\"a\":1} xx", "$.a");
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        Assert.assertNotNull(error);
+    }
+
+    public void test_null() throws Exception {
+        Assert.assertNull(JSONPath.extract(null, "$.id"));
+        Assert.assertNull(JSONPath.extract("{\"id\":null}", "$.id"));
+        Assert.assertNull(JSONPath.extract("{\"id\":1}", "$[0]"));
+    }
+}
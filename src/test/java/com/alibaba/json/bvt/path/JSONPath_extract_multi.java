@@ -0,0 +1,63 @@
+package com.alibaba.json.bvt.path;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONPath;
+
+public class JSONPath_extract_multi extends TestCase {
+
+    static final String json = "{\"header\":{\"id\":1001,\"type\":\"order\",\"tags\":[\"a\",\"b\"]}," //
+                               + "\"skip\":{\"x\":[1,{\"y\":\"}]\"},[]],\"z\":null}," //
+                               + "\"items\":[{\"id\":1,\"price\":10.5},{\"id\":2,\"price\":20},{\"id\":3,\"price\":30}]," //
+                               + "\"count\":3}";
+
+    static final JSONPath[] paths = { JSONPath.compile("$.header.id"), //
+                                      JSONPath.compile("$.header.type"), //
+                                      JSONPath.compile("$.header"), //
+                                      JSONPath.compile("$.header.tags[1]"), //
+                                      JSONPath.compile("$.items[2].price"), //
+                                      JSONPath.compile("$.items[0]"), //
+                                      JSONPath.compile("$.items[9].id"), //
+                                      JSONPath.compile("$.items[-1].id"), //
+                                      JSONPath.compile("$.items[?(@.price > 15)].id"), //
+                                      JSONPath.compile("$.items.size()"), //
+                                      JSONPath.compile("$.missing.id"), //
+                                      JSONPath.compile("$.skip.x[1].y"), //
+                                      JSONPath.compile("$..id"), //
+                                      JSONPath.compile("$.count"), //
+                                      JSONPath.compile("$") };
+
+    public void test_same_as_eval() throws Exception {
+        Object root = JSON.parse(json);
+        String[] expected = new String[paths.length];
+        for (int i = 0; i < paths.length; ++i) {
+            expected[i] = JSON.toJSONString(paths[i].eval(root));
+        }
+
+        Object[] inputs = { json, json.getBytes("UTF-8"), root };
+        for (Object input : inputs) {
+            Object[] results = JSONPath.extract(input, paths);
+            Assert.assertEquals(paths.length, results.length);
+            for (int i = 0; i < paths.length; ++i) {
+                Assert.assertEquals(paths[i].getPath(), expected[i], JSON.toJSONString(results[i]));
+            }
+        }
+    }
+
+    public void test_stop_early() throws Exception {
+        String truncated = "{\"header\":{\"type\":\"order\",\"id\":1001},\"body\":[1,2,{\"unterminated";
+        Object[] results = JSONPath.extract(truncated, JSONPath.compile("$.header.id"), JSONPath.compile("$.header.type"));
+        Assert.assertEquals(1001, results[0]);
+        Assert.assertEquals("order", results[1]);
+    }
+
+    public void test_null() throws Exception {
+        Object[] results = JSONPath.extract(null, JSONPath.compile("$.id"));
+        Assert.assertEquals(1, results.length);
+        Assert.assertNull(results[0]);
+        Assert.assertEquals(0, JSONPath.extract(json).length);
+    }
+}
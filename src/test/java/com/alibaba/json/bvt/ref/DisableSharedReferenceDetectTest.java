@@ -0,0 +1,76 @@
+package com.alibaba.json.bvt.ref;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+public class DisableSharedReferenceDetectTest extends TestCase {
+
+    public void test_shared() throws Exception {
+        Node shared = new Node(2);
+        Node root = new Node(1);
+        root.children.add(shared);
+        root.children.add(shared);
+
+        Assert.assertEquals("{\"children\":[{\"children\":[],\"id\":2},{\"$ref\":\"$.children[0]\"}],\"id\":1}",
+                            JSON.toJSONString(root));
+        assertJSON("{\"children\":[{\"children\":[],\"id\":2},{\"children\":[],\"id\":2}],\"id\":1}", root);
+    }
+
+    public void test_cycle() throws Exception {
+        Node root = new Node(1);
+        Node child = new Node(2);
+        Node grandChild = new Node(3);
+        root.children.add(child);
+        child.children.add(grandChild);
+
+        child.children.add(child);
+        grandChild.children.add(child);
+        grandChild.children.add(root);
+
+        String text = JSON.toJSONString(root);
+        Assert.assertEquals("{\"children\":[{\"children\":[{\"children\":[{\"$ref\":\"$.children[0]\"},{\"$ref\":\"$\"}],\"id\":3},{\"$ref\":\"..\"}],\"id\":2}],\"id\":1}",
+                            text);
+        assertJSON(text, root);
+    }
+
+    public void test_self() throws Exception {
+        Node root = new Node(1);
+        root.parent = root;
+        Node child = new Node(2);
+        child.parent = root;
+        root.children.add(child);
+
+        String text = JSON.toJSONString(root);
+        Assert.assertEquals("{\"children\":[{\"children\":[],\"id\":2,\"parent\":{\"$ref\":\"$\"}}],\"id\":1,\"parent\":{\"$ref\":\"@\"}}",
+                            text);
+        assertJSON(text, root);
+    }
+
+    private void assertJSON(String expected, Object object) {
+        SerializeConfig asmConfig = new SerializeConfig();
+        SerializeConfig reflectConfig = new SerializeConfig();
+        reflectConfig.setAsmEnable(false);
+
+        Assert.assertEquals(expected, JSON.toJSONString(object, asmConfig, SerializerFeature.DisableSharedReferenceDetect));
+        Assert.assertEquals(expected, JSON.toJSONString(object, reflectConfig, SerializerFeature.DisableSharedReferenceDetect));
+    }
+
+    public static class Node {
+
+        public int        id;
+        public Node       parent;
+        public List<Node> children = new ArrayList<Node>();
+
+        public Node(int id){
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.alibaba.json.bvt.ref;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+
+public class ReferenceIndexTest extends TestCase {
+
+    public void test_bean() throws Exception {
+        Root root = JSON.parseObject(createText(), Root.class);
+        Assert.assertEquals(100, root.refs.size());
+        for (int i = 0; i < 100; ++i) {
+            Assert.assertSame(root.items.get(99 - i), root.refs.get(i));
+        }
+        Assert.assertSame(root.items.get(3), root.first);
+    }
+
+    public void test_map() throws Exception {
+        JSONObject root = JSON.parseObject(createText());
+        for (int i = 0; i < 100; ++i) {
+            Assert.assertSame(root.getJSONArray("items").get(99 - i), root.getJSONArray("refs").get(i));
+        }
+        Assert.assertSame(root.getJSONArray("items").get(3), root.get("first"));
+    }
+
+    public void test_popContext() throws Exception {
+        DefaultJSONParser parser = new DefaultJSONParser("");
+        Object root = new Object();
+        Object first = new Object();
+        Object second = new Object();
+
+        parser.setContext(root, null);
+        parser.setContext(first, "a");
+        Assert.assertSame(root, parser.getObject("$"));
+        Assert.assertSame(first, parser.getObject("$.a"));
+
+        parser.popContext();
+        Assert.assertNull(parser.getObject("$.a"));
+
+        parser.setContext(second, "a");
+        Assert.assertSame(second, parser.resolveReference("$.a"));
+        parser.close();
+    }
+
+    private static String createText() {
+        Root root = new Root();
+        for (int i = 0; i < 100; ++i) {
+            root.items.add(new Item(i));
+        }
+        for (int i = 0; i < 100; ++i) {
+            root.refs.add(root.items.get(99 - i));
+        }
+        root.first = root.items.get(3);
+        return JSON.toJSONString(root);
+    }
+
+    public static class Root {
+
+        public List<Item> items = new ArrayList<Item>();
+        public List<Item> refs  = new ArrayList<Item>();
+        public Item       first;
+    }
+
+    public static class Item {
+
+        public int id;
+
+        public Item(){
+        }
+
+        public Item(int id){
+            this.id = id;
+        }
+    }
+}
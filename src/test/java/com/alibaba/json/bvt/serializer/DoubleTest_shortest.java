@@ -0,0 +1,89 @@
+package com.alibaba.json.bvt.serializer;
+
+import java.util.Random;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.util.Schubfach;
+
+public class DoubleTest_shortest extends TestCase {
+
+    public void test_format() throws Exception {
+        Assert.assertEquals("0.0", toString(0D));
+        Assert.assertEquals("-0.0", toString(-0D));
+        Assert.assertEquals("1.0", toString(1D));
+        Assert.assertEquals("-1.5", toString(-1.5D));
+        Assert.assertEquals("0.001", toString(0.001D));
+        Assert.assertEquals("1.0E-4", toString(0.0001D));
+        Assert.assertEquals("9999999.0", toString(9999999D));
+        Assert.assertEquals("1.0E7", toString(1E7D));
+        Assert.assertEquals("1.0E23", toString(1E23D));
+        Assert.assertEquals("1.7976931348623157E308", toString(Double.MAX_VALUE));
+        Assert.assertEquals("4.9E-324", toString(Double.MIN_VALUE));
+        Assert.assertEquals("-2.2250738585072014E-308", toString(-Double.MIN_NORMAL));
+        Assert.assertEquals("123456.789", toString(123456.789D));
+
+        Assert.assertEquals("3.4028235E38", toString(Float.MAX_VALUE));
+        Assert.assertEquals("1.4E-45", toString(Float.MIN_VALUE));
+        Assert.assertEquals("-1.1754944E-38", toString(-Float.MIN_NORMAL));
+        Assert.assertEquals("0.1", toString(0.1F));
+        Assert.assertEquals("1.0E10", toString(1E10F));
+    }
+
+    public void test_round_trip() throws Exception {
+        Random random = new Random(1);
+        for (int i = 0; i < 100000; ++i) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(d) && !Double.isInfinite(d)) {
+                String text = toString(d);
+                Assert.assertTrue(text, Double.parseDouble(text) == d);
+                Assert.assertTrue(text, text.length() <= Double.toString(d).length());
+            }
+
+            float f = Float.intBitsToFloat(random.nextInt());
+            if (!Float.isNaN(f) && !Float.isInfinite(f)) {
+                String text = toString(f);
+                Assert.assertTrue(text, Float.parseFloat(text) == f);
+                Assert.assertTrue(text, text.length() <= Float.toString(f).length());
+            }
+        }
+    }
+
+    public void test_serialize() throws Exception {
+        Assert.assertEquals("[0.1,2.0,1.0E-5]", JSON.toJSONString(new double[] { 0.1, 2, 1E-5 }));
+        Assert.assertEquals("[0.1,2.0,null]", JSON.toJSONString(new float[] { 0.1F, 2, Float.NaN }));
+        Assert.assertEquals("{\"d\":2.5,\"f\":3}", JSON.toJSONString(new Model(2.5D, 3F),
+                                                                        SerializerFeature.WriteNullNumberAsZero));
+        Assert.assertEquals("[2.5D,3.0F]", JSON.toJSONString(new Object[] { 2.5D, 3F }, SerializerFeature.WriteClassName));
+    }
+
+    private static String toString(double value) {
+        char[] buf = new char[Schubfach.DOUBLE_MAX_CHARS + 1];
+        int end = Schubfach.toChars(value, buf, 1);
+        return new String(buf, 1, end - 1);
+    }
+
+    private static String toString(float value) {
+        char[] buf = new char[Schubfach.FLOAT_MAX_CHARS + 1];
+        int end = Schubfach.toChars(value, buf, 1);
+        return new String(buf, 1, end - 1);
+    }
+
+    public static class Model {
+
+        public double d;
+        public float  f;
+
+        public Model(){
+        }
+
+        public Model(double d, float f){
+            this.d = d;
+            this.f = f;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.alibaba.json.bvt.serializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.annotation.JSONType;
+import com.alibaba.fastjson.serializer.SerializeCache;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
+import com.alibaba.fastjson.serializer.ValueFilter;
+
+public class SerializeCacheTest extends TestCase {
+
+    public void test_cacheable() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        SerializeCache cache = config.getSerializeCache();
+
+        VO vo = new VO(1001, "中文\"", null);
+        String expected = JSON.toJSONString(vo);
+        Assert.assertEquals(expected, JSON.toJSONString(vo, config));
+        int size = cache.size();
+        Assert.assertTrue(size > 0);
+
+        Assert.assertEquals(expected, JSON.toJSONString(vo, config));
+        Assert.assertEquals(size, cache.size());
+
+        cache.remove(vo);
+        Assert.assertEquals(0, cache.size());
+    }
+
+    public void test_features() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        VO vo = new VO(1, "a", null);
+
+        Assert.assertEquals(JSON.toJSONString(vo), JSON.toJSONString(vo, config));
+        Assert.assertEquals(JSON.toJSONString(vo, SerializerFeature.WriteMapNullValue),
+                            JSON.toJSONString(vo, config, SerializerFeature.WriteMapNullValue));
+        Assert.assertEquals(JSON.toJSONString(vo, SerializerFeature.UseSingleQuotes),
+                            JSON.toJSONString(vo, config, SerializerFeature.UseSingleQuotes));
+        Assert.assertEquals(JSON.toJSONString(vo), JSON.toJSONString(vo, config));
+    }
+
+    public void test_bypass() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        SerializeCache cache = config.getSerializeCache();
+        VO vo = new VO(1, "a", null);
+
+        Assert.assertEquals(JSON.toJSONString(vo, SerializerFeature.PrettyFormat),
+                            JSON.toJSONString(vo, config, SerializerFeature.PrettyFormat));
+        Assert.assertEquals(JSON.toJSONString(vo, SerializerFeature.WriteClassName),
+                            JSON.toJSONString(vo, config, SerializerFeature.WriteClassName));
+
+        ValueFilter filter = new ValueFilter() {
+
+            public Object process(Object object, String name, Object value) {
+                return "id".equals(name) ? 2 : value;
+            }
+        };
+        Assert.assertEquals("{\"id\":2,\"name\":\"a\"}", JSON.toJSONString(vo, config, filter));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    public void test_reference() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        VO item = new VO(1, "a", null);
+        VO vo = new VO(2, "b", item);
+
+        List<Object> list = new ArrayList<Object>();
+        list.add(item);
+        list.add(vo);
+        list.add(item);
+
+        String expected = JSON.toJSONString(list);
+        Assert.assertEquals(expected, JSON.toJSONString(list, config));
+        Assert.assertEquals(expected, JSON.toJSONString(list, config));
+    }
+
+    public void test_reference_nested() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        VO shared = new VO(7, null, null);
+        VO vo = new VO(2, null, shared);
+
+        List<Object> list = new ArrayList<Object>();
+        list.add(vo);
+        list.add(shared);
+
+        String expected = "[{\"id\":2,\"item\":{\"id\":7}},{\"$ref\":\"$[0].item\"}]";
+        Assert.assertEquals(expected, JSON.toJSONString(list));
+        Assert.assertEquals(expected, JSON.toJSONString(list, config));
+        Assert.assertEquals(expected, JSON.toJSONString(list, config));
+
+        list.add(0, shared);
+        expected = JSON.toJSONString(list);
+        Assert.assertEquals(expected, JSON.toJSONString(list, config));
+        Assert.assertEquals(expected, JSON.toJSONString(list, config));
+    }
+
+    public void test_reference_disabled() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        SerializeCache cache = config.getSerializeCache();
+        VO vo = new VO(2, "b", new VO(1, "a", null));
+
+        for (SerializerFeature feature : new SerializerFeature[] { SerializerFeature.DisableCircularReferenceDetect,
+                SerializerFeature.DisableSharedReferenceDetect }) {
+            cache.clear();
+            String expected = JSON.toJSONString(vo, feature);
+            Assert.assertEquals(expected, JSON.toJSONString(vo, config, feature));
+            int size = cache.size();
+            Assert.assertTrue(size >= expected.length());
+            Assert.assertEquals(expected, JSON.toJSONString(vo, config, feature));
+            Assert.assertEquals(size, cache.size());
+        }
+    }
+
+    public void test_configCacheable() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        config.configCacheable(Model.class);
+
+        Model model = new Model();
+        model.id = 3;
+        Assert.assertEquals("{\"id\":3}", JSON.toJSONString(model, config));
+        Assert.assertTrue(config.getSerializeCache().size() > 0);
+        Assert.assertEquals("{\"id\":3}", JSON.toJSONString(model, config));
+
+        config.clearSerializers();
+        Assert.assertEquals(0, config.getSerializeCache().size());
+    }
+
+    public void test_class_filter() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        config.configCacheable(Node.class);
+        SimplePropertyPreFilter filter = new SimplePropertyPreFilter();
+        filter.setMaxLevel(1);
+        config.addFilter(Node.class, filter);
+
+        Node node = new Node(1, new Node(2, new Node(3, null)));
+        String expected = JSON.toJSONString(node, filter, SerializerFeature.DisableCircularReferenceDetect);
+        Assert.assertEquals(expected, JSON.toJSONString(node, config, SerializerFeature.DisableCircularReferenceDetect));
+        Assert.assertEquals(expected, JSON.toJSONString(node, config, SerializerFeature.DisableCircularReferenceDetect));
+        Assert.assertEquals(JSON.toJSONString(node.child, filter, SerializerFeature.DisableCircularReferenceDetect),
+                            JSON.toJSONString(node.child, config, SerializerFeature.DisableCircularReferenceDetect));
+        Assert.assertEquals(0, config.getSerializeCache().size());
+    }
+
+    public void test_nested_class_filter() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        SerializeCache cache = config.getSerializeCache();
+        config.addFilter(Model.class, new ValueFilter() {
+
+            public Object process(Object object, String name, Object value) {
+                return "id".equals(name) ? ((Integer) value) + 1 : value;
+            }
+        });
+
+        Model model = new Model();
+        model.id = 3;
+        Holder holder = new Holder();
+        holder.model = model;
+
+        Assert.assertEquals("{\"model\":{\"id\":4}}",
+                            JSON.toJSONString(holder, config, SerializerFeature.DisableCircularReferenceDetect));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    public void test_evict() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        SerializeCache cache = config.getSerializeCache();
+        cache.setMaxSize(64);
+
+        for (int i = 0; i < 100; ++i) {
+            VO vo = new VO(i, "name-" + i, null);
+            Assert.assertEquals(JSON.toJSONString(vo), JSON.toJSONString(vo, config));
+            Assert.assertTrue(cache.size() <= 64);
+        }
+
+        cache.setMaxSize(0);
+        Assert.assertEquals(0, cache.size());
+        JSON.toJSONString(new VO(1, "a", null), config);
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @JSONType(cacheable = true)
+    public static class VO {
+
+        private final int    id;
+        private final String name;
+        private final VO     item;
+
+        public VO(int id, String name, VO item){
+            this.id = id;
+            this.name = name;
+            this.item = item;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public VO getItem() {
+            return item;
+        }
+    }
+
+    public static class Model {
+
+        public int id;
+    }
+
+    @JSONType(cacheable = true)
+    public static class Holder {
+
+        public Model model;
+    }
+
+    public static class Node {
+
+        public final int  id;
+        public final Node child;
+
+        public Node(int id, Node child){
+            this.id = id;
+            this.child = child;
+        }
+    }
+}
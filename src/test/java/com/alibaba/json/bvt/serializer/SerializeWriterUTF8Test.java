@@ -0,0 +1,60 @@
+package com.alibaba.json.bvt.serializer;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.util.IOUtils;
+
+public class SerializeWriterUTF8Test extends TestCase {
+
+    public void test_ascii() throws Exception {
+        assertUTF8("{\"id\":123,\"name\":\"wenshao\"}");
+    }
+
+    public void test_non_ascii() throws Exception {
+        assertUTF8("{\"名字\":\"温少\",\"é\":\"ß\",\"emoji\":\"😀😁\"}");
+    }
+
+    public void test_large() throws Exception {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 10000; ++i) {
+            buf.append("中😀a").append(i); // surrogate pairs land on every chunk boundary offset
+        }
+        assertUTF8(buf.toString());
+
+        for (int i = 0; i < 8; ++i) {
+            buf.insert(0, 'x');
+            assertUTF8(buf.toString());
+        }
+    }
+
+    public void test_unpaired_high_surrogate_at_end() throws Exception {
+        SerializeWriter out = new SerializeWriter();
+        out.write("a\uD83D");
+        Assert.assertArrayEquals(new byte[] { 'a', '?' }, out.toBytes(IOUtils.UTF8));
+        out.close();
+    }
+
+    public void test_toJSONBytes() throws Exception {
+        String text = "中文😀";
+        Assert.assertArrayEquals(JSON.toJSONString(text).getBytes("UTF-8"), JSON.toJSONBytes(text));
+    }
+
+    private static void assertUTF8(String text) throws Exception {
+        byte[] expected = text.getBytes("UTF-8");
+
+        SerializeWriter out = new SerializeWriter();
+        out.write(text);
+        Assert.assertArrayEquals(expected, out.toBytes(IOUtils.UTF8));
+
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        Assert.assertEquals(expected.length, out.writeToEx(bytesOut, IOUtils.UTF8));
+        Assert.assertArrayEquals(expected, bytesOut.toByteArray());
+        out.close();
+    }
+}
@@ -0,0 +1,124 @@
+package com.alibaba.json.bvt.serializer.filters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.Labels;
+import com.alibaba.fastjson.serializer.PascalNameFilter;
+import com.alibaba.fastjson.serializer.PropertyPreFilter;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
+
+public class FieldFilterPlanTest extends TestCase {
+
+    private SerializeConfig asmConfig;
+    private SerializeConfig reflectConfig;
+
+    protected void setUp() throws Exception {
+        asmConfig = new SerializeConfig();
+        reflectConfig = new SerializeConfig();
+        reflectConfig.setAsmEnable(false);
+    }
+
+    public void test_includes() throws Exception {
+        List<Model> list = new ArrayList<Model>();
+        for (int i = 0; i < 3; ++i) {
+            list.add(new Model(i));
+        }
+
+        SimplePropertyPreFilter filter = new SimplePropertyPreFilter("id", "name");
+        assertJSON("[{\"id\":0,\"name\":\"n0\"},{\"id\":1,\"name\":\"n1\"},{\"id\":2,\"name\":\"n2\"}]", list, filter);
+    }
+
+    public void test_excludes_and_label() throws Exception {
+        SimplePropertyPreFilter filter = new SimplePropertyPreFilter();
+        filter.getExcludes().add("name");
+        assertJSON("{\"id\":1,\"price\":1.5}", new Model(1), filter, Labels.excludes("secret"));
+    }
+
+    public void test_class_and_level() throws Exception {
+        Node node = new Node(1);
+        node.child = new Node(2);
+        node.child.child = new Node(3);
+
+        SimplePropertyPreFilter filter = new SimplePropertyPreFilter(Model.class, "id");
+        assertJSON("{\"child\":{\"child\":{\"id\":3},\"id\":2},\"id\":1}", node, filter);
+
+        filter = new SimplePropertyPreFilter(Node.class);
+        filter.setMaxLevel(2);
+        assertJSON("{\"child\":{\"child\":{},\"id\":2},\"id\":1}", node, filter);
+    }
+
+    public void test_pascal_name() throws Exception {
+        assertJSON("{\"Id\":1,\"Name\":\"n1\"}", new Model(1), new SimplePropertyPreFilter("id", "name"),
+                   new PascalNameFilter());
+    }
+
+    public void test_custom_pre_filter() throws Exception {
+        PropertyPreFilter filter = new PropertyPreFilter() {
+
+            public boolean apply(JSONSerializer serializer, Object object, String name) {
+                return !"name".equals(name) || ((Model) object).id > 0;
+            }
+        };
+
+        assertJSON("{\"id\":0,\"price\":1.5,\"secret\":\"s0\"}", new Model(0), filter);
+        assertJSON("{\"id\":1,\"name\":\"n1\",\"price\":1.5,\"secret\":\"s1\"}", new Model(1), filter);
+    }
+
+    public void test_filter_changed() throws Exception {
+        SerializeWriter out = new SerializeWriter();
+        JSONSerializer serializer = new JSONSerializer(out, asmConfig);
+        serializer.addFilter(new SimplePropertyPreFilter("id", "name"));
+        serializer.write(new Model(1));
+
+        serializer.addFilter(new SimplePropertyPreFilter("id"));
+        serializer.write(new Model(2));
+
+        Assert.assertEquals("{\"id\":1,\"name\":\"n1\"}{\"id\":2}", out.toString());
+        out.close();
+    }
+
+    private void assertJSON(String expected, Object object, SerializeFilter... filters) {
+        Assert.assertEquals(expected, JSON.toJSONString(object, asmConfig, filters));
+        Assert.assertEquals(expected, JSON.toJSONString(object, reflectConfig, filters));
+    }
+
+    public static class Model {
+
+        public int    id;
+        public String name;
+        public double price = 1.5;
+
+        @JSONField(label = "secret")
+        public String secret;
+
+        public Model(){
+        }
+
+        public Model(int id){
+            this.id = id;
+            this.name = "n" + id;
+            this.secret = "s" + id;
+        }
+    }
+
+    public static class Node {
+
+        public int  id;
+        public Node child;
+
+        public Node(int id){
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.alibaba.json.bvt.serializer.filters;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.PropertyProjection;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
+
+public class PropertyProjectionTest extends TestCase {
+
+    private SerializeConfig asmConfig;
+    private SerializeConfig reflectConfig;
+
+    protected void setUp() throws Exception {
+        asmConfig = new SerializeConfig();
+        reflectConfig = new SerializeConfig();
+        reflectConfig.setAsmEnable(false);
+    }
+
+    public void test_includes() throws Exception {
+        PropertyProjection projection = PropertyProjection.includes("id", "items.price", "buyer");
+        assertJSON("{\"buyer\":{\"id\":7,\"name\":\"b\"},\"id\":1,\"items\":[{\"price\":10},{\"price\":11}]}", //
+                   createOrder(1), projection);
+    }
+
+    public void test_excludes() throws Exception {
+        PropertyProjection projection = PropertyProjection.excludes("buyer", "items.price");
+        assertJSON("{\"id\":1,\"items\":[{\"sku\":\"s0\"},{\"sku\":\"s1\"}]}", createOrder(1), projection);
+    }
+
+    public void test_list() throws Exception {
+        List<Order> orders = new ArrayList<Order>();
+        orders.add(createOrder(1));
+        orders.add(createOrder(2));
+
+        PropertyProjection projection = PropertyProjection.includes("id", "items.sku");
+        assertJSON("[{\"id\":1,\"items\":[{\"sku\":\"s0\"},{\"sku\":\"s1\"}]},{\"id\":2,\"items\":[{\"sku\":\"s0\"},{\"sku\":\"s1\"}]}]",
+                   orders, projection);
+    }
+
+    public void test_map() throws Exception {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("order", createOrder(1));
+        map.put("other", 1);
+
+        assertJSON("{\"order\":{\"id\":1}}", map, PropertyProjection.includes("order.id"));
+    }
+
+    public void test_simple_filter() throws Exception {
+        PropertyProjection projection = PropertyProjection.includes("id", "items.price", "items.sku");
+        SimplePropertyPreFilter filter = new SimplePropertyPreFilter(Item.class);
+        filter.getExcludes().add("sku");
+        assertJSON("{\"id\":1,\"items\":[{\"price\":10},{\"price\":11}]}", createOrder(1), projection, filter);
+    }
+
+    public void test_cache() throws Exception {
+        Assert.assertSame(PropertyProjection.includes("id", "items.price"), PropertyProjection.includes("items.price", "id"));
+        Assert.assertNotSame(PropertyProjection.includes("id"), PropertyProjection.excludes("id"));
+    }
+
+    public void test_not_retain_serializer() throws Exception {
+        PropertyProjection projection = PropertyProjection.includes("id", "items.sku");
+        SerializeConfig config = new SerializeConfig();
+        Assert.assertEquals("{\"id\":1,\"items\":[{\"sku\":\"s0\"},{\"sku\":\"s1\"}]}", //
+                            JSON.toJSONString(createOrder(1), config, projection));
+
+        WeakReference<ObjectSerializer> ref = new WeakReference<ObjectSerializer>(config.getObjectWriter(Item.class));
+        config = null;
+        for (int i = 0; i < 50 && ref.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(ref.get());
+    }
+
+    public void test_error() throws Exception {
+        Exception error = null;
+        try {
+            PropertyProjection.includes("items..price");
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        Assert.assertNotNull(error);
+
+        error = null;
+        try {
+            JSON.toJSONString(createOrder(1), PropertyProjection.includes("items.price"),
+                              SerializerFeature.DisableCircularReferenceDetect);
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        Assert.assertNotNull(error);
+
+        Assert.assertEquals("{\"id\":1}", JSON.toJSONString(createOrder(1), PropertyProjection.includes("id"),
+                                                            SerializerFeature.DisableCircularReferenceDetect));
+    }
+
+    private void assertJSON(String expected, Object object, SerializeFilter... filters) {
+        Assert.assertEquals(expected, JSON.toJSONString(object, asmConfig, filters));
+        Assert.assertEquals(expected, JSON.toJSONString(object, reflectConfig, filters));
+    }
+
+    private static Order createOrder(int id) {
+        Order order = new Order();
+        order.id = id;
+        order.buyer = new Buyer();
+        for (int i = 0; i < 2; ++i) {
+            Item item = new Item();
+            item.price = 10 + i;
+            item.sku = "s" + i;
+            order.items.add(item);
+        }
+        return order;
+    }
+
+    public static class Order {
+
+        public int        id;
+        public Buyer      buyer;
+        public List<Item> items = new ArrayList<Item>();
+    }
+
+    public static class Buyer {
+
+        public int    id   = 7;
+        public String name = "b";
+    }
+
+    public static class Item {
+
+        public int    price;
+        public String sku;
+    }
+}
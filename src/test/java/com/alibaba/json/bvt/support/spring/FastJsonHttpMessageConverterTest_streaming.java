@@ -0,0 +1,131 @@
+package com.alibaba.json.bvt.support.spring;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.junit.Assert;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+
+import com.alibaba.fastjson.JSONPObject;
+import com.alibaba.fastjson.support.config.FastJsonConfig;
+import com.alibaba.fastjson.support.spring.FastJsonHttpMessageConverter;
+
+public class FastJsonHttpMessageConverterTest_streaming extends TestCase {
+
+    public void test_small() throws Exception {
+        MockOutputMessage out = new MockOutputMessage();
+        converter(1024).write(new VO(123, "中文"), MediaType.APPLICATION_JSON_UTF8, out);
+
+        Assert.assertEquals("{\"id\":123,\"name\":\"中文\"}", out.getBodyAsString());
+        Assert.assertEquals(out.body.size(), out.getHeaders().getContentLength());
+    }
+
+    public void test_large() throws Exception {
+        List<VO> list = new ArrayList<VO>();
+        for (int i = 0; i < 10000; ++i) {
+            list.add(new VO(i, "name-" + i + "-中文"));
+        }
+
+        MockOutputMessage expected = new MockOutputMessage();
+        converter(0).write(list, MediaType.APPLICATION_JSON_UTF8, expected);
+
+        MockOutputMessage out = new MockOutputMessage();
+        converter(256).write(list, MediaType.APPLICATION_JSON_UTF8, out);
+
+        Assert.assertEquals(expected.getBodyAsString(), out.getBodyAsString());
+        Assert.assertEquals(-1, out.getHeaders().getContentLength());
+        Assert.assertTrue(out.body.writes > 1);
+    }
+
+    public void test_jsonp() throws Exception {
+        JSONPObject jsonp = new JSONPObject("callback");
+        jsonp.addParameter(new VO(1, "a"));
+
+        MockOutputMessage out = new MockOutputMessage();
+        converter(1024).write(jsonp, MediaType.APPLICATION_JSON_UTF8, out);
+
+        Assert.assertEquals("/**/callback({\"id\":1,\"name\":\"a\"})", out.getBodyAsString());
+        Assert.assertEquals(FastJsonHttpMessageConverter.APPLICATION_JAVASCRIPT, out.getHeaders().getContentType());
+    }
+
+    public void test_error() throws Exception {
+        MockOutputMessage out = new MockOutputMessage();
+        try {
+            converter(1024).write(new ErrorVO(), MediaType.APPLICATION_JSON_UTF8, out);
+            fail();
+        } catch (IllegalStateException ex) {
+            // skip
+        }
+        Assert.assertEquals(0, out.body.size());
+    }
+
+    private static FastJsonHttpMessageConverter converter(int streamingBufferSize) {
+        FastJsonConfig config = new FastJsonConfig();
+        config.setStreamingBufferSize(streamingBufferSize);
+
+        FastJsonHttpMessageConverter converter = new FastJsonHttpMessageConverter();
+        converter.setFastJsonConfig(config);
+        return converter;
+    }
+
+    private static class MockOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders     headers = new HttpHeaders();
+        private final CountingOutput body    = new CountingOutput();
+
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        public OutputStream getBody() throws IOException {
+            return body;
+        }
+
+        public String getBodyAsString() throws IOException {
+            return body.toString("UTF-8");
+        }
+    }
+
+    private static class CountingOutput extends ByteArrayOutputStream {
+
+        private int writes;
+
+        public void write(byte[] b, int off, int len) {
+            writes++;
+            super.write(b, off, len);
+        }
+    }
+
+    public static class VO {
+
+        private int    id;
+        private String name;
+
+        public VO(int id, String name){
+            this.id = id;
+            this.name = name;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static class ErrorVO {
+
+        public int getId() {
+            throw new IllegalStateException("error");
+        }
+    }
+}
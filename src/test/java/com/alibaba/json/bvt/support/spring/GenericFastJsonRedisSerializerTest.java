@@ -10,6 +10,7 @@ import org.junit.Test;
 import org.springframework.data.redis.serializer.SerializationException;
 
 import java.util.Arrays;
+import java.util.List;
 
 
 public class GenericFastJsonRedisSerializerTest {
@@ -51,6 +52,17 @@ public class GenericFastJsonRedisSerializerTest {
         serializer.deserialize(serializedValue);
     }
 
+    @Test
+    public void test_6() {
+        List<byte[]> values = serializer.serializeAll(Arrays.asList(new User(1, "土豆", 25), null, "abc"));
+        Assert.assertEquals(3, values.size());
+
+        List<Object> objects = serializer.deserializeAll(values);
+        Assert.assertEquals("土豆", ((User) objects.get(0)).getName());
+        Assert.assertNull(objects.get(1));
+        Assert.assertEquals("abc", objects.get(2));
+    }
+
     static class User {
         private Integer id;
         private String name;
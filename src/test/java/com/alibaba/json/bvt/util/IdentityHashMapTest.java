@@ -0,0 +1,103 @@
+package com.alibaba.json.bvt.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.util.IdentityHashMap;
+
+public class IdentityHashMapTest extends TestCase {
+
+    public void test_resize() throws Exception {
+        IdentityHashMap<Object, Integer> map = new IdentityHashMap<Object, Integer>(4);
+        List<Object> keys = new ArrayList<Object>();
+        for (int i = 0; i < 1000; ++i) {
+            Object key = new Object();
+            keys.add(key);
+            Assert.assertFalse(map.put(key, i));
+        }
+        Assert.assertEquals(1000, map.size());
+        for (int i = 0; i < keys.size(); ++i) {
+            Assert.assertEquals(Integer.valueOf(i), map.get(keys.get(i)));
+        }
+
+        Assert.assertTrue(map.put(keys.get(0), -1));
+        Assert.assertEquals(Integer.valueOf(-1), map.get(keys.get(0)));
+        Assert.assertEquals(1000, map.size());
+    }
+
+    public void test_putIfAbsent_remove() throws Exception {
+        IdentityHashMap<Class<?>, String> map = new IdentityHashMap<Class<?>, String>(16);
+        Assert.assertNull(map.putIfAbsent(String.class, "a"));
+        Assert.assertEquals("a", map.putIfAbsent(String.class, "b"));
+        Assert.assertEquals("a", map.get(String.class));
+        Assert.assertEquals(String.class, map.findClass("java.lang.String"));
+
+        Assert.assertEquals("a", map.remove(String.class));
+        Assert.assertNull(map.remove(String.class));
+        Assert.assertNull(map.get(String.class));
+        Assert.assertEquals(0, map.size());
+    }
+
+    public void test_concurrent_put() throws Exception {
+        final IdentityHashMap<Object, Object> map = new IdentityHashMap<Object, Object>(16);
+        final int threadCount = 8, perThread = 2000;
+        final Object[][] keys = new Object[threadCount][perThread];
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; ++i) {
+            final Object[] threadKeys = keys[i];
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < threadKeys.length; ++j) {
+                        threadKeys[j] = new Object();
+                        map.put(threadKeys[j], threadKeys);
+                        if (map.get(threadKeys[j]) != threadKeys) {
+                            throw new IllegalStateException("lost " + j);
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(threadCount * perThread, map.size());
+        for (Object[] threadKeys : keys) {
+            for (Object key : threadKeys) {
+                Assert.assertSame(threadKeys, map.get(key));
+            }
+        }
+    }
+
+    public void test_weak_keys() throws Exception {
+        IdentityHashMap<Object, String> map = new IdentityHashMap<Object, String>(16, true);
+        Object key = new Object();
+        map.put(key, "v");
+        for (int i = 0; i < 100; ++i) {
+            map.put(new Object(), "garbage");
+        }
+        Assert.assertEquals("v", map.get(key));
+
+        for (int i = 0; i < 50 && map.size() > 1; ++i) {
+            System.gc();
+            Thread.sleep(10);
+            map.remove(new Object()); // writes expunge the cleared keys
+        }
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals("v", map.get(key));
+    }
+}
@@ -0,0 +1,150 @@
+package com.alibaba.json.bvt.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.util.FieldInfo;
+import com.alibaba.fastjson.util.LambdaAccessors;
+
+public class LambdaAccessorsTest extends TestCase {
+
+    public void test_bind() throws Exception {
+        Method getter = Model.class.getDeclaredMethod("getId");
+        FieldInfo fieldInfo = new FieldInfo("id", getter, null, Model.class, null, 0, 0, 0, null, null, null);
+        Assert.assertTrue(LambdaAccessors.bind(fieldInfo));
+
+        Model model = new Model();
+        model.setId(3);
+        Assert.assertEquals(3, fieldInfo.get(model));
+
+        Method setter = Model.class.getDeclaredMethod("setName", String.class);
+        fieldInfo = new FieldInfo("name", setter, null, Model.class, null, 0, 0, 0, null, null, null);
+        Assert.assertTrue(LambdaAccessors.bind(fieldInfo));
+        fieldInfo.set(model, "x");
+        Assert.assertEquals("x", model.getName());
+    }
+
+    public void test_config() throws Exception {
+        SerializeConfig serializeConfig = new SerializeConfig();
+        serializeConfig.setAsmEnable(false);
+        serializeConfig.setLambdaAccessor(true);
+        ParserConfig parserConfig = new ParserConfig();
+        parserConfig.setAsmEnable(false);
+        parserConfig.setLambdaAccessor(true);
+
+        Model model = new Model();
+        model.setId(1001);
+        model.setName("中文");
+        model.setPrice(10.5D);
+        model.setValid(true);
+
+        String text = JSON.toJSONString(model, serializeConfig);
+        Assert.assertEquals("{\"id\":1001,\"name\":\"中文\",\"price\":10.5,\"valid\":true}", text);
+
+        Model parsed = JSON.parseObject(text, Model.class, parserConfig);
+        Assert.assertEquals(1001, parsed.getId());
+        Assert.assertEquals("中文", parsed.getName());
+        Assert.assertEquals(10.5D, parsed.getPrice(), 0D);
+        Assert.assertTrue(parsed.isValid());
+
+        parsed = JSON.parseObject("{\"price\":null}", Model.class, parserConfig);
+        Assert.assertEquals(0D, parsed.getPrice(), 0D);
+    }
+
+    public void test_error() throws Exception {
+        SerializeConfig serializeConfig = new SerializeConfig();
+        serializeConfig.setAsmEnable(false);
+        serializeConfig.setLambdaAccessor(true);
+
+        Exception error = null;
+        try {
+            JSON.toJSONString(new ErrorModel(), serializeConfig);
+        } catch (JSONException ex) {
+            error = ex;
+        }
+        Assert.assertNotNull(error);
+    }
+
+    public void test_ignoreErrorGetter() throws Exception {
+        SerializeConfig serializeConfig = new SerializeConfig();
+        serializeConfig.setAsmEnable(false);
+        serializeConfig.setLambdaAccessor(true);
+
+        Assert.assertEquals("{}", JSON.toJSONString(new ErrorModel(), serializeConfig, SerializerFeature.IgnoreErrorGetter));
+    }
+
+    public void test_setter_error() throws Exception {
+        Method setter = ErrorModel.class.getDeclaredMethod("setId", int.class);
+        FieldInfo fieldInfo = new FieldInfo("id", setter, null, ErrorModel.class, null, 0, 0, 0, null, null, null);
+        Assert.assertTrue(LambdaAccessors.bind(fieldInfo));
+
+        InvocationTargetException error = null;
+        try {
+            fieldInfo.set(new ErrorModel(), 1);
+        } catch (InvocationTargetException ex) {
+            error = ex;
+        }
+        Assert.assertNotNull(error);
+        Assert.assertTrue(error.getCause() instanceof IllegalStateException);
+    }
+
+    static class Model {
+
+        private int     id;
+        private String  name;
+        private double  price;
+        private boolean valid;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+
+        public boolean isValid() {
+            return valid;
+        }
+
+        public void setValid(boolean valid) {
+            this.valid = valid;
+        }
+    }
+
+    static class ErrorModel {
+
+        public int getId() {
+            throw new IllegalStateException();
+        }
+
+        public void setId(int id) {
+            throw new IllegalStateException();
+        }
+    }
+}
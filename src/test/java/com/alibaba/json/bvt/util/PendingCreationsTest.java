@@ -0,0 +1,124 @@
+package com.alibaba.json.bvt.util;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.util.PendingCreations;
+
+public class PendingCreationsTest extends TestCase {
+
+    public void test_deserializer_created_once() throws Exception {
+        final CountingParserConfig config = new CountingParserConfig();
+        final ObjectDeserializer[] results = new ObjectDeserializer[8];
+        run(results.length, new Task() {
+
+            public void run(int index) {
+                results[index] = config.getDeserializer(Model.class);
+            }
+        });
+
+        Assert.assertEquals(1, config.count.get());
+        for (ObjectDeserializer deserializer : results) {
+            Assert.assertSame(results[0], deserializer);
+        }
+    }
+
+    public void test_serializer() throws Exception {
+        final SerializeConfig config = new SerializeConfig();
+        final Object[] results = new Object[8];
+        run(results.length, new Task() {
+
+            public void run(int index) {
+                results[index] = config.getObjectWriter(Model.class);
+            }
+        });
+
+        for (Object serializer : results) {
+            Assert.assertSame(results[0], serializer);
+        }
+    }
+
+    public void test_recursive() throws Exception {
+        ParserConfig parserConfig = new ParserConfig();
+        SerializeConfig serializeConfig = new SerializeConfig();
+        Node node = JSON.parseObject("{\"id\":1,\"next\":{\"id\":2}}", Node.class, parserConfig);
+        Assert.assertEquals(2, node.next.id);
+        Assert.assertEquals("{\"id\":1,\"next\":{\"id\":2}}", JSON.toJSONString(node, serializeConfig));
+    }
+
+    public void test_nested_does_not_wait() throws Exception {
+        PendingCreations<String> pending = new PendingCreations<String>();
+        Assert.assertTrue(pending.begin("a"));
+        long start = System.currentTimeMillis();
+        Assert.assertFalse(pending.begin("a")); // 同一个线程递归创建
+        Assert.assertTrue(System.currentTimeMillis() - start < 500);
+        pending.end("a");
+        Assert.assertTrue(pending.begin("a"));
+        pending.end("a");
+    }
+
+    private static void run(int threadCount, final Task task) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threads.length; ++i) {
+            final int index = i;
+            threads[i] = new Thread() {
+
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    task.run(index);
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    interface Task {
+
+        void run(int index);
+    }
+
+    static class CountingParserConfig extends ParserConfig {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        public ObjectDeserializer createJavaBeanDeserializer(Class<?> clazz, Type type) {
+            count.incrementAndGet();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                // skip
+            }
+            return super.createJavaBeanDeserializer(clazz, type);
+        }
+    }
+
+    public static class Model {
+
+        public int    id;
+        public String name;
+    }
+
+    public static class Node {
+
+        public int  id;
+        public Node next;
+    }
+}
@@ -0,0 +1,99 @@
+package com.alibaba.json.bvt.util;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.IOUtils;
+import com.alibaba.fastjson.util.StripedBufferPool;
+import com.alibaba.fastjson.util.ThreadLocalCache;
+
+public class PooledBufferModeTest extends TestCase {
+
+    public void test_pooled() throws Exception {
+        ThreadLocalCacheTest.clearChars();
+
+        StripedBufferPool pool = new StripedBufferPool(1, 2, 1024 * 128);
+        ParserConfig.global.setBufferPool(pool);
+        int mode = setBufferMode(1);
+        try {
+            Assert.assertTrue(IOUtils.isPooledBuffer());
+
+            byte[] bytes = "{\"id\":1,\"name\":\"中文\"}".getBytes("UTF-8");
+            for (int i = 0; i < 2; ++i) {
+                JSONObject object = (JSONObject) JSON.parse(bytes, 0, bytes.length, IOUtils.UTF8.newDecoder());
+                Assert.assertEquals("中文", object.get("name"));
+
+                object = JSON.parseObject(new ByteArrayInputStream(bytes), JSONObject.class);
+                Assert.assertEquals(1, object.get("id"));
+            }
+            Assert.assertTrue(pool.getHitCount() > 0);
+            Assert.assertNull(charsLocal().get());
+
+            Assert.assertNotSame(ThreadLocalCache.getUTF8Decoder(), ThreadLocalCache.getUTF8Decoder());
+        } finally {
+            setBufferMode(mode);
+            ParserConfig.global.setBufferPool(StripedBufferPool.getGlobalInstance());
+        }
+    }
+
+    public void test_large_sbuf() throws Exception {
+        StripedBufferPool pool = new StripedBufferPool(1, 1, 1024 * 128);
+        ParserConfig.global.setBufferPool(pool);
+        int mode = setBufferMode(1);
+        try {
+            char[] large = new char[1024 * 16];
+            pool.releaseChars(large);
+
+            Assert.assertEquals(1, JSON.parseObject("{\"id\":1}").get("id"));
+            Assert.assertSame(large, pool.allocateChars(512));
+        } finally {
+            setBufferMode(mode);
+            ParserConfig.global.setBufferPool(StripedBufferPool.getGlobalInstance());
+        }
+    }
+
+    public void test_auto() throws Exception {
+        Assert.assertFalse(IOUtils.isPooledBuffer());
+
+        Method startVirtualThread;
+        try {
+            startVirtualThread = Thread.class.getMethod("startVirtualThread", Runnable.class);
+        } catch (NoSuchMethodException e) {
+            return; // jdk without virtual threads
+        }
+
+        final AtomicReference<Boolean> pooled = new AtomicReference<Boolean>();
+        Thread thread = (Thread) startVirtualThread.invoke(null, new Runnable() {
+            public void run() {
+                pooled.set(IOUtils.isPooledBuffer());
+                JSON.parseObject("{\"id\":1}");
+            }
+        });
+        thread.join();
+        Assert.assertEquals(Boolean.TRUE, pooled.get());
+    }
+
+    private static int setBufferMode(int mode) throws Exception {
+        Field field = IOUtils.class.getDeclaredField("bufferMode");
+        field.setAccessible(true);
+        int old = field.getInt(null);
+        field.setInt(null, mode);
+        return old;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ThreadLocal<char[]> charsLocal() throws Exception {
+        Field field = JSON.class.getDeclaredField("charsLocal");
+        field.setAccessible(true);
+        return (ThreadLocal<char[]>) field.get(null);
+    }
+}
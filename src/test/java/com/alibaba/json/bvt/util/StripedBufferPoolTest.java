@@ -0,0 +1,92 @@
+package com.alibaba.json.bvt.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.JSONReaderScanner;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.util.IOUtils;
+import com.alibaba.fastjson.util.StripedBufferPool;
+
+public class StripedBufferPoolTest extends TestCase {
+
+    public void test_size_class() throws Exception {
+        StripedBufferPool pool = new StripedBufferPool(1, 1, 1024 * 4);
+
+        char[] chars = pool.allocateChars(600);
+        Assert.assertEquals(1024, chars.length);
+        Assert.assertEquals(1, pool.getMissCount());
+
+        pool.releaseChars(chars);
+        Assert.assertSame(chars, pool.allocateChars(1000));
+        Assert.assertEquals(1, pool.getHitCount());
+
+        Assert.assertEquals(5000, pool.allocateChars(5000).length);
+        Assert.assertEquals(1, pool.getOversizeCount());
+
+        pool.releaseChars(new char[5000]); // not retained
+        Assert.assertEquals(512, pool.allocateChars(0).length);
+        Assert.assertEquals(2, pool.getMissCount());
+    }
+
+    public void test_bounded() throws Exception {
+        StripedBufferPool pool = new StripedBufferPool(1, 2, 1024);
+        byte[] b0 = new byte[1024], b1 = new byte[1024], b2 = new byte[1024];
+        pool.releaseBytes(b0);
+        pool.releaseBytes(b1);
+        pool.releaseBytes(b2);
+
+        byte[] x = pool.allocateBytes(1024);
+        byte[] y = pool.allocateBytes(1024);
+        Assert.assertTrue(x == b0 || x == b1);
+        Assert.assertTrue(y == b0 || y == b1);
+        Assert.assertNotSame(b2, pool.allocateBytes(1024));
+        Assert.assertEquals(2, pool.getHitCount());
+        Assert.assertEquals(1, pool.getMissCount());
+    }
+
+    public void test_larger_buffer_reused() throws Exception {
+        StripedBufferPool pool = new StripedBufferPool(1, 1, 1024 * 64);
+        char[] chars = new char[1024 * 40];
+        pool.releaseChars(chars);
+        Assert.assertSame(chars, pool.allocateChars(2048));
+
+        pool.clear();
+        Assert.assertEquals(0, pool.getHitCount());
+        Assert.assertEquals(2048, pool.allocateChars(2048).length);
+    }
+
+    public void test_config() throws Exception {
+        StripedBufferPool pool = new StripedBufferPool(1, 1, 1024 * 128);
+
+        SerializeConfig serializeConfig = new SerializeConfig();
+        serializeConfig.setBufferPool(pool);
+        Assert.assertEquals("{\"id\":1}", JSON.toJSONString(new JSONObject().fluentPut("id", 1), serializeConfig));
+        Assert.assertEquals(1, pool.getMissCount());
+        Assert.assertEquals("{\"id\":2}", new String(JSON.toJSONBytes(new JSONObject().fluentPut("id", 2), serializeConfig), "UTF-8"));
+        Assert.assertEquals(1, pool.getHitCount());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSON.writeJSONString(out, IOUtils.UTF8, "中文", serializeConfig, null, null, JSON.DEFAULT_GENERATE_FEATURE, SerializerFeature.EMPTY);
+        Assert.assertEquals("\"中文\"", new String(out.toByteArray(), "UTF-8"));
+
+        ParserConfig parserConfig = new ParserConfig();
+        parserConfig.setBufferPool(pool);
+        long hits = pool.getHitCount();
+        for (int i = 0; i < 2; ++i) {
+            DefaultJSONParser parser = new DefaultJSONParser(new JSONReaderScanner(new StringReader("{\"id\":3}"), JSON.DEFAULT_PARSER_FEATURE, parserConfig.getBufferPool()), parserConfig);
+            Assert.assertEquals(3, ((JSONObject) parser.parse()).get("id"));
+            parser.close();
+        }
+        Assert.assertEquals(hits + 1, pool.getHitCount()); // the reader buffer released by the first parser
+    }
+}
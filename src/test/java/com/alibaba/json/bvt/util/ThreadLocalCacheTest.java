@@ -6,8 +6,6 @@ import java.lang.reflect.Method;
 import org.junit.Assert;
 
 import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.serializer.SerializeWriter;
-import com.alibaba.fastjson.util.IOUtils;
 
 import junit.framework.TestCase;
 
@@ -46,48 +44,4 @@ public class ThreadLocalCacheTest extends TestCase {
         ThreadLocal<char[]> charsLocal = (ThreadLocal<char[]>) field.get(null);
         charsLocal.set(null);
     }
-
-    public void testBytes() throws Exception {
-
-        clearBytes();
-        Assert.assertEquals(getBytes(0).length, 8192);
-        Assert.assertEquals(getBytes(1024).length, 8192);
-        Assert.assertEquals(getBytes(8192 * 2).length, 8192 * 2);
-        Assert.assertEquals(getBytes(0).length, 8192);
-        Assert.assertSame(getBytes(0), getBytes(1204));
-        Assert.assertNotSame(getBytes(9000), getBytes(9000));
-
-        clearBytes();
-        Assert.assertEquals(getBytes(2048).length, 8192);
-
-        clearBytes();
-        Assert.assertEquals(getBytes(1024 * 256).length, 1024 * 256);
-        Assert.assertEquals(getBytes(0).length, 8192);
-        clearBytes();
-
-    }
-    
-    public static byte[] getBytes(int length) throws Exception {
-        Field field = SerializeWriter.class.getDeclaredField("bytesBufLocal");
-        field.setAccessible(true);
-        ThreadLocal<byte[]> bytesBufLocal = (ThreadLocal<byte[]>) field.get(null);
-        
-        byte[] bytes = bytesBufLocal.get();
-
-        if (bytes == null) {
-            bytes = new byte[1024 * 8];
-            bytesBufLocal.set(bytes);
-        }
-        
-        return bytes.length < length //
-            ? new byte[length] //
-            : bytes;
-    }
-    
-    public static void clearBytes() throws Exception {
-        Field field = SerializeWriter.class.getDeclaredField("bytesBufLocal");
-        field.setAccessible(true);
-        ThreadLocal<byte[]> bytesBufLocal = (ThreadLocal<byte[]>) field.get(null);
-        bytesBufLocal.set(null);
-    }
 }
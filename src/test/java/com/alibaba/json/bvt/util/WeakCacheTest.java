@@ -0,0 +1,106 @@
+package com.alibaba.json.bvt.util;
+
+import java.lang.ref.WeakReference;
+
+import org.junit.Assert;
+
+import junit.framework.TestCase;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.asm.ClassWriter;
+import com.alibaba.fastjson.asm.FieldWriter;
+import com.alibaba.fastjson.asm.MethodVisitor;
+import com.alibaba.fastjson.asm.MethodWriter;
+import com.alibaba.fastjson.asm.Opcodes;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.util.ASMClassLoader;
+import com.alibaba.fastjson.util.IdentityHashMap;
+
+public class WeakCacheTest extends TestCase {
+
+    public void test_serialize() throws Exception {
+        SerializeConfig config = new SerializeConfig(IdentityHashMap.DEFAULT_SIZE, false, true);
+        int serializerCount = config.getSerializerCount();
+
+        WeakReference<ClassLoader> loaderRef = serialize(config);
+        Assert.assertEquals(serializerCount + 1, config.getSerializerCount());
+        Assert.assertEquals(1, config.getASMClassCount());
+
+        gc(loaderRef);
+        Assert.assertNull(loaderRef.get());
+        Assert.assertEquals(serializerCount, config.getSerializerCount());
+        Assert.assertEquals(0, config.getASMClassCount());
+    }
+
+    public void test_parse() throws Exception {
+        ParserConfig config = new ParserConfig(false, true);
+        int deserializerCount = config.getDeserializerCount();
+
+        WeakReference<ClassLoader> loaderRef = parse(config);
+        Assert.assertEquals(deserializerCount + 1, config.getDeserializerCount());
+        Assert.assertEquals(1, config.getASMClassCount());
+
+        gc(loaderRef);
+        Assert.assertNull(loaderRef.get());
+        Assert.assertEquals(deserializerCount, config.getDeserializerCount());
+        Assert.assertEquals(0, config.getASMClassCount());
+    }
+
+    private static WeakReference<ClassLoader> serialize(SerializeConfig config) throws Exception {
+        IsolatedClassLoader loader = new IsolatedClassLoader();
+        Class<?> beanClass = loader.loadBean();
+        Object bean = beanClass.newInstance();
+        beanClass.getField("id").setInt(bean, 101);
+
+        Assert.assertEquals("{\"id\":101}", JSON.toJSONString(bean, config));
+        Assert.assertTrue(config.getObjectWriter(beanClass).getClass().getClassLoader() instanceof ASMClassLoader);
+        return new WeakReference<ClassLoader>(loader);
+    }
+
+    private static WeakReference<ClassLoader> parse(ParserConfig config) throws Exception {
+        IsolatedClassLoader loader = new IsolatedClassLoader();
+        Class<?> beanClass = loader.loadBean();
+
+        Object bean = JSON.parseObject("{\"id\":102}", beanClass, config);
+        Assert.assertEquals(102, beanClass.getField("id").getInt(bean));
+        Assert.assertTrue(config.getDeserializer(beanClass).getClass().getClassLoader() instanceof ASMClassLoader);
+        return new WeakReference<ClassLoader>(loader);
+    }
+
+    private static void gc(WeakReference<ClassLoader> ref) throws Exception {
+        for (int i = 0; i < 50 && ref.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * defines its own bean class, as a redeployed application would
+     */
+    static class IsolatedClassLoader extends ClassLoader implements Opcodes {
+
+        IsolatedClassLoader(){
+            super(WeakCacheTest.class.getClassLoader());
+        }
+
+        /**
+         * public class WeakCacheBean { public int id; }
+         */
+        Class<?> loadBean() throws Exception {
+            ClassWriter cw = new ClassWriter();
+            cw.visit(V1_5, ACC_PUBLIC + ACC_SUPER, "com/alibaba/json/bvt/util/WeakCacheBean", "java/lang/Object", null);
+            new FieldWriter(cw, ACC_PUBLIC, "id", "I").visitEnd();
+
+            MethodVisitor mw = new MethodWriter(cw, ACC_PUBLIC, "<init>", "()V", null, null);
+            mw.visitVarInsn(ALOAD, 0);
+            mw.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V");
+            mw.visitInsn(RETURN);
+            mw.visitMaxs(1, 1);
+            mw.visitEnd();
+
+            byte[] bytes = cw.toByteArray();
+            return defineClass("com.alibaba.json.bvt.util.WeakCacheBean", bytes, 0, bytes.length);
+        }
+    }
+}
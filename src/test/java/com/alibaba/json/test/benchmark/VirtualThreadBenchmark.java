@@ -0,0 +1,81 @@
+package com.alibaba.json.test.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.util.IOUtils;
+
+/**
+ * Platform thread pool vs one virtual thread per task, each task serializes and parses a small object as a request
+ * handler would. Run on jdk 21+, add -Dfastjson.pooledBuffer=false to see the ThreadLocal caches on virtual threads.
+ */
+public class VirtualThreadBenchmark {
+
+    static final int TASKS = 1000 * 1000;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("fastjson.pooledBuffer : " + IOUtils.getStringProperty(IOUtils.FASTJSON_POOLED_BUFFER));
+
+        for (int i = 0; i < 5; ++i) {
+            perf("platform", Executors.newFixedThreadPool(200));
+            ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+            if (virtual != null) {
+                perf("virtual ", virtual);
+            }
+        }
+    }
+
+    static void perf(String name, ExecutorService executor) throws Exception {
+        long gcCount = gcCount();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < TASKS; ++i) {
+            final int id = i;
+            executor.execute(new Runnable() {
+                public void run() {
+                    Model model = new Model();
+                    model.id = id;
+                    model.name = "name_" + id;
+                    for (int j = 0; j < 10; ++j) {
+                        model.tags.add("tag_" + j);
+                    }
+
+                    byte[] bytes = JSON.toJSONBytes(model);
+                    JSON.parseObject(bytes, Model.class);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+
+        long millis = System.currentTimeMillis() - start;
+        System.out.println(name + " millis : " + millis + ", gc : " + (gcCount() - gcCount));
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (Exception e) {
+            return null; // jdk without virtual threads
+        }
+    }
+
+    static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += gc.getCollectionCount();
+        }
+        return count;
+    }
+
+    public static class Model {
+        public int          id;
+        public String       name;
+        public List<String> tags = new ArrayList<String>();
+    }
+}